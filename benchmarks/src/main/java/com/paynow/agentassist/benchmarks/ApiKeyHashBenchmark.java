@@ -0,0 +1,37 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.paynow.agentassist.util.ApiKeyHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** The key hash every authenticated request pays before the principal cache lookup. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiKeyHashBenchmark {
+
+  private String apiKey;
+
+  @Setup
+  public void setUp() {
+    apiKey = "paynow-api-key-test";
+  }
+
+  @Benchmark
+  public String hashApiKey() {
+    return ApiKeyHasher.hash(apiKey);
+  }
+}
@@ -0,0 +1,69 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.paynow.agentassist.service.BalanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BalanceService#reserveAmount} followed by the matching release, from four threads that
+ * either all hit one customer's ledger cell or each hit their own. Logging is raised to WARN by
+ * the module's logback.xml so the measurement is the ledger, not the appender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BalanceServiceBenchmark {
+
+  private static final String[] CUSTOMERS = {
+    "c_customer_001", "c_customer_002", "c_api_key_test_001", "c_test_001"
+  };
+  private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+  private BalanceService balanceService;
+
+  @State(Scope.Thread)
+  public static class Customer {
+    String id;
+
+    @Setup
+    public void setUp(ThreadParams threads) {
+      id = CUSTOMERS[threads.getThreadIndex() % CUSTOMERS.length];
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    balanceService = new BalanceService();
+  }
+
+  @Benchmark
+  public boolean reserveContended() {
+    boolean reserved = balanceService.reserveAmount("c_test_001", AMOUNT);
+    balanceService.releaseReservedAmount("c_test_001", AMOUNT);
+    return reserved;
+  }
+
+  @Benchmark
+  public boolean reservePerThreadCustomer(Customer customer) {
+    boolean reserved = balanceService.reserveAmount(customer.id, AMOUNT);
+    balanceService.releaseReservedAmount(customer.id, AMOUNT);
+    return reserved;
+  }
+}
@@ -0,0 +1,97 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.service.DecisionMeters;
+import com.paynow.agentassist.service.DecisionMeters.Operation;
+import com.paynow.agentassist.service.MetricsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meter recording cost of one payment decision request: what the decision service and {@link
+ * MetricsService} record, done the old way (a builder and registry lookup per meter and a {@link
+ * Timer.Sample} per call) against the pre-registered {@link DecisionMeters} table. Run with {@code
+ * -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionMetersBenchmark {
+
+  private static final PaymentDecision[] DECISIONS = PaymentDecision.values();
+  private static final String STRATEGY = "conservative";
+
+  private MeterRegistry registry;
+  private DecisionMeters decisionMeters;
+  private MetricsService metricsService;
+  private int request;
+
+  @Setup
+  public void setUp() {
+    registry = new SimpleMeterRegistry();
+    decisionMeters =
+        new DecisionMeters(registry, List.of("default", "conservative", "aggressive"));
+    metricsService = new MetricsService(registry);
+  }
+
+  @Benchmark
+  public void builderPerCall() {
+    PaymentDecision decision = nextDecision();
+
+    Timer timer =
+        Timer.builder(ApiConstants.METRIC_REQUEST_DURATION)
+            .tag("service", "PaymentDecisionService")
+            .tag("operation", "processPaymentDecisionWithStrategy")
+            .register(registry);
+    Timer.Sample sample = Timer.start(registry);
+    registry
+        .counter(
+            ApiConstants.METRIC_PAYMENT_REQUESTS_TOTAL,
+            "operation", "payment_decision_strategy",
+            "strategy", STRATEGY,
+            "decision", decision.name())
+        .increment();
+    sample.stop(timer);
+
+    Counter.builder(ApiConstants.METRIC_PAYMENT_DECISIONS_TOTAL)
+        .tag("decision", decision.getValue())
+        .register(registry)
+        .increment();
+  }
+
+  @Benchmark
+  public void preRegistered() {
+    PaymentDecision decision = nextDecision();
+
+    long startTime = System.nanoTime();
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, STRATEGY, decision);
+    decisionMeters.recordDuration(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, System.nanoTime() - startTime);
+
+    metricsService.recordPaymentDecision(decision);
+  }
+
+  private PaymentDecision nextDecision() {
+    return DECISIONS[(request++ & Integer.MAX_VALUE) % DECISIONS.length];
+  }
+}
@@ -0,0 +1,94 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RiskSignals;
+import com.paynow.agentassist.strategy.AggressiveDecisionStrategy;
+import com.paynow.agentassist.strategy.ConservativeDecisionStrategy;
+import com.paynow.agentassist.strategy.DecisionStrategy;
+import com.paynow.agentassist.strategy.DecisionStrategyRegistry;
+import com.paynow.agentassist.strategy.DefaultDecisionStrategy;
+import com.paynow.agentassist.strategy.RuleTableDecisionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DecisionStrategy#makeDecision} for each registered strategy, over a mix of low-risk,
+ * high-risk and over-balance requests so every rule branch stays warm. The reasons list is
+ * allocated per call as {@code PaymentDecisionAgent} does; {@code evaluate} is the same decision
+ * with reasons left as a bitmask.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionStrategyBenchmark {
+
+  @Param({"default", "conservative", "aggressive"})
+  public String strategy;
+
+  private DecisionStrategy decisionStrategy;
+  private RuleTableDecisionStrategy ruleTable;
+  private PaymentDecisionRequest[] requests;
+  private RiskSignals[] signals;
+  private BigDecimal balance;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    DecisionStrategyRegistry registry =
+        new DecisionStrategyRegistry(
+            List.of(
+                new DefaultDecisionStrategy(),
+                new ConservativeDecisionStrategy(),
+                new AggressiveDecisionStrategy()));
+    decisionStrategy = registry.getStrategy(strategy);
+    ruleTable = (RuleTableDecisionStrategy) decisionStrategy;
+    balance = new BigDecimal("1000.00");
+    requests =
+        new PaymentDecisionRequest[] {
+          request("25.00"), request("250.00"), request("900.00"), request("1500.00")
+        };
+    signals =
+        new RiskSignals[] {
+          new RiskSignals(0, false, false, 2, "LOW"),
+          new RiskSignals(1, true, false, 8, "MEDIUM"),
+          new RiskSignals(3, true, true, 25, "HIGH"),
+          new RiskSignals(0, false, true, 12, "LOW")
+        };
+  }
+
+  @Benchmark
+  public PaymentDecision makeDecision() {
+    int i = next++ & 3;
+    List<String> reasons = new ArrayList<>();
+    return decisionStrategy.makeDecision(requests[i], balance, signals[i], reasons);
+  }
+
+  @Benchmark
+  public long evaluate() {
+    int i = next++ & 3;
+    return ruleTable.evaluate(requests[i].amount(), balance, signals[i]);
+  }
+
+  private static PaymentDecisionRequest request(String amount) {
+    return new PaymentDecisionRequest(
+        "c_bench_001", new BigDecimal(amount), "USD", "p_bench_001", "bench-key-000001");
+  }
+}
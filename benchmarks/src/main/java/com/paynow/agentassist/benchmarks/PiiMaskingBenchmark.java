@@ -0,0 +1,31 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.paynow.agentassist.util.PiiMaskingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** {@link PiiMaskingUtil#maskCustomerId}, called for the MDC and most log lines of a request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PiiMaskingBenchmark {
+
+  private String customerId = "c_customer_001";
+
+  @Benchmark
+  public String maskCustomerId() {
+    return PiiMaskingUtil.maskCustomerId(customerId);
+  }
+}
@@ -0,0 +1,67 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.paynow.agentassist.service.RateLimitingService;
+import com.paynow.agentassist.service.ratelimit.LocalRateLimiterBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitingService#isAllowed} on the local backend, for one hot customer and for keys
+ * spread over many customers. The rate is high enough that requests are admitted; {@code
+ * exhausted} uses the application's default rate, so almost every call is a rejection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitingBenchmark {
+
+  @Param({"1", "10000"})
+  public int customers;
+
+  @Param({"admitted", "exhausted"})
+  public String load;
+
+  private RateLimitingService rateLimitingService;
+  private String[] customerIds;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    boolean admitted = "admitted".equals(load);
+    // Payee and API client limits are the application defaults; isAllowed skips those tiers
+    rateLimitingService =
+        new RateLimitingService(
+            new LocalRateLimiterBackend(),
+            admitted ? 1_000_000_000 : 5,
+            admitted ? 1_000_000_000 : 10,
+            50,
+            100,
+            200,
+            400);
+
+    customerIds = new String[customers];
+    for (int i = 0; i < customers; i++) {
+      customerIds[i] = "c_bench_" + i;
+    }
+  }
+
+  @Benchmark
+  public boolean isAllowed() {
+    int i = next++;
+    return rateLimitingService.isAllowed(customerIds[(i & Integer.MAX_VALUE) % customers]);
+  }
+}
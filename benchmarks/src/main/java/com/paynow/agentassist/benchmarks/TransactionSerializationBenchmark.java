@@ -0,0 +1,72 @@
+package com.paynow.agentassist.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paynow.agentassist.domain.AgentStep;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.entity.PaymentTransaction;
+import com.paynow.agentassist.service.payment.PaymentTransactionFactory;
+import com.paynow.agentassist.service.payment.TraceCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@link PaymentTransaction} row of every decision with {@link
+ * PaymentTransactionFactory}, which populates it and encodes the reasons and agent trace, in each
+ * {@link TraceCodec.Format}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionSerializationBenchmark {
+
+  @Param({"BINARY", "JSON"})
+  public TraceCodec.Format format;
+
+  private TraceCodec traceCodec;
+  private PaymentDecisionRequest request;
+  private List<String> reasons;
+  private List<AgentStep> trace;
+
+  @Setup
+  public void setUp() {
+    traceCodec = new TraceCodec(new ObjectMapper().findAndRegisterModules(), format);
+    request =
+        new PaymentDecisionRequest(
+            "c_customer_001",
+            new BigDecimal("125.00"),
+            "USD",
+            "p_merchant_789",
+            "bench-key-000001");
+    reasons = List.of("amount_above_daily_threshold", "recent_disputes");
+    trace =
+        List.of(
+            new AgentStep("plan", "Check balance, risk, and limits"),
+            new AgentStep("tool:getBalance", "balance=1000.00"),
+            new AgentStep("tool:getRiskSignals", "recent_disputes=1, device_change=false"),
+            new AgentStep("strategy", "Using decision strategy: default"),
+            new AgentStep("tool:createCase", "Created case CASE-20251016-0001"));
+  }
+
+  @Benchmark
+  public PaymentTransaction createTransaction() {
+    return PaymentTransactionFactory.create(
+        traceCodec, request, PaymentDecision.REVIEW, reasons, trace, "req_bench_0001");
+  }
+}
@@ -0,0 +1,101 @@
+package com.paynow.agentassist.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load test settings, given as {@code name=value} arguments; every default is listed in {@link
+ * #DEFAULTS}. Arguments starting with {@code --} are not load test settings and are passed to the
+ * application instead.
+ *
+ * @param rate mean arrivals per second; requests are sent on schedule whether or not earlier ones
+ *     have completed
+ * @param arrival {@code poisson} for exponential inter-arrival times, {@code constant} for a fixed
+ *     interval
+ * @param hotFraction share of requests drawn from the {@code hotCustomers} first customers; the
+ *     rest are uniform over all {@code customers}
+ * @param replayFraction share of requests that resend an earlier request's body and idempotency key
+ * @param maxInFlight requests outstanding before further arrivals are dropped and counted as errors
+ */
+record LoadTestConfig(
+    double rate,
+    int warmupSeconds,
+    int durationSeconds,
+    String arrival,
+    int customers,
+    int hotCustomers,
+    double hotFraction,
+    double replayFraction,
+    int payees,
+    int maxInFlight,
+    long seed,
+    String apiKey,
+    String output) {
+
+  static final Map<String, String> DEFAULTS = defaults();
+
+  private static Map<String, String> defaults() {
+    Map<String, String> defaults = new LinkedHashMap<>();
+    defaults.put("rate", "100");
+    defaults.put("warmup", "10");
+    defaults.put("duration", "30");
+    defaults.put("arrival", "poisson");
+    defaults.put("customers", "10000");
+    defaults.put("hot-customers", "10");
+    defaults.put("hot-fraction", "0.2");
+    defaults.put("replay-fraction", "0.05");
+    defaults.put("payees", "50");
+    defaults.put("max-in-flight", "2000");
+    defaults.put("seed", "42");
+    defaults.put("api-key", "paynow-api-key-test");
+    defaults.put("output", "loadtest/target/loadtest-report.json");
+    return Map.copyOf(defaults);
+  }
+
+  LoadTestConfig {
+    if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+      throw new IllegalArgumentException("rate and duration must be positive, warmup not negative");
+    }
+    if (!Set.of("poisson", "constant").contains(arrival)) {
+      throw new IllegalArgumentException("arrival must be 'poisson' or 'constant': " + arrival);
+    }
+    if (customers <= 0 || hotCustomers <= 0 || hotCustomers > customers || payees <= 0) {
+      throw new IllegalArgumentException("need 0 < hot-customers <= customers and payees > 0");
+    }
+    if (hotFraction < 0 || hotFraction > 1 || replayFraction < 0 || replayFraction > 1) {
+      throw new IllegalArgumentException("hot-fraction and replay-fraction must be in [0, 1]");
+    }
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("max-in-flight must be positive");
+    }
+  }
+
+  /** Reads settings from {@code name=value} arguments over {@link #DEFAULTS}. */
+  static LoadTestConfig parse(Iterable<String> settings) {
+    Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+    for (String setting : settings) {
+      int eq = setting.indexOf('=');
+      String name = eq > 0 ? setting.substring(0, eq) : setting;
+      if (eq <= 0 || !DEFAULTS.containsKey(name)) {
+        throw new IllegalArgumentException(
+            "Unknown setting '" + setting + "'; expected one of " + DEFAULTS.keySet());
+      }
+      values.put(name, setting.substring(eq + 1));
+    }
+    return new LoadTestConfig(
+        Double.parseDouble(values.get("rate")),
+        Integer.parseInt(values.get("warmup")),
+        Integer.parseInt(values.get("duration")),
+        values.get("arrival"),
+        Integer.parseInt(values.get("customers")),
+        Integer.parseInt(values.get("hot-customers")),
+        Double.parseDouble(values.get("hot-fraction")),
+        Double.parseDouble(values.get("replay-fraction")),
+        Integer.parseInt(values.get("payees")),
+        Integer.parseInt(values.get("max-in-flight")),
+        Long.parseLong(values.get("seed")),
+        values.get("api-key"),
+        values.get("output"));
+  }
+}
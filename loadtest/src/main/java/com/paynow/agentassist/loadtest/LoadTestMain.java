@@ -0,0 +1,117 @@
+package com.paynow.agentassist.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.paynow.agentassist.PayNowAgentAssistApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Boots the application in this JVM on a random port, against its in-memory H2 database, and
+ * drives the decide endpoint with {@link OpenModelDriver}. Load settings are {@code name=value}
+ * arguments (see {@link LoadTestConfig}); {@code --property=value} arguments override the
+ * application's configuration, on top of the defaults below.
+ */
+public final class LoadTestMain {
+
+  /**
+   * Random port, quiet logs, and the rate limit tiers disabled so the run measures the decision
+   * path; pass {@code --paynow.rate-limit.requests-per-second=10} to load the limiter instead.
+   */
+  private static final Map<String, String> APPLICATION_DEFAULTS =
+      Map.of(
+          "server.port", "0",
+          "logging.level.root", "WARN",
+          "logging.level.com.paynow.agentassist", "WARN",
+          "logging.level.org.springframework.security", "WARN",
+          "spring.jpa.show-sql", "false",
+          "paynow.rate-limit.requests-per-second", "0",
+          "paynow.rate-limit.payee.requests-per-second", "0",
+          "paynow.rate-limit.api-client.requests-per-second", "0");
+
+  private LoadTestMain() {}
+
+  public static void main(String[] args) throws Exception {
+    List<String> settings = new ArrayList<>();
+    Map<String, String> properties = new LinkedHashMap<>(APPLICATION_DEFAULTS);
+    for (String arg : args) {
+      if (arg.startsWith("--")) {
+        int eq = arg.indexOf('=');
+        if (eq < 0) {
+          properties.put(arg.substring(2), "true");
+        } else {
+          properties.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+      } else {
+        settings.add(arg);
+      }
+    }
+    LoadTestConfig config = LoadTestConfig.parse(settings);
+
+    LoadTestReport report;
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(PayNowAgentAssistApplication.class)
+            .run(applicationArgs(properties))) {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      System.out.printf(
+          Locale.ROOT,
+          "Driving http://localhost:%d at %.0f req/s (%s), %ds warmup + %ds measured%n",
+          port,
+          config.rate(),
+          config.arrival(),
+          config.warmupSeconds(),
+          config.durationSeconds());
+      report = new OpenModelDriver(config, URI.create("http://localhost:" + port)).run();
+    }
+
+    Path output = Path.of(config.output());
+    if (output.getParent() != null) {
+      Files.createDirectories(output.getParent());
+    }
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(output.toFile(), report);
+    printSummary(report, output);
+    System.exit(0);
+  }
+
+  private static String[] applicationArgs(Map<String, String> properties) {
+    return properties.entrySet().stream()
+        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+        .toArray(String[]::new);
+  }
+
+  private static void printSummary(LoadTestReport report, Path output) {
+    LoadTestReport.Latency latency = report.latencyMs();
+    System.out.printf(
+        Locale.ROOT,
+        "offered %.1f req/s over %.1f s, throughput %.1f req/s until the last response at %.1f s%n"
+            + "errors %.2f%% (429 %.2f%%), dropped %d%n"
+            + "latency ms: p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n"
+            + "status %s%nreport written to %s%n",
+        report.offeredRate(),
+        report.measuredSeconds(),
+        report.throughput(),
+        report.completionSeconds(),
+        report.errorRate() * 100,
+        report.rateLimitedRate() * 100,
+        report.dropped(),
+        latency.p50(),
+        latency.p90(),
+        latency.p99(),
+        latency.p999(),
+        latency.max(),
+        report.statusCounts(),
+        output.toAbsolutePath());
+  }
+}
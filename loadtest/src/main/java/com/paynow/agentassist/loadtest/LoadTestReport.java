@@ -0,0 +1,96 @@
+package com.paynow.agentassist.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Result of one run, written as JSON. Counts cover the requests that arrived in the measured
+ * window. Errors are responses other than 2xx, transport failures and arrivals dropped at the
+ * in-flight limit; 429s are errors too, and their share is reported separately.
+ *
+ * <p>The offered rate is taken over the measured window, in which the requests were sent.
+ * Throughput is taken over the time until the last of them completed, so responses that only come
+ * back while the run drains do not count as served within the window.
+ */
+record LoadTestReport(
+    LoadTestConfig config,
+    double measuredSeconds,
+    double completionSeconds,
+    long sent,
+    long replays,
+    long completed,
+    long dropped,
+    long transportErrors,
+    long errors,
+    double errorRate,
+    double rateLimitedRate,
+    double offeredRate,
+    double throughput,
+    Map<String, Long> statusCounts,
+    Latency latencyMs) {
+
+  /** Latency percentiles in milliseconds, measured from each request's scheduled arrival. */
+  record Latency(
+      long count, double mean, double p50, double p90, double p99, double p999, double max) {
+
+    static Latency of(Histogram histogram) {
+      return new Latency(
+          histogram.getTotalCount(),
+          millis(histogram.getMean()),
+          millis(histogram.getValueAtPercentile(50)),
+          millis(histogram.getValueAtPercentile(90)),
+          millis(histogram.getValueAtPercentile(99)),
+          millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(double nanos) {
+      return Math.round(nanos / 1_000) / 1_000.0;
+    }
+  }
+
+  /**
+   * @param measuredSeconds length of the window in which measured requests were sent
+   * @param completionSeconds from the start of that window until the last measured request
+   *     completed; never less than {@code measuredSeconds}
+   */
+  static LoadTestReport of(
+      LoadTestConfig config,
+      double measuredSeconds,
+      double completionSeconds,
+      long sent,
+      long replays,
+      long completed,
+      long dropped,
+      long transportErrors,
+      Map<String, Long> statusCounts,
+      Histogram latency) {
+    long successes = 0;
+    for (Map.Entry<String, Long> entry : statusCounts.entrySet()) {
+      if (entry.getKey().startsWith("2")) {
+        successes += entry.getValue();
+      }
+    }
+    long attempts = sent + dropped;
+    long errors = attempts - successes;
+    long rateLimited = statusCounts.getOrDefault("429", 0L);
+    double servedSeconds = Math.max(measuredSeconds, completionSeconds);
+    return new LoadTestReport(
+        config,
+        measuredSeconds,
+        servedSeconds,
+        sent,
+        replays,
+        completed,
+        dropped,
+        transportErrors,
+        errors,
+        attempts > 0 ? (double) errors / attempts : 0,
+        attempts > 0 ? (double) rateLimited / attempts : 0,
+        attempts / measuredSeconds,
+        successes / servedSeconds,
+        statusCounts,
+        Latency.of(latency));
+  }
+}
@@ -0,0 +1,159 @@
+package com.paynow.agentassist.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends decide requests on an open-model schedule: arrival times are drawn up front and each
+ * request is sent when its time comes, however many earlier requests are still outstanding.
+ * Latency is measured from the scheduled arrival, not from when the request was actually sent, so
+ * a stalled server or dispatcher shows up as queueing delay rather than being hidden by a closed
+ * loop waiting on it. Requests arriving during warmup are sent but not recorded.
+ */
+final class OpenModelDriver {
+
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  private final LoadTestConfig config;
+  private final URI decideUri;
+  private final RequestMix mix;
+
+  private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+  private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+  private final LongAdder transportErrors = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong replays = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  // When the last measured request completed; throughput is taken up to this point
+  private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+
+  OpenModelDriver(LoadTestConfig config, URI baseUri) {
+    this.config = config;
+    this.decideUri = baseUri.resolve("/api/v1/payments/decide");
+    this.mix = new RequestMix(config);
+  }
+
+  LoadTestReport run() throws InterruptedException {
+    ExecutorService responses = Executors.newVirtualThreadPerTaskExecutor();
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(responses)
+            .build();
+    Semaphore inFlight = new Semaphore(config.maxInFlight());
+
+    long start = System.nanoTime();
+    long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+    long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+
+    long scheduled = start;
+    while (scheduled < end) {
+      long wait = scheduled - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+        continue;
+      }
+      boolean measured = scheduled >= measureFrom;
+      RequestMix.Request request = mix.next();
+      if (inFlight.tryAcquire()) {
+        send(client, request, scheduled, measured, inFlight);
+      } else if (measured) {
+        dropped.incrementAndGet();
+      }
+      scheduled += mix.interArrivalNanos();
+    }
+    long dispatchEnd = System.nanoTime();
+
+    // Let outstanding requests finish before reading the counters
+    boolean drained =
+        inFlight.tryAcquire(
+            config.maxInFlight(), REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+    client.shutdownNow();
+    responses.shutdownNow();
+    if (!drained) {
+      System.err.println("Requests still in flight after the drain timeout");
+    }
+
+    double measuredSeconds = Math.max(1, dispatchEnd - measureFrom) / 1e9;
+    double completionSeconds =
+        Math.max(1, Math.max(dispatchEnd, lastCompletion.get()) - measureFrom) / 1e9;
+    return LoadTestReport.of(
+        config,
+        measuredSeconds,
+        completionSeconds,
+        sent.get(),
+        replays.get(),
+        completed.sum(),
+        dropped.get(),
+        transportErrors.sum(),
+        countsByStatus(),
+        latency);
+  }
+
+  private void send(
+      HttpClient client,
+      RequestMix.Request request,
+      long scheduledNanos,
+      boolean measured,
+      Semaphore inFlight) {
+    if (measured) {
+      sent.incrementAndGet();
+      if (request.replay()) {
+        replays.incrementAndGet();
+      }
+    }
+    HttpRequest httpRequest =
+        HttpRequest.newBuilder(decideUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .header("X-API-Key", config.apiKey())
+            .POST(HttpRequest.BodyPublishers.ofByteArray(request.body()))
+            .build();
+    client
+        .sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+        .whenComplete(
+            (response, failure) -> {
+              if (measured) {
+                long now = System.nanoTime();
+                lastCompletion.accumulateAndGet(now, Math::max);
+                long elapsed = now - scheduledNanos;
+                latency.recordValue(Math.min(elapsed, HIGHEST_TRACKABLE_NANOS));
+                if (failure != null) {
+                  transportErrors.increment();
+                } else {
+                  completed.increment();
+                  statusCounts
+                      .computeIfAbsent(response.statusCode(), status -> new LongAdder())
+                      .increment();
+                }
+              }
+              // Released last, so a drained semaphore means every outcome is recorded
+              inFlight.release();
+            });
+  }
+
+  private Map<String, Long> countsByStatus() {
+    Map<String, Long> counts = new TreeMap<>();
+    statusCounts.forEach((status, count) -> counts.put(String.valueOf(status), count.sum()));
+    return counts;
+  }
+}
@@ -0,0 +1,68 @@
+package com.paynow.agentassist.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates decide request bodies: customers from a hot set or uniformly from the rest, random
+ * amounts and payees, a fresh idempotency key per request, and replays of recent requests. Not
+ * thread-safe; the single dispatcher thread owns it.
+ */
+final class RequestMix {
+
+  private static final int REPLAY_WINDOW = 1024;
+
+  private final LoadTestConfig config;
+  private final SplittableRandom random;
+  private final String runId;
+  private final byte[][] recent = new byte[REPLAY_WINDOW][];
+  private long sequence;
+
+  RequestMix(LoadTestConfig config) {
+    this.config = config;
+    this.random = new SplittableRandom(config.seed());
+    // Keeps idempotency keys unique across runs against the same database
+    this.runId = Long.toString(System.currentTimeMillis(), 36);
+  }
+
+  /** Body of the next request, and whether it replays an earlier one. */
+  Request next() {
+    int filled = (int) Math.min(sequence, REPLAY_WINDOW);
+    if (filled > 0 && random.nextDouble() < config.replayFraction()) {
+      return new Request(recent[random.nextInt(filled)], true);
+    }
+
+    int customer =
+        random.nextDouble() < config.hotFraction()
+            ? random.nextInt(config.hotCustomers())
+            : random.nextInt(config.customers());
+    long cents = 500 + random.nextLong(49_500);
+    String body =
+        String.format(
+            Locale.ROOT,
+            "{\"customerId\":\"c_load_%d\",\"amount\":%d.%02d,\"currency\":\"USD\","
+                + "\"payeeId\":\"p_load_%d\",\"idempotencyKey\":\"load-%s-%010d\"}",
+            customer,
+            cents / 100,
+            cents % 100,
+            random.nextInt(config.payees()),
+            runId,
+            sequence);
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    recent[(int) (sequence % REPLAY_WINDOW)] = bytes;
+    sequence++;
+    return new Request(bytes, false);
+  }
+
+  /** Nanos until the next arrival. */
+  long interArrivalNanos() {
+    double meanNanos = 1e9 / config.rate();
+    if ("constant".equals(config.arrival())) {
+      return (long) meanNanos;
+    }
+    return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+  }
+
+  record Request(byte[] body, boolean replay) {}
+}
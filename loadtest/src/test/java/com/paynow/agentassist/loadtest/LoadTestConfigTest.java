@@ -0,0 +1,57 @@
+package com.paynow.agentassist.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Load Test Config Tests")
+class LoadTestConfigTest {
+
+  @Test
+  @DisplayName("Should fall back to the defaults for settings not given")
+  void shouldUseDefaults() {
+    LoadTestConfig config = LoadTestConfig.parse(List.of());
+
+    assertEquals(100.0, config.rate());
+    assertEquals(10, config.warmupSeconds());
+    assertEquals(30, config.durationSeconds());
+    assertEquals("poisson", config.arrival());
+    assertEquals(2000, config.maxInFlight());
+    assertEquals("paynow-api-key-test", config.apiKey());
+  }
+
+  @Test
+  @DisplayName("Should override the defaults with name=value settings")
+  void shouldParseSettings() {
+    LoadTestConfig config =
+        LoadTestConfig.parse(
+            List.of("rate=250.5", "warmup=0", "arrival=constant", "hot-fraction=0.5", "seed=7"));
+
+    assertEquals(250.5, config.rate());
+    assertEquals(0, config.warmupSeconds());
+    assertEquals("constant", config.arrival());
+    assertEquals(0.5, config.hotFraction());
+    assertEquals(7L, config.seed());
+  }
+
+  @Test
+  @DisplayName("Should reject unknown, malformed and out-of-range settings")
+  void shouldRejectInvalidSettings() {
+    assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("rps=10")));
+    assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("rate")));
+    assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("=10")));
+    assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("rate=0")));
+    assertThrows(
+        IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("arrival=burst")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> LoadTestConfig.parse(List.of("customers=5", "hot-customers=10")));
+    assertThrows(
+        IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("hot-fraction=1.5")));
+    assertThrows(
+        IllegalArgumentException.class, () -> LoadTestConfig.parse(List.of("max-in-flight=0")));
+  }
+}
@@ -0,0 +1,83 @@
+package com.paynow.agentassist.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Load Test Report Tests")
+class LoadTestReportTest {
+
+  private static final LoadTestConfig CONFIG = LoadTestConfig.parse(List.of());
+
+  @Test
+  @DisplayName("Should take throughput up to the last response, not the dispatch window")
+  void shouldTakeThroughputOverCompletionTime() {
+    // 400 requests sent in 4 s, the last of them back 35 s into the window
+    LoadTestReport report =
+        LoadTestReport.of(CONFIG, 4, 35, 400, 0, 400, 0, 0, Map.of("200", 400L), histogram());
+
+    assertEquals(100.0, report.offeredRate(), 1e-9);
+    assertEquals(400 / 35.0, report.throughput(), 1e-9);
+    assertEquals(35.0, report.completionSeconds());
+  }
+
+  @Test
+  @DisplayName("Should never take throughput over less than the measured window")
+  void shouldNotShortenWindowForEarlyCompletion() {
+    LoadTestReport report =
+        LoadTestReport.of(CONFIG, 10, 9.5, 1000, 0, 1000, 0, 0, Map.of("200", 1000L), histogram());
+
+    assertEquals(100.0, report.throughput(), 1e-9);
+    assertEquals(10.0, report.completionSeconds());
+  }
+
+  @Test
+  @DisplayName("Should count non-2xx, transport failures and dropped arrivals as errors")
+  void shouldCountErrors() {
+    LoadTestReport report =
+        LoadTestReport.of(
+            CONFIG,
+            10,
+            10,
+            95,
+            5,
+            93,
+            5,
+            2,
+            Map.of("200", 80L, "201", 3L, "429", 10L),
+            histogram(1, 2, 3, 4));
+
+    assertEquals(17, report.errors());
+    assertEquals(0.17, report.errorRate(), 1e-9);
+    assertEquals(0.10, report.rateLimitedRate(), 1e-9);
+    assertEquals(10.0, report.offeredRate(), 1e-9);
+    assertEquals(8.3, report.throughput(), 1e-9);
+    assertEquals(4, report.latencyMs().count());
+    assertEquals(4.0, report.latencyMs().max(), 0.01);
+  }
+
+  @Test
+  @DisplayName("Should report zero rates when nothing was attempted")
+  void shouldHandleEmptyRun() {
+    LoadTestReport report = LoadTestReport.of(CONFIG, 1, 1, 0, 0, 0, 0, 0, Map.of(), histogram());
+
+    assertEquals(0, report.errors());
+    assertEquals(0.0, report.errorRate());
+    assertEquals(0.0, report.rateLimitedRate());
+    assertEquals(0.0, report.throughput());
+  }
+
+  private static Histogram histogram(long... millis) {
+    Histogram histogram = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+    for (long value : millis) {
+      histogram.recordValue(TimeUnit.MILLISECONDS.toNanos(value));
+    }
+    return histogram;
+  }
+}
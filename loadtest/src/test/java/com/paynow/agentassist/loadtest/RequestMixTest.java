@@ -0,0 +1,87 @@
+package com.paynow.agentassist.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Request Mix Tests")
+class RequestMixTest {
+
+  private static final Pattern CUSTOMER = Pattern.compile("\"customerId\":\"c_load_(\\d+)\"");
+
+  @Test
+  @DisplayName("Should give each new request a fresh idempotency key")
+  void shouldUseFreshIdempotencyKeys() {
+    RequestMix mix = mix("replay-fraction=0");
+    Set<String> bodies = new HashSet<>();
+
+    for (int i = 0; i < 1000; i++) {
+      RequestMix.Request request = mix.next();
+      assertFalse(request.replay());
+      assertTrue(bodies.add(new String(request.body(), StandardCharsets.UTF_8)));
+    }
+  }
+
+  @Test
+  @DisplayName("Should resend earlier bodies at about the replay fraction")
+  void shouldReplayEarlierRequests() {
+    RequestMix mix = mix("replay-fraction=0.25");
+    Set<String> sent = new HashSet<>();
+    int replays = 0;
+
+    for (int i = 0; i < 10_000; i++) {
+      RequestMix.Request request = mix.next();
+      String body = new String(request.body(), StandardCharsets.UTF_8);
+      if (request.replay()) {
+        replays++;
+        assertTrue(sent.contains(body), "a replay resends an earlier body");
+      } else {
+        sent.add(body);
+      }
+    }
+    assertEquals(0.25, replays / 10_000.0, 0.02);
+  }
+
+  @Test
+  @DisplayName("Should draw about the hot fraction of requests from the hot customers")
+  void shouldFavourHotCustomers() {
+    RequestMix mix =
+        mix("replay-fraction=0", "customers=10000", "hot-customers=10", "hot-fraction=0.5");
+    int hot = 0;
+
+    for (int i = 0; i < 10_000; i++) {
+      Matcher matcher =
+          CUSTOMER.matcher(new String(mix.next().body(), StandardCharsets.UTF_8));
+      assertTrue(matcher.find());
+      if (Integer.parseInt(matcher.group(1)) < 10) {
+        hot++;
+      }
+    }
+    assertEquals(0.5, hot / 10_000.0, 0.02);
+  }
+
+  @Test
+  @DisplayName("Should space arrivals to the configured mean rate")
+  void shouldSpaceArrivalsAtMeanRate() {
+    assertEquals(10_000_000, mix("rate=100", "arrival=constant").interArrivalNanos());
+
+    RequestMix poisson = mix("rate=100", "arrival=poisson");
+    long total = 0;
+    for (int i = 0; i < 100_000; i++) {
+      total += poisson.interArrivalNanos();
+    }
+    assertEquals(10_000_000, total / 100_000.0, 200_000);
+  }
+
+  private static RequestMix mix(String... settings) {
+    return new RequestMix(LoadTestConfig.parse(List.of(settings)));
+  }
+}
@@ -0,0 +1,27 @@
+package com.paynow.agentassist.config;
+
+import com.paynow.agentassist.strategy.StrategyDefinition;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rule table strategies defined in configuration under {@code paynow.decision.strategies}, keyed
+ * by strategy name. They are compiled at startup alongside the built-in strategies.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paynow.decision")
+public class DecisionStrategyConfig {
+
+    private Map<String, StrategyDefinition> strategies = new LinkedHashMap<>();
+
+    public Map<String, StrategyDefinition> getStrategies() {
+        return strategies;
+    }
+
+    public void setStrategies(Map<String, StrategyDefinition> strategies) {
+        this.strategies = strategies;
+    }
+}
@@ -1,7 +1,13 @@
 package com.paynow.agentassist.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paynow.agentassist.security.ApiKeyAuthenticationFilter;
+import com.paynow.agentassist.security.EarlyRateLimitFilter;
 import com.paynow.agentassist.service.ApiKeyService;
+import com.paynow.agentassist.service.RateLimitingService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,13 +21,25 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
   private final ApiKeyService apiKeyService;
+  private final RateLimitingService rateLimitingService;
+  private final ObjectMapper objectMapper;
 
-  public SecurityConfig(ApiKeyService apiKeyService) {
+  @Value("${paynow.rate-limit.early-reject.scan-bytes:1024}")
+  private int earlyRejectScanBytes;
+
+  public SecurityConfig(
+      ApiKeyService apiKeyService,
+      RateLimitingService rateLimitingService,
+      ObjectMapper objectMapper) {
     this.apiKeyService = apiKeyService;
+    this.rateLimitingService = rateLimitingService;
+    this.objectMapper = objectMapper;
   }
 
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(
+      HttpSecurity http, ObjectProvider<EarlyRateLimitFilter> earlyRateLimitFilter)
+      throws Exception {
     http.csrf(csrf -> csrf.disable())
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -37,6 +55,10 @@ public class SecurityConfig {
         .addFilterBefore(apiKeyAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
         .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
 
+    // After authentication, so the API client tier has its key
+    earlyRateLimitFilter.ifAvailable(
+        filter -> http.addFilterAfter(filter, ApiKeyAuthenticationFilter.class));
+
     return http.build();
   }
 
@@ -44,4 +66,13 @@ public class SecurityConfig {
   public ApiKeyAuthenticationFilter apiKeyAuthenticationFilter() {
     return new ApiKeyAuthenticationFilter(apiKeyService);
   }
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "paynow.rate-limit.early-reject.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public EarlyRateLimitFilter earlyRateLimitFilter() {
+    return new EarlyRateLimitFilter(rateLimitingService, objectMapper, earlyRejectScanBytes);
+  }
 }
@@ -0,0 +1,35 @@
+package com.paynow.agentassist.config;
+
+import com.paynow.agentassist.util.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Active when {@code paynow.execution.mode=virtual}. Tomcat hands each request to its own virtual
+ * thread instead of the bounded worker pool, and pinned virtual threads are reported.
+ */
+@Configuration
+@ConditionalOnProperty(name = "paynow.execution.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler ->
+        protocolHandler.setExecutor(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+  }
+
+  @Bean(destroyMethod = "close")
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+      MeterRegistry meterRegistry,
+      @Value("${paynow.execution.pinning-threshold-ms:20}") long pinningThresholdMs) {
+    return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(pinningThresholdMs));
+  }
+}
@@ -2,6 +2,8 @@ package com.paynow.agentassist.config;
 
 import com.paynow.agentassist.interceptor.PerformanceInterceptor;
 import com.paynow.agentassist.interceptor.RequestCachingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,9 +27,11 @@ public class WebConfig implements WebMvcConfigurer {
     }
     
     @Bean
-    public FilterRegistrationBean<RequestCachingFilter> requestCachingFilter() {
+    @ConditionalOnProperty(name = "paynow.http.request-caching.enabled", havingValue = "true")
+    public FilterRegistrationBean<RequestCachingFilter> requestCachingFilter(
+            @Value("${paynow.http.request-caching.max-bytes:8192}") int maxBytes) {
         FilterRegistrationBean<RequestCachingFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new RequestCachingFilter());
+        registrationBean.setFilter(new RequestCachingFilter(maxBytes));
         registrationBean.addUrlPatterns("/api/*"); // Only cache request bodies for API endpoints
         registrationBean.setOrder(1);
         return registrationBean;
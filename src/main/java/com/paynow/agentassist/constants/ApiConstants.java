@@ -23,8 +23,16 @@ public final class ApiConstants {
   public static final String METRIC_PAYMENT_DECISIONS_TOTAL = "payment_decisions_total";
   public static final String METRIC_PAYMENT_REQUEST_DURATION = "payment_request_duration";
   public static final String METRIC_REQUEST_DURATION = "request_duration";
+  public static final String METRIC_API_REQUESTS_TOTAL = "api_requests_total";
   public static final String METRIC_OPERATION_EXECUTION_TIME = "operation.execution.time";
   public static final String METRIC_OPERATION_FAILURES = "operation.failures";
+  public static final String METRIC_VIRTUAL_THREAD_PINNED = "virtual_thread.pinned";
+  public static final String METRIC_PAYMENT_SERVICE_DURATION = "payment_service_duration";
+  public static final String METRIC_DECISION_OPERATIONS_TOTAL = "payment_decision_operations_total";
+  public static final String METRIC_RATE_LIMIT_CHECKS_TOTAL = "rate_limit_checks_total";
+  public static final String METRIC_STRATEGY_DECISIONS_TOTAL = "decision_strategy_decisions_total";
+  public static final String METRIC_STRATEGY_SHADOW_DECISIONS_TOTAL =
+      "decision_strategy_shadow_decisions_total";
 
   // Decision Values
   public static final String DECISION_ALLOW = "allow";
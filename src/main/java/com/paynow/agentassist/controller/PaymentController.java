@@ -5,6 +5,7 @@ import com.paynow.agentassist.dto.ApiResponse;
 import com.paynow.agentassist.dto.PaymentDecisionRequest;
 import com.paynow.agentassist.dto.PaymentDecisionResponse;
 import com.paynow.agentassist.dto.RateLimitResult;
+import com.paynow.agentassist.security.EarlyRateLimitFilter;
 import com.paynow.agentassist.service.MetricsService;
 import com.paynow.agentassist.service.payment.PaymentDecisionService;
 import jakarta.validation.Valid;
@@ -31,13 +32,19 @@ public class PaymentController {
 
   @PostMapping("/decide")
   public ResponseEntity<ApiResponse<PaymentDecisionResponse>> decidePayment(
-      @Valid @RequestBody PaymentDecisionRequest request) {
+      @Valid @RequestBody PaymentDecisionRequest request,
+      @RequestAttribute(name = EarlyRateLimitFilter.CHECKED_ATTRIBUTE, required = false)
+          EarlyRateLimitFilter.Checked earlyCheck) {
     long startTime = System.nanoTime();
 
     try {
       metricsService.incrementRequestCounter();
 
-      RateLimitResult rateLimitResult = paymentDecisionService.checkRateLimit(request);
+      // Already charged before binding unless the body's keys differ from what was scanned
+      RateLimitResult rateLimitResult =
+          earlyCheck != null && earlyCheck.covers(request)
+              ? RateLimitResult.success()
+              : paymentDecisionService.checkRateLimit(request);
       if (!rateLimitResult.allowed()) {
         ApiResponse<PaymentDecisionResponse> errorResponse =
             ApiResponse.error(
@@ -0,0 +1,98 @@
+package com.paynow.agentassist.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed vocabulary of decision reason codes. Ordinals are persisted as bit positions, so new codes
+ * must only ever be appended. Codes that a strategy can emit together are declared in the order
+ * the strategy adds them, which lets a bitmask reproduce the original reasons list.
+ */
+public enum ReasonCode {
+  INSUFFICIENT_BALANCE("insufficient_balance"),
+  AMOUNT_ABOVE_DAILY_THRESHOLD("amount_above_daily_threshold"),
+  AMOUNT_ABOVE_CONSERVATIVE_THRESHOLD("amount_above_conservative_threshold"),
+  AMOUNT_ABOVE_AGGRESSIVE_THRESHOLD("amount_above_aggressive_threshold"),
+  RECENT_DISPUTES("recent_disputes"),
+  MULTIPLE_RECENT_DISPUTES("multiple_recent_disputes"),
+  DEVICE_CHANGE_DETECTED("device_change_detected"),
+  DEVICE_CHANGE_WITH_DISPUTES("device_change_with_disputes"),
+  VELOCITY_VIOLATION("velocity_violation"),
+  SEVERE_VELOCITY_VIOLATION("severe_velocity_violation"),
+  HIGH_TRANSACTION_FREQUENCY("high_transaction_frequency"),
+  EXCESSIVE_TRANSACTION_FREQUENCY("excessive_transaction_frequency"),
+  INSUFFICIENT_FUNDS("insufficient_funds"),
+  SYSTEM_ERROR("system_error");
+
+  private static final ReasonCode[] VALUES = values();
+  private static final Map<String, ReasonCode> BY_VALUE = new HashMap<>();
+
+  static {
+    for (ReasonCode code : VALUES) {
+      BY_VALUE.put(code.value, code);
+    }
+  }
+
+  private final String value;
+
+  ReasonCode(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public long bit() {
+    return 1L << ordinal();
+  }
+
+  /** Returns the code for a reason string, or null if it is outside the vocabulary. */
+  public static ReasonCode fromValue(String value) {
+    return BY_VALUE.get(value);
+  }
+
+  /**
+   * Encodes reasons as a bitmask. Returns -1 if the list cannot be represented losslessly: an
+   * unknown reason, a duplicate, or an order that differs from the declaration order.
+   */
+  public static long toMask(List<String> reasons) {
+    long mask = 0L;
+    int lastOrdinal = -1;
+    for (String reason : reasons) {
+      ReasonCode code = BY_VALUE.get(reason);
+      if (code == null || code.ordinal() <= lastOrdinal) {
+        return -1L;
+      }
+      mask |= code.bit();
+      lastOrdinal = code.ordinal();
+    }
+    return mask;
+  }
+
+  public static List<String> fromMask(long mask) {
+    List<String> reasons = new ArrayList<>(Long.bitCount(mask));
+    addValues(mask, reasons);
+    return reasons;
+  }
+
+  /** Appends the reasons of a mask to a list, in declaration order. */
+  public static void addValues(long mask, List<String> reasons) {
+    long remaining = mask;
+    while (remaining != 0L) {
+      int ordinal = Long.numberOfTrailingZeros(remaining);
+      if (ordinal >= VALUES.length) {
+        throw new IllegalArgumentException("Unknown reason bit " + ordinal + " in mask " + mask);
+      }
+      reasons.add(VALUES[ordinal].value);
+      remaining &= remaining - 1;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -1,12 +1,23 @@
 package com.paynow.agentassist.dto;
 
+import java.util.concurrent.TimeUnit;
+
 public record RateLimitResult(boolean allowed, String errorMessage, String retryAfter) {
 
+  private static final RateLimitResult ALLOWED = new RateLimitResult(true, null, null);
+
   public static RateLimitResult success() {
-    return new RateLimitResult(true, null, null);
+    return ALLOWED;
   }
 
-  public static RateLimitResult rateLimited() {
-    return new RateLimitResult(false, "Too many requests for this customer", "1 second");
+  /**
+   * @param scope what the exhausted limit applies to, e.g. "customer"
+   * @param retryAfterNanos time until the limit admits a request again; the {@code retryAfter}
+   *     header value is in whole seconds, rounded up
+   */
+  public static RateLimitResult rateLimited(String scope, long retryAfterNanos) {
+    long seconds = Math.max(1L, -Math.floorDiv(-retryAfterNanos, TimeUnit.SECONDS.toNanos(1)));
+    return new RateLimitResult(
+        false, "Too many requests for this " + scope, String.valueOf(seconds));
   }
 }
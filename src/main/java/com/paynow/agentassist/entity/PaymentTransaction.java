@@ -2,6 +2,8 @@ package com.paynow.agentassist.entity;
 
 import com.paynow.agentassist.domain.PaymentDecision;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,8 +18,16 @@ import java.time.LocalDateTime;
     })
 public class PaymentTransaction {
 
+  public static final int AGENT_TRACE_DATA_LENGTH = 2048;
+
+  // Pooled sequence IDs (not IDENTITY) so Hibernate can batch inserts; schemas not created by
+  // ddl-auto need db/payment_transactions_seq.sql
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_transactions_seq")
+  @SequenceGenerator(
+      name = "payment_transactions_seq",
+      sequenceName = "payment_transactions_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true, length = 100)
@@ -42,12 +52,20 @@ public class PaymentTransaction {
   @Column(nullable = false, unique = true, length = 50)
   private String requestId;
 
+  // JSON fallback columns, NULL for rows written in compact form (agentTraceData, reasonMask
+  // below); schemas not created by ddl-auto need db/payment_transactions_compact_trace.sql
   @Column(columnDefinition = "TEXT")
   private String agentTrace;
 
   @Column(columnDefinition = "TEXT")
   private String reasons;
 
+  @JdbcTypeCode(SqlTypes.VARBINARY)
+  @Column(length = AGENT_TRACE_DATA_LENGTH)
+  private byte[] agentTraceData;
+
+  private Long reasonMask;
+
   @Column(nullable = false)
   private LocalDateTime createdAt;
 
@@ -147,6 +165,22 @@ public class PaymentTransaction {
     this.reasons = reasons;
   }
 
+  public byte[] getAgentTraceData() {
+    return agentTraceData;
+  }
+
+  public void setAgentTraceData(byte[] agentTraceData) {
+    this.agentTraceData = agentTraceData;
+  }
+
+  public Long getReasonMask() {
+    return reasonMask;
+  }
+
+  public void setReasonMask(Long reasonMask) {
+    this.reasonMask = reasonMask;
+  }
+
   public LocalDateTime getCreatedAt() {
     return createdAt;
   }
@@ -0,0 +1,55 @@
+package com.paynow.agentassist.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Shared token bucket state for the {@code jdbc} rate limiter backend. The table is defined here
+ * so it is created with the rest of the schema; rows are read and compare-and-swapped on {@code
+ * version} with plain JDBC by {@code JdbcRateLimiterBackend}, not through JPA.
+ */
+@Entity
+@Table(name = RateLimitBucketState.TABLE_NAME)
+public class RateLimitBucketState {
+
+  public static final String TABLE_NAME = "rate_limit_buckets";
+  public static final int STATE_LENGTH = 512;
+
+  @Id
+  @Column(name = "bucket_key", length = 255)
+  private String bucketKey;
+
+  @JdbcTypeCode(SqlTypes.VARBINARY)
+  @Column(name = "state", nullable = false, length = STATE_LENGTH)
+  private byte[] state;
+
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  public RateLimitBucketState() {}
+
+  public String getBucketKey() {
+    return bucketKey;
+  }
+
+  public void setBucketKey(String bucketKey) {
+    this.bucketKey = bucketKey;
+  }
+
+  public byte[] getState() {
+    return state;
+  }
+
+  public void setState(byte[] state) {
+    this.state = state;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+}
@@ -1,84 +1,402 @@
 package com.paynow.agentassist.event;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Publishes payment decision events through bounded per-partition rings. Events are partitioned
+ * by customerId, so each customer's events are delivered in order by a single consumer, and each
+ * consumer drains its ring in batches and encodes into a buffer it reuses across events.
+ *
+ * <p>When a ring is full the {@link OverflowPolicy} decides what happens to the producer: wait
+ * for space, evict the oldest queued event, or append the event to a spill file that the
+ * consumer replays once the ring is empty. Spill files left behind by a previous run are replayed
+ * on startup.
+ *
+ * <p>When the {@link PaymentEventLog} is enabled, every published event is appended to its
+ * partition's log, which assigns the offset, and the consumer commits the log once per batch.
+ */
 @Service
-public class EventPublisher {
+public class EventPublisher implements MeterBinder {
 
   private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
   private static final Logger eventLogger = LoggerFactory.getLogger("PAYMENT_EVENTS");
+  private static final String METRIC_PREFIX = "event_pipeline";
+  private static final long POLL_INTERVAL_MS = 50;
 
-  private final ObjectMapper objectMapper;
-  private final BlockingQueue<PaymentDecisionEvent> eventQueue;
+  public enum OverflowPolicy {
+    BLOCK,
+    DROP_OLDEST,
+    SPILL;
 
-  public EventPublisher(ObjectMapper objectMapper) {
-    this.objectMapper = objectMapper;
-    this.eventQueue = new LinkedBlockingQueue<>();
-    startEventProcessor();
+    public static OverflowPolicy from(String value) {
+      if (value == null || value.isBlank()) {
+        return BLOCK;
+      }
+      return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private record Envelope(PaymentDecisionEvent event, long enqueuedNanos) {}
+
+  private final ObjectWriter eventWriter;
+  private final ObjectReader eventReader;
+  private final PaymentEventLog eventLog;
+  private final OverflowPolicy overflowPolicy;
+  private final int batchSize;
+  private final Partition[] partitions;
+  private final List<Future<?>> consumers = new ArrayList<>();
+  private volatile boolean running = true;
+
+  private final LongAdder published = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder spilled = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+
+  public EventPublisher(
+      ObjectMapper objectMapper,
+      ResourceManager resourceManager,
+      PaymentEventLog eventLog,
+      @Value("${paynow.events.partitions:2}") int partitionCount,
+      @Value("${paynow.events.capacity:8192}") int capacity,
+      @Value("${paynow.events.batch-size:256}") int batchSize,
+      @Value("${paynow.events.overflow:block}") String overflowPolicy,
+      @Value("${paynow.events.spill-dir:${java.io.tmpdir}/paynow-events-spill}") String spillDir) {
+    if (partitionCount < 1 || capacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException(
+          "Event partitions, capacity and batch size must be positive");
+    }
+    this.eventWriter = objectMapper.writerFor(PaymentDecisionEvent.class);
+    this.eventReader = objectMapper.readerFor(PaymentDecisionEvent.class);
+    this.eventLog = eventLog;
+    this.overflowPolicy = OverflowPolicy.from(overflowPolicy);
+    this.batchSize = batchSize;
+    this.partitions = new Partition[partitionCount];
+    for (int i = 0; i < partitionCount; i++) {
+      partitions[i] = new Partition(i, capacity, Path.of(spillDir, "partition-" + i + ".jsonl"));
+    }
+
+    ExecutorService executor =
+        resourceManager.getOrCreateExecutor("payment-event-processor", partitionCount);
+    for (Partition partition : partitions) {
+      consumers.add(executor.submit(() -> consume(partition)));
+    }
+    logger.info(
+        "Payment event pipeline started with {} partitions of {} slots, overflow policy {}",
+        partitionCount,
+        capacity,
+        this.overflowPolicy);
   }
 
   public void publishPaymentDecision(PaymentDecisionEvent event) {
     try {
-      eventQueue.offer(event);
+      if (!running) {
+        dropped.increment();
+        logger.warn("Event pipeline stopped, dropping payment decision event: {}", event.eventId());
+        return;
+      }
+      partitionFor(event.customerId()).offer(new Envelope(event, System.nanoTime()));
       logger.debug("Payment decision event queued: {}", event.eventId());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      dropped.increment();
+      logger.warn("Interrupted while queueing payment decision event: {}", event.eventId());
     } catch (Exception e) {
       logger.error("Failed to queue payment decision event: {}", event.eventId(), e);
     }
   }
 
-  private void startEventProcessor() {
-    Thread eventProcessor =
-        new Thread(
-            () -> {
-              while (!Thread.currentThread().isInterrupted()) {
-                try {
-                  PaymentDecisionEvent event = eventQueue.take();
-                  processEvent(event);
-                } catch (InterruptedException e) {
-                  Thread.currentThread().interrupt();
-                  logger.info("Event processor interrupted");
-                  break;
-                } catch (Exception e) {
-                  logger.error("Error processing event", e);
-                }
-              }
-            });
+  public int getQueueSize() {
+    int size = 0;
+    for (Partition partition : partitions) {
+      size += partition.queue.size();
+    }
+    return size;
+  }
 
-    eventProcessor.setName("payment-event-processor");
-    eventProcessor.setDaemon(true);
-    eventProcessor.start();
+  private Partition partitionFor(String customerId) {
+    int h = customerId == null ? 0 : customerId.hashCode();
+    return partitions[Math.floorMod(h ^ (h >>> 16), partitions.length)];
+  }
 
-    logger.info("Payment event processor started");
+  private void consume(Partition partition) {
+    List<Envelope> batch = new ArrayList<>(batchSize);
+    EncodeBuffer buffer = new EncodeBuffer();
+    while (running || !partition.queue.isEmpty()) {
+      try {
+        if (running && partition.spilling && partition.queue.isEmpty()) {
+          partition.replaySpill(buffer);
+          continue;
+        }
+        Envelope first = partition.queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        partition.queue.drainTo(batch, batchSize - 1);
+        for (Envelope envelope : batch) {
+          processEvent(partition, envelope.event(), buffer);
+        }
+        commitLog(partition);
+        batches.increment();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.info("Event processor for partition {} interrupted", partition.index);
+        break;
+      } catch (Exception e) {
+        logger.error("Error processing events for partition {}", partition.index, e);
+      } finally {
+        batch.clear();
+      }
+    }
   }
 
-  private void processEvent(PaymentDecisionEvent event) {
+  private void processEvent(Partition partition, PaymentDecisionEvent event, EncodeBuffer buffer) {
     try {
-      // Simulate Kafka publishing by logging to stdout and dedicated logger
-      String eventJson = objectMapper.writeValueAsString(event);
+      buffer.reset();
+      eventWriter.writeValue(buffer, event);
+      long offset =
+          eventLog.isEnabled()
+              ? eventLog.append(partition.index, buffer.array(), 0, buffer.size())
+              : partition.nextOffset++;
 
-      // Log to stdout (simulating Kafka producer)
-      System.out.println("KAFKA_EVENT: " + eventJson);
-
-      // Log to dedicated event logger (for auditing)
-      eventLogger.info(
-          "PUBLISHED: topic=payment.decided, partition=0, offset={}, event={}",
-          System.currentTimeMillis(),
-          eventJson);
+      // Dedicated event logger serves as the audit trail
+      if (eventLogger.isInfoEnabled()) {
+        eventLogger.info(
+            "PUBLISHED: topic=payment.decided, partition={}, offset={}, event={}",
+            partition.index,
+            offset,
+            buffer.toString(StandardCharsets.UTF_8));
+      }
 
+      published.increment();
       logger.debug("Successfully published payment decision event: {}", event.eventId());
 
     } catch (Exception e) {
+      failed.increment();
       logger.error("Failed to publish payment decision event: {}", event.eventId(), e);
     }
   }
 
-  public int getQueueSize() {
-    return eventQueue.size();
+  private void commitLog(Partition partition) {
+    if (!eventLog.isEnabled()) {
+      return;
+    }
+    try {
+      eventLog.commit(partition.index);
+    } catch (Exception e) {
+      logger.error("Failed to commit event log for partition {}", partition.index, e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    for (Future<?> consumer : consumers) {
+      try {
+        consumer.get(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        logger.warn("Event processor did not stop cleanly", e);
+      }
+    }
+    for (Partition partition : partitions) {
+      partition.closeSpill();
+    }
+    logger.info(
+        "Payment event pipeline stopped, {} published, {} failed, {} dropped, {} spilled",
+        published.sum(),
+        failed.sum(),
+        dropped.sum(),
+        spilled.sum());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Partition partition : partitions) {
+      String tag = String.valueOf(partition.index);
+      Gauge.builder(METRIC_PREFIX + ".queue.depth", partition.queue, BlockingQueue::size)
+          .tag("partition", tag)
+          .description("Events waiting in the partition ring")
+          .register(registry);
+      TimeGauge.builder(
+              METRIC_PREFIX + ".lag",
+              partition,
+              TimeUnit.NANOSECONDS,
+              Partition::headAgeNanos)
+          .tag("partition", tag)
+          .description("Age of the oldest event waiting in the partition ring")
+          .register(registry);
+    }
+    registerEventCounter(registry, "published", published);
+    registerEventCounter(registry, "failed", failed);
+    registerEventCounter(registry, "dropped", dropped);
+    registerEventCounter(registry, "spilled", spilled);
+    FunctionCounter.builder(METRIC_PREFIX + ".batches", batches, LongAdder::sum)
+        .register(registry);
+  }
+
+  private void registerEventCounter(MeterRegistry registry, String result, LongAdder counter) {
+    FunctionCounter.builder(METRIC_PREFIX + ".events", counter, LongAdder::sum)
+        .tag("result", result)
+        .register(registry);
+  }
+
+  /** Byte buffer reused by one consumer; exposes its backing array to avoid a copy. */
+  private static final class EncodeBuffer extends ByteArrayOutputStream {
+    EncodeBuffer() {
+      super(512);
+    }
+
+    byte[] array() {
+      return buf;
+    }
+
+    void writeTo(OutputStream out, int terminator) throws IOException {
+      out.write(buf, 0, count);
+      out.write(terminator);
+    }
+  }
+
+  private final class Partition {
+    private final int index;
+    private final BlockingQueue<Envelope> queue;
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+    private final EncodeBuffer spillBuffer = new EncodeBuffer();
+    private OutputStream spillOut;
+    // Once set, producers keep spilling until the consumer has replayed the file, so events
+    // for a customer are never delivered ahead of ones already spilled
+    private volatile boolean spilling;
+    // In-memory offsets when the event log is disabled; only touched by the partition's consumer
+    private long nextOffset;
+
+    Partition(int index, int capacity, Path spillFile) {
+      this.index = index;
+      this.queue = new ArrayBlockingQueue<>(capacity);
+      this.spillFile = spillFile;
+      this.spilling = Files.exists(spillFile);
+    }
+
+    void offer(Envelope envelope) throws InterruptedException, IOException {
+      switch (overflowPolicy) {
+        case BLOCK -> queue.put(envelope);
+        case DROP_OLDEST -> {
+          while (!queue.offer(envelope)) {
+            if (queue.poll() != null) {
+              dropped.increment();
+            }
+          }
+        }
+        case SPILL -> {
+          if (!spilling && queue.offer(envelope)) {
+            return;
+          }
+          synchronized (spillLock) {
+            if (!spilling && queue.offer(envelope)) {
+              return;
+            }
+            spill(envelope.event());
+          }
+        }
+      }
+    }
+
+    private void spill(PaymentDecisionEvent event) throws IOException {
+      if (spillOut == null) {
+        Files.createDirectories(spillFile.getParent());
+        spillOut =
+            Files.newOutputStream(
+                spillFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+      spillBuffer.reset();
+      eventWriter.writeValue(spillBuffer, event);
+      spillBuffer.writeTo(spillOut, '\n');
+      spilling = true;
+      spilled.increment();
+    }
+
+    void replaySpill(EncodeBuffer buffer) throws IOException {
+      List<PaymentDecisionEvent> events = new ArrayList<>();
+      synchronized (spillLock) {
+        closeSpill();
+        if (Files.exists(spillFile)) {
+          try (BufferedReader reader = Files.newBufferedReader(spillFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+              if (line.isBlank()) {
+                continue;
+              }
+              try {
+                events.add(eventReader.readValue(line));
+              } catch (IOException e) {
+                // A torn last line from a crash must not wedge the partition
+                failed.increment();
+                logger.error("Skipping unreadable spilled event in {}", spillFile, e);
+              }
+            }
+          }
+          Files.delete(spillFile);
+        }
+        spilling = false;
+      }
+      logger.info("Replaying {} spilled events for partition {}", events.size(), index);
+      for (PaymentDecisionEvent event : events) {
+        processEvent(this, event, buffer);
+      }
+      commitLog(this);
+    }
+
+    void closeSpill() {
+      synchronized (spillLock) {
+        if (spillOut == null) {
+          return;
+        }
+        try {
+          spillOut.close();
+        } catch (IOException e) {
+          logger.warn("Failed to close spill file {}", spillFile, e);
+        }
+        spillOut = null;
+      }
+    }
+
+    double headAgeNanos() {
+      Envelope head = queue.peek();
+      return head == null ? 0 : System.nanoTime() - head.enqueuedNanos();
+    }
   }
 }
@@ -0,0 +1,271 @@
+package com.paynow.agentassist.event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records stored in fixed-size memory-mapped segment files.
+ *
+ * <p>Each record is framed as {@code [int length][int crc32c][payload]} and gets the next offset
+ * in a gap-free sequence. Segments are named after the offset of their first record; when a
+ * record does not fit, the active segment is forced to disk and a new one is started, and the
+ * oldest segments beyond {@code maxSegments} are deleted. {@link #commit()} forces the active
+ * segment once for everything appended since the last call, so a caller appending a batch pays
+ * for one fsync.
+ *
+ * <p>Appends and commits must come from a single thread. Readers may run concurrently: a record
+ * becomes visible to them once its append returns. On open, the last segment is scanned and
+ * anything after the last record with a valid checksum is discarded.
+ */
+class EventSegmentLog implements Closeable {
+
+  static final int HEADER_BYTES = 8;
+  private static final String SUFFIX = ".log";
+
+  record Record(long offset, byte[] payload) {}
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final int maxSegments;
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final CRC32C crc = new CRC32C();
+  private volatile Segment active;
+  private boolean dirty;
+
+  EventSegmentLog(Path directory, int segmentBytes, int maxSegments) throws IOException {
+    if (segmentBytes <= HEADER_BYTES || maxSegments < 1) {
+      throw new IllegalArgumentException("Segment size or retention too small");
+    }
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.maxSegments = maxSegments;
+
+    Files.createDirectories(directory);
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList()) {
+        String name = file.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        segments.put(baseOffset, Segment.map(file, baseOffset, (int) Files.size(file)));
+      }
+    }
+
+    if (segments.isEmpty()) {
+      active = createSegment(0L);
+    } else {
+      for (Segment segment : segments.values()) {
+        segment.recover(crc, segment == segments.lastEntry().getValue());
+      }
+      active = segments.lastEntry().getValue();
+    }
+  }
+
+  /** Appends one record and returns its offset; it is durable after the next {@link #commit()}. */
+  long append(byte[] payload, int off, int len) throws IOException {
+    int frame = HEADER_BYTES + len;
+    if (frame > segmentBytes) {
+      throw new IllegalArgumentException(
+          "Record of " + len + " bytes exceeds segment size " + segmentBytes);
+    }
+    if (active.limit + frame > active.capacity()) {
+      roll();
+    }
+
+    Segment segment = active;
+    int position = segment.limit;
+    crc.reset();
+    crc.update(payload, off, len);
+    segment.buffer.putInt(position + 4, (int) crc.getValue());
+    segment.buffer.put(position + HEADER_BYTES, payload, off, len);
+    segment.buffer.putInt(position, len);
+    long offset = segment.baseOffset + segment.count;
+    segment.publish(position + frame, segment.count + 1);
+    dirty = true;
+    return offset;
+  }
+
+  /** Forces records appended since the previous commit to disk; returns false if none were. */
+  boolean commit() {
+    if (!dirty) {
+      return false;
+    }
+    active.buffer.force();
+    dirty = false;
+    return true;
+  }
+
+  /** Offset of the oldest retained record. */
+  long startOffset() {
+    return segments.firstKey();
+  }
+
+  /** Offset the next appended record will get. */
+  long endOffset() {
+    Segment segment = active;
+    return segment.baseOffset + segment.count;
+  }
+
+  int segmentCount() {
+    return segments.size();
+  }
+
+  Reader reader(long fromOffset) {
+    return new Reader(fromOffset);
+  }
+
+  @Override
+  public void close() {
+    commit();
+  }
+
+  private void roll() throws IOException {
+    active.buffer.force();
+    dirty = false;
+    active = createSegment(endOffset());
+    while (segments.size() > maxSegments) {
+      Map.Entry<Long, Segment> oldest = segments.pollFirstEntry();
+      // The mapping stays valid for readers still positioned in it until it is collected
+      Files.deleteIfExists(oldest.getValue().file);
+    }
+  }
+
+  private Segment createSegment(long baseOffset) throws IOException {
+    Path file = directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    Segment segment = Segment.map(file, baseOffset, segmentBytes);
+    segments.put(baseOffset, segment);
+    return segment;
+  }
+
+  /** Cursor for tailing the log; not thread-safe, use one per consuming thread. */
+  final class Reader {
+    private Segment segment;
+    private int position;
+    private long nextOffset;
+
+    private Reader(long fromOffset) {
+      seek(fromOffset);
+    }
+
+    /** Offset of the next record this reader will return. */
+    long position() {
+      return nextOffset;
+    }
+
+    /** Returns up to {@code maxRecords} records from the current position; empty when caught up. */
+    List<Record> poll(int maxRecords) {
+      List<Record> records = new ArrayList<>(Math.min(maxRecords, 256));
+      if (nextOffset < startOffset()) {
+        // Retention removed the segment this reader was in; skip to the oldest retained record
+        seek(startOffset());
+      }
+      while (records.size() < maxRecords) {
+        if (position < segment.limit) {
+          records.add(new Record(nextOffset++, readPayload()));
+          continue;
+        }
+        Map.Entry<Long, Segment> next = segments.higherEntry(segment.baseOffset);
+        if (next == null) {
+          break;
+        }
+        if (position < segment.limit) {
+          // Records landed in this segment before it was rolled
+          continue;
+        }
+        segment = next.getValue();
+        position = 0;
+        nextOffset = segment.baseOffset;
+      }
+      return records;
+    }
+
+    private void seek(long offset) {
+      Map.Entry<Long, Segment> entry = segments.floorEntry(Math.max(offset, startOffset()));
+      segment = entry.getValue();
+      position = 0;
+      nextOffset = segment.baseOffset;
+      long target = Math.min(offset, segment.baseOffset + segment.count);
+      while (nextOffset < target) {
+        position += HEADER_BYTES + segment.buffer.getInt(position);
+        nextOffset++;
+      }
+    }
+
+    private byte[] readPayload() {
+      int length = segment.buffer.getInt(position);
+      byte[] payload = new byte[length];
+      segment.buffer.get(position + HEADER_BYTES, payload);
+      position += HEADER_BYTES + length;
+      return payload;
+    }
+  }
+
+  private static final class Segment {
+    private final Path file;
+    private final long baseOffset;
+    private final MappedByteBuffer buffer;
+    // Written by the appender after the record bytes, so readers never see a partial record
+    private volatile int limit;
+    private volatile int count;
+
+    private Segment(Path file, long baseOffset, MappedByteBuffer buffer) {
+      this.file = file;
+      this.baseOffset = baseOffset;
+      this.buffer = buffer;
+    }
+
+    static Segment map(Path file, long baseOffset, int size) throws IOException {
+      try (FileChannel channel =
+          FileChannel.open(
+              file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        return new Segment(file, baseOffset, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+      }
+    }
+
+    int capacity() {
+      return buffer.capacity();
+    }
+
+    void publish(int newLimit, int newCount) {
+      count = newCount;
+      limit = newLimit;
+    }
+
+    /** Scans for the last intact record; in the active segment, zeroes whatever follows it. */
+    void recover(CRC32C crc, boolean active) {
+      int position = 0;
+      int records = 0;
+      while (position + HEADER_BYTES <= capacity()) {
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > capacity() - position - HEADER_BYTES) {
+          break;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        crc.reset();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+          break;
+        }
+        position += HEADER_BYTES + length;
+        records++;
+      }
+      if (active) {
+        byte[] zeros = new byte[Math.min(64 * 1024, capacity())];
+        for (int p = position; p < capacity(); p += zeros.length) {
+          buffer.put(p, zeros, 0, Math.min(zeros.length, capacity() - p));
+        }
+      }
+      publish(position, records);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.paynow.agentassist.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable local log of published {@link PaymentDecisionEvent}s, one {@link EventSegmentLog} per
+ * event pipeline partition. The partition's consumer appends each event and commits once per
+ * drained batch; consumers on the same host can replay or tail decisions from any retained
+ * offset. Disabled by default, in which case offsets are only kept in memory.
+ */
+@Component
+public class PaymentEventLog implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(PaymentEventLog.class);
+  private static final String METRIC_PREFIX = "event_log";
+
+  public record LoggedEvent(int partition, long offset, PaymentDecisionEvent event) {}
+
+  private final ObjectReader eventReader;
+  private final boolean enabled;
+  private final EventSegmentLog[] partitions;
+  private final FileChannel lockChannel;
+  private final FileLock directoryLock;
+  private final LongAdder commits = new LongAdder();
+
+  public PaymentEventLog(
+      ObjectMapper objectMapper,
+      @Value("${paynow.events.log.enabled:false}") boolean enabled,
+      @Value("${paynow.events.log.dir:./data/events}") String directory,
+      @Value("${paynow.events.partitions:2}") int partitionCount,
+      @Value("${paynow.events.log.segment-bytes:16777216}") int segmentBytes,
+      @Value("${paynow.events.log.max-segments:8}") int maxSegments)
+      throws IOException {
+    this.eventReader = objectMapper.readerFor(PaymentDecisionEvent.class);
+    this.enabled = enabled;
+    if (!enabled) {
+      this.partitions = new EventSegmentLog[0];
+      this.lockChannel = null;
+      this.directoryLock = null;
+      return;
+    }
+
+    Path root = Path.of(directory);
+    Files.createDirectories(root);
+    this.lockChannel =
+        FileChannel.open(root.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    this.directoryLock = lockChannel.tryLock();
+    if (directoryLock == null) {
+      lockChannel.close();
+      throw new IllegalStateException("Event log directory is in use by another process: " + root);
+    }
+
+    this.partitions = new EventSegmentLog[partitionCount];
+    for (int i = 0; i < partitionCount; i++) {
+      partitions[i] =
+          new EventSegmentLog(root.resolve("partition-" + i), segmentBytes, maxSegments);
+    }
+    logger.info(
+        "Payment event log opened at {} with {} partitions, {} byte segments, retaining {}",
+        root.toAbsolutePath(),
+        partitionCount,
+        segmentBytes,
+        maxSegments);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getPartitionCount() {
+    return partitions.length;
+  }
+
+  /** Appends an encoded event to the partition log; only the partition's consumer may call this. */
+  long append(int partition, byte[] payload, int off, int len) throws IOException {
+    return partitions[partition].append(payload, off, len);
+  }
+
+  /** Group commit: forces everything the partition's consumer appended since its last commit. */
+  void commit(int partition) {
+    if (partitions[partition].commit()) {
+      commits.increment();
+    }
+  }
+
+  public long getStartOffset(int partition) {
+    return partitions[partition].startOffset();
+  }
+
+  public long getEndOffset(int partition) {
+    return partitions[partition].endOffset();
+  }
+
+  /** Reads up to {@code maxEvents} events starting at {@code fromOffset}. */
+  public List<LoggedEvent> read(int partition, long fromOffset, int maxEvents) {
+    return tail(partition, fromOffset).poll(maxEvents);
+  }
+
+  /** Opens a cursor that returns events from {@code fromOffset} onwards as they are appended. */
+  public Tail tail(int partition, long fromOffset) {
+    if (!enabled) {
+      throw new IllegalStateException("Payment event log is disabled");
+    }
+    return new Tail(partition, partitions[partition].reader(fromOffset));
+  }
+
+  @PreDestroy
+  public void close() {
+    for (int i = 0; i < partitions.length; i++) {
+      partitions[i].close();
+    }
+    if (directoryLock != null) {
+      try {
+        directoryLock.release();
+        lockChannel.close();
+      } catch (IOException e) {
+        logger.warn("Failed to release event log directory lock", e);
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (int i = 0; i < partitions.length; i++) {
+      EventSegmentLog log = partitions[i];
+      String tag = String.valueOf(i);
+      Gauge.builder(METRIC_PREFIX + ".end_offset", log, EventSegmentLog::endOffset)
+          .tag("partition", tag)
+          .register(registry);
+      Gauge.builder(METRIC_PREFIX + ".segments", log, EventSegmentLog::segmentCount)
+          .tag("partition", tag)
+          .register(registry);
+    }
+    FunctionCounter.builder(METRIC_PREFIX + ".commits", commits, LongAdder::sum)
+        .description("Group commits (fsyncs) of the event log")
+        .register(registry);
+  }
+
+  /** Tailing cursor over one partition; not thread-safe. */
+  public final class Tail {
+    private final int partition;
+    private final EventSegmentLog.Reader reader;
+
+    private Tail(int partition, EventSegmentLog.Reader reader) {
+      this.partition = partition;
+      this.reader = reader;
+    }
+
+    /** Offset of the next event this cursor will return. */
+    public long getPosition() {
+      return reader.position();
+    }
+
+    /** Returns the next events, up to {@code maxEvents}; empty when caught up with the log. */
+    public List<LoggedEvent> poll(int maxEvents) {
+      List<EventSegmentLog.Record> records = reader.poll(maxEvents);
+      List<LoggedEvent> events = new ArrayList<>(records.size());
+      for (EventSegmentLog.Record record : records) {
+        try {
+          events.add(
+              new LoggedEvent(partition, record.offset(), eventReader.readValue(record.payload())));
+        } catch (IOException e) {
+          throw new UncheckedIOException(
+              "Unreadable event at partition " + partition + " offset " + record.offset(), e);
+        }
+      }
+      return events;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.paynow.agentassist.interceptor;
+
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.util.PiiMaskingUtil;
+import org.slf4j.MDC;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Puts the masked customer ID of a bound payment request into the MDC, reusing the object the
+ * controller receives instead of parsing the body a second time. {@link PerformanceInterceptor}
+ * clears the MDC when the request completes.
+ */
+@ControllerAdvice
+public class CustomerIdMdcAdvice extends RequestBodyAdviceAdapter {
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return PaymentDecisionRequest.class.equals(targetType);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage,
+                                MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        String customerId = ((PaymentDecisionRequest) body).customerId();
+        if (customerId != null) {
+            MDC.put("customerId", PiiMaskingUtil.maskCustomerId(customerId));
+        }
+        return body;
+    }
+}
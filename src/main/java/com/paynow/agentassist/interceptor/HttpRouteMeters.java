@@ -0,0 +1,164 @@
+package com.paynow.agentassist.interceptor;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HTTP request meters with bounded tag values. Routes are the URI templates of the handler
+ * mappings, registered once at startup and capped; any other path, and every method and status
+ * outside a fixed allow-list, is tagged {@value #OTHER}. Meters live in flat arrays: a request
+ * resolves its route and method slot once, and recording its outcome is a single array index.
+ */
+final class HttpRouteMeters {
+
+  static final String OTHER = "other";
+
+  private static final String[] METHODS = {"GET", "POST", "PUT", "PATCH", "DELETE", OTHER};
+  private static final int OTHER_METHOD = METHODS.length - 1;
+
+  private static final int[] STATUSES = {
+    200, 201, 202, 204, 400, 401, 403, 404, 405, 409, 415, 422, 429, 500, 502, 503, 504
+  };
+  private static final int STATUS_SLOTS = STATUSES.length + 1;
+  private static final int OTHER_STATUS = STATUSES.length;
+  private static final byte[] STATUS_SLOT = new byte[600];
+
+  static {
+    Arrays.fill(STATUS_SLOT, (byte) OTHER_STATUS);
+    for (int i = 0; i < STATUSES.length; i++) {
+      STATUS_SLOT[STATUSES[i]] = (byte) i;
+    }
+  }
+
+  private final MeterRegistry registry;
+  private final int maxRoutes;
+
+  // Route 0 is OTHER; replaced wholesale when routes are registered
+  private volatile Map<String, Integer> routeIndex = Map.of();
+  private volatile String[] routes = {OTHER};
+
+  // Indexed by route * METHODS.length + method
+  private final AtomicReferenceArray<Counter> requests;
+  // Indexed by (route * METHODS.length + method) * STATUS_SLOTS + status
+  private final AtomicReferenceArray<Timer> durations;
+
+  HttpRouteMeters(MeterRegistry registry, int maxRoutes) {
+    if (maxRoutes <= 0) {
+      throw new IllegalArgumentException("maxRoutes must be positive");
+    }
+    this.registry = registry;
+    this.maxRoutes = maxRoutes;
+    int slots = (maxRoutes + 1) * METHODS.length;
+    this.requests = new AtomicReferenceArray<>(slots);
+    this.durations = new AtomicReferenceArray<>(slots * STATUS_SLOTS);
+  }
+
+  /**
+   * Admits route templates up to the cap and pre-registers the request counter and success timer
+   * for each declared method; an empty method set means the route accepts any. Templates beyond
+   * the cap are counted as {@value #OTHER}.
+   */
+  synchronized void registerRoute(String template, Collection<String> declaredMethods) {
+    Integer index = routeIndex.get(template);
+    if (index == null) {
+      if (routes.length > maxRoutes) {
+        return;
+      }
+      index = routes.length;
+      String[] grown = Arrays.copyOf(routes, index + 1);
+      grown[index] = template;
+      Map<String, Integer> grownIndex = new HashMap<>(routeIndex);
+      grownIndex.put(template, index);
+      routes = grown;
+      routeIndex = Map.copyOf(grownIndex);
+    }
+    Iterable<String> methods = declaredMethods.isEmpty() ? Arrays.asList(METHODS) : declaredMethods;
+    for (String method : methods) {
+      int slot = slot(index, methodIndex(method));
+      requestCounter(slot);
+      durationTimer(slot, STATUS_SLOT[200]);
+    }
+  }
+
+  /** Route and method slot of a request; {@code template} may be {@code null} if none matched. */
+  int slot(String template, String method) {
+    Integer route = template != null ? routeIndex.get(template) : null;
+    return slot(route != null ? route : 0, methodIndex(method));
+  }
+
+  void recordRequest(int slot) {
+    requestCounter(slot).increment();
+  }
+
+  void recordDuration(int slot, int status, long durationNanos) {
+    durationTimer(slot, statusIndex(status)).record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Tag value of the slot's route, for meters outside this cache. */
+  String route(int slot) {
+    return routes[slot / METHODS.length];
+  }
+
+  int routeCount() {
+    return routes.length - 1;
+  }
+
+  private Counter requestCounter(int slot) {
+    Counter counter = requests.get(slot);
+    if (counter == null) {
+      // Racing threads get the same meter back from the registry
+      counter =
+          Counter.builder(ApiConstants.METRIC_API_REQUESTS_TOTAL)
+              .tag("endpoint", route(slot))
+              .tag("method", METHODS[slot % METHODS.length])
+              .register(registry);
+      requests.set(slot, counter);
+    }
+    return counter;
+  }
+
+  private Timer durationTimer(int slot, int statusIndex) {
+    int index = slot * STATUS_SLOTS + statusIndex;
+    Timer timer = durations.get(index);
+    if (timer == null) {
+      timer =
+          Timer.builder(ApiConstants.METRIC_REQUEST_DURATION)
+              .tag("endpoint", route(slot))
+              .tag("method", METHODS[slot % METHODS.length])
+              .tag(
+                  "status",
+                  statusIndex == OTHER_STATUS ? OTHER : String.valueOf(STATUSES[statusIndex]))
+              .register(registry);
+      durations.set(index, timer);
+    }
+    return timer;
+  }
+
+  private static int slot(int route, int method) {
+    return route * METHODS.length + method;
+  }
+
+  private static int statusIndex(int status) {
+    return status >= 0 && status < STATUS_SLOT.length ? STATUS_SLOT[status] : OTHER_STATUS;
+  }
+
+  private static int methodIndex(String method) {
+    return switch (method) {
+      case "GET" -> 0;
+      case "POST" -> 1;
+      case "PUT" -> 2;
+      case "PATCH" -> 3;
+      case "DELETE" -> 4;
+      default -> OTHER_METHOD;
+    };
+  }
+}
@@ -1,7 +1,5 @@
 package com.paynow.agentassist.interceptor;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paynow.agentassist.constants.ApiConstants;
 import com.paynow.agentassist.util.PiiMaskingUtil;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -10,27 +8,58 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
-import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
-import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @Component
-public class PerformanceInterceptor implements HandlerInterceptor {
+public class PerformanceInterceptor
+        implements HandlerInterceptor, ApplicationListener<ContextRefreshedEvent> {
     
     private static final Logger logger = LoggerFactory.getLogger(PerformanceInterceptor.class);
     private static final String START_TIME_ATTR = "interceptor.startTime";
     private static final String REQUEST_ID_ATTR = "interceptor.requestId";
+    private static final String METER_SLOT_ATTR = "interceptor.meterSlot";
+    private static final String API_PATH_PREFIX = "/api/";
     
     private final MeterRegistry meterRegistry;
-    private final ObjectMapper objectMapper;
+    private final HttpRouteMeters routeMeters;
     
-    public PerformanceInterceptor(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+    public PerformanceInterceptor(MeterRegistry meterRegistry,
+                                  @Value("${paynow.http.metrics.max-routes:64}") int maxRoutes) {
         this.meterRegistry = meterRegistry;
-        this.objectMapper = objectMapper;
+        this.routeMeters = new HttpRouteMeters(meterRegistry, maxRoutes);
+    }
+    
+    /** Pre-registers meters for every API route template once the handler mappings exist. */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        event.getApplicationContext()
+                .getBeansOfType(RequestMappingHandlerMapping.class)
+                .values()
+                .forEach(mapping ->
+                        mapping.getHandlerMethods().keySet().forEach(this::registerRoutes));
+        logger.debug("Registered HTTP meters for {} API routes", routeMeters.routeCount());
+    }
+    
+    private void registerRoutes(RequestMappingInfo info) {
+        List<String> methods = info.getMethodsCondition().getMethods().stream()
+                .map(RequestMethod::name)
+                .toList();
+        for (String pattern : info.getPatternValues()) {
+            if (pattern.startsWith(API_PATH_PREFIX)) {
+                routeMeters.registerRoute(pattern, methods);
+            }
+        }
     }
     
     @Override
@@ -54,11 +83,12 @@ public class PerformanceInterceptor implements HandlerInterceptor {
         // Log incoming request
         logger.info("Incoming request: {} {}", request.getMethod(), request.getRequestURI());
         
-        // Record request metric
-        meterRegistry.counter(ApiConstants.METRIC_PAYMENT_REQUESTS_TOTAL,
-                            "endpoint", request.getRequestURI(),
-                            "method", request.getMethod())
-                    .increment();
+        // Record request metric, tagged with the matched URI template rather than the raw path
+        int meterSlot = routeMeters.slot(
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                request.getMethod());
+        request.setAttribute(METER_SLOT_ATTR, meterSlot);
+        routeMeters.recordRequest(meterSlot);
         
         return true;
     }
@@ -70,20 +100,16 @@ public class PerformanceInterceptor implements HandlerInterceptor {
         try {
             Long startTime = (Long) request.getAttribute(START_TIME_ATTR);
             String requestId = (String) request.getAttribute(REQUEST_ID_ATTR);
+            Integer meterSlot = (Integer) request.getAttribute(METER_SLOT_ATTR);
             
-            if (startTime != null) {
+            if (startTime != null && meterSlot != null) {
                 long duration = System.nanoTime() - startTime;
                 double durationMs = duration / 1_000_000.0;
                 
                 String endpoint = request.getRequestURI();
                 String method = request.getMethod();
-                String status = String.valueOf(response.getStatus());
                 
-                meterRegistry.timer(ApiConstants.METRIC_REQUEST_DURATION,
-                                  "endpoint", endpoint,
-                                  "method", method,
-                                  "status", status)
-                            .record(duration, TimeUnit.NANOSECONDS);
+                routeMeters.recordDuration(meterSlot, response.getStatus(), duration);
                 
                 // Log slow requests
                 if (durationMs > 200) {
@@ -96,7 +122,7 @@ public class PerformanceInterceptor implements HandlerInterceptor {
                 
                 if (ex != null) {
                     meterRegistry.counter(ApiConstants.METRIC_OPERATION_FAILURES,
-                                        "endpoint", endpoint,
+                                        "endpoint", routeMeters.route(meterSlot),
                                         "method", method,
                                         "exception", ex.getClass().getSimpleName())
                                 .increment();
@@ -112,17 +138,8 @@ public class PerformanceInterceptor implements HandlerInterceptor {
     
     private void extractAndMaskPii(HttpServletRequest request) {
         try {
-            // Try to extract customer ID from request body for POST requests
-            if ("POST".equals(request.getMethod()) && request instanceof ContentCachingRequestWrapper) {
-                ContentCachingRequestWrapper wrapper = (ContentCachingRequestWrapper) request;
-                byte[] content = wrapper.getContentAsByteArray();
-                
-                if (content.length > 0) {
-                    String body = new String(content);
-                    extractCustomerIdFromJson(body);
-                }
-            }
-            
+            // Request bodies are masked by CustomerIdMdcAdvice once bound, not parsed here
+
             // Extract from path parameters (e.g., /api/v1/customers/{customerId})
             String uri = request.getRequestURI();
             extractCustomerIdFromPath(uri);
@@ -139,20 +156,6 @@ public class PerformanceInterceptor implements HandlerInterceptor {
         }
     }
     
-    private void extractCustomerIdFromJson(String jsonBody) {
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonBody);
-            JsonNode customerIdNode = jsonNode.get("customerId");
-            
-            if (customerIdNode != null && !customerIdNode.isNull()) {
-                String customerId = customerIdNode.asText();
-                MDC.put("customerId", PiiMaskingUtil.maskCustomerId(customerId));
-            }
-        } catch (IOException e) {
-            logger.debug("Failed to parse JSON for PII extraction: {}", e.getMessage());
-        }
-    }
-    
     private void extractCustomerIdFromPath(String uri) {
         // Match patterns like /api/v1/customers/c_12345 or /customers/c_12345
         if (uri.contains("/customers/")) {
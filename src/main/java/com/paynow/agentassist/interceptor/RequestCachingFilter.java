@@ -6,20 +6,35 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
 
 import java.io.IOException;
 
+/**
+ * Caches request bodies, up to {@code contentCacheLimit} bytes, for components that read them
+ * after the handler has. Registered only when {@code paynow.http.request-caching.enabled} is set;
+ * nothing in the request path needs it by default. Requests without a body are never wrapped.
+ */
 public class RequestCachingFilter implements Filter {
     
+    private final int contentCacheLimit;
+    
+    public RequestCachingFilter(int contentCacheLimit) {
+        this.contentCacheLimit = contentCacheLimit;
+    }
+    
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         
-        if (request instanceof HttpServletRequest) {
-            HttpServletRequest httpRequest = (HttpServletRequest) request;
-            
+        if (request instanceof HttpServletRequest httpRequest && hasBody(httpRequest)) {
             // Wrap request to cache body for later reading
-            ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(httpRequest);
+            ContentCachingRequestWrapper wrappedRequest =
+                    new ContentCachingRequestWrapper(httpRequest, contentCacheLimit);
             chain.doFilter(wrappedRequest, response);
         } else {
             chain.doFilter(request, response);
         }
     }
-}
\ No newline at end of file
+    
+    private static boolean hasBody(HttpServletRequest request) {
+        // -1 is an unknown length, e.g. a chunked body
+        return request.getContentLengthLong() != 0 && request.getContentType() != null;
+    }
+}
@@ -24,6 +24,9 @@ public interface ApiKeyRepository extends JpaRepository<ApiKeyEntity, Long> {
 
   @Modifying
   @Query(
-      "UPDATE ApiKeyEntity a SET a.lastUsedAt = :lastUsedAt, a.usageCount = a.usageCount + 1 WHERE a.id = :id")
-  void updateUsageStats(@Param("id") Long id, @Param("lastUsedAt") LocalDateTime lastUsedAt);
+      "UPDATE ApiKeyEntity a SET a.lastUsedAt = :lastUsedAt, a.usageCount = a.usageCount + :count WHERE a.id = :id")
+  int addUsageStats(
+      @Param("id") Long id,
+      @Param("count") long count,
+      @Param("lastUsedAt") LocalDateTime lastUsedAt);
 }
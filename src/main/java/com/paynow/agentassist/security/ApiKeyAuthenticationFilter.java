@@ -12,6 +12,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
 
@@ -37,26 +38,22 @@ public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
 
     String apiKey = request.getHeader(API_KEY_HEADER);
 
+    // One lookup both validates the key and resolves its owner
+    Optional<ApiKeyService.ApiKeyPrincipal> principal;
     try {
-      if (apiKey == null || !apiKeyService.validateApiKey(apiKey)) {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json");
-        response.getWriter().write("{\"error\":\"Invalid or missing API key\"}");
-        return;
-      }
+      principal = apiKey == null ? Optional.empty() : apiKeyService.authenticate(apiKey);
     } catch (Exception e) {
+      principal = Optional.empty();
+    }
+
+    if (principal.isEmpty()) {
       response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
       response.setContentType("application/json");
       response.getWriter().write("{\"error\":\"Invalid or missing API key\"}");
       return;
     }
 
-    String userId;
-    try {
-      userId = apiKeyService.getUserIdByApiKey(apiKey).orElse("unknown");
-    } catch (Exception e) {
-      userId = "unknown";
-    }
+    String userId = principal.get().userId() != null ? principal.get().userId() : "unknown";
 
     UsernamePasswordAuthenticationToken authentication =
         new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
@@ -0,0 +1,363 @@
+package com.paynow.agentassist.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paynow.agentassist.constants.ApiConstants;
+import com.paynow.agentassist.dto.ApiResponse;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RateLimitResult;
+import com.paynow.agentassist.service.RateLimitingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limits payment decisions before the body is bound and validated, so a retry storm is turned
+ * away for the cost of a short token scan. The top-level {@code customerId} and {@code payeeId}
+ * are read with a non-blocking parser fed from at most {@code scanBytes} of the body; the scanned
+ * bytes are replayed to the rest of the chain.
+ *
+ * <p>A request whose keys are not both found in the scanned prefix passes unchecked and is limited
+ * by the controller as before. An admitted request carries a {@link Checked} attribute naming the
+ * keys it was charged for, so the controller does not charge it again.
+ */
+public class EarlyRateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+  public static final String CHECKED_ATTRIBUTE =
+      "com.paynow.agentassist.security.EarlyRateLimitFilter.CHECKED";
+
+  static final String DECIDE_PATH = "/api/v1/payments/decide";
+
+  private static final String CUSTOMER_ID_FIELD = "customerId";
+  private static final String PAYEE_ID_FIELD = "payeeId";
+  private static final int READ_CHUNK = 512;
+
+  private final RateLimitingService rateLimitingService;
+  private final ObjectMapper objectMapper;
+  private final JsonFactory jsonFactory;
+  private final int scanBytes;
+
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder deferred = new LongAdder();
+
+  /** Keys an admitted request was charged for. */
+  public record Checked(String customerId, String payeeId) {
+
+    /** Whether the bound request is the one that was charged. */
+    public boolean covers(PaymentDecisionRequest request) {
+      return Objects.equals(customerId, request.customerId())
+          && Objects.equals(payeeId, request.payeeId());
+    }
+  }
+
+  public EarlyRateLimitFilter(
+      RateLimitingService rateLimitingService, ObjectMapper objectMapper, int scanBytes) {
+    if (scanBytes <= 0) {
+      throw new IllegalArgumentException("scanBytes must be positive");
+    }
+    this.rateLimitingService = rateLimitingService;
+    this.objectMapper = objectMapper;
+    this.jsonFactory = objectMapper.getFactory();
+    this.scanBytes = scanBytes;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !HttpMethod.POST.matches(request.getMethod()) || !DECIDE_PATH.equals(path);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    ServletInputStream body = request.getInputStream();
+    Prefix prefix = new Prefix(Math.min(scanBytes, READ_CHUNK));
+    String[] keys = scan(body, prefix);
+    HttpServletRequest replaying = new PrefixReplayingRequest(request, prefix.bytes(), body);
+
+    if (keys == null) {
+      deferred.increment();
+      filterChain.doFilter(replaying, response);
+      return;
+    }
+
+    RateLimitResult result = rateLimitingService.check(currentApiClient(), keys[0], keys[1]);
+    if (!result.allowed()) {
+      rejected.increment();
+      writeRejection(response, result);
+      return;
+    }
+
+    admitted.increment();
+    replaying.setAttribute(CHECKED_ATTRIBUTE, new Checked(keys[0], keys[1]));
+    filterChain.doFilter(replaying, response);
+  }
+
+  /**
+   * Feeds the body to a non-blocking parser until both keys are seen at depth one, the prefix limit
+   * is reached or the body ends.
+   *
+   * @return {@code {customerId, payeeId}}, or {@code null} if either was not found
+   */
+  private String[] scan(InputStream body, Prefix prefix) throws IOException {
+    String customerId = null;
+    String payeeId = null;
+    try (JsonParser parser = jsonFactory.createNonBlockingByteArrayParser()) {
+      ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+      int depth = 0;
+      String pendingField = null;
+
+      while (customerId == null || payeeId == null) {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.NOT_AVAILABLE) {
+          int start = prefix.length;
+          if (start >= scanBytes || prefix.readFrom(body, scanBytes) <= 0) {
+            return null;
+          }
+          feeder.feedInput(prefix.buffer, start, prefix.length);
+          continue;
+        }
+        if (token == null) {
+          return null;
+        }
+        switch (token) {
+          case START_OBJECT, START_ARRAY -> depth++;
+          case END_OBJECT, END_ARRAY -> {
+            if (--depth == 0) {
+              return null;
+            }
+          }
+          case FIELD_NAME -> {
+            pendingField = depth == 1 ? parser.currentName() : null;
+            continue;
+          }
+          case VALUE_STRING -> {
+            if (CUSTOMER_ID_FIELD.equals(pendingField)) {
+              customerId = parser.getText();
+            } else if (PAYEE_ID_FIELD.equals(pendingField)) {
+              payeeId = parser.getText();
+            }
+          }
+          default -> {}
+        }
+        pendingField = null;
+      }
+    } catch (IOException e) {
+      // Malformed JSON: leave it to binding to report
+      return null;
+    }
+    return new String[] {customerId, payeeId};
+  }
+
+  private void writeRejection(HttpServletResponse response, RateLimitResult result)
+      throws IOException {
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(ApiConstants.HEADER_RETRY_AFTER, result.retryAfter());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    objectMapper.writeValue(
+        response.getOutputStream(),
+        ApiResponse.error(
+            ApiConstants.ERROR_RATE_LIMIT_EXCEEDED,
+            ApiConstants.MSG_RATE_LIMIT_EXCEEDED,
+            result.errorMessage()));
+  }
+
+  private static String currentApiClient() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null ? authentication.getName() : null;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindOutcome(registry, "admitted", admitted);
+    bindOutcome(registry, "rejected", rejected);
+    bindOutcome(registry, "deferred", deferred);
+  }
+
+  private static void bindOutcome(MeterRegistry registry, String outcome, LongAdder count) {
+    FunctionCounter.builder("rate_limiter.early", count, LongAdder::sum)
+        .description("Payment requests rate limited before binding; deferred to the controller")
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  /** Body bytes read while scanning, grown up to the scan limit. */
+  private static final class Prefix {
+    private byte[] buffer;
+    private int length;
+
+    Prefix(int initialCapacity) {
+      this.buffer = new byte[initialCapacity];
+    }
+
+    /** Reads one chunk without exceeding {@code limit}; returns the bytes read or -1 at the end. */
+    int readFrom(InputStream in, int limit) throws IOException {
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.min(limit, buffer.length * 2));
+      }
+      int read = in.read(buffer, length, buffer.length - length);
+      if (read > 0) {
+        length += read;
+      }
+      return read;
+    }
+
+    byte[] bytes() {
+      return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+  }
+
+  /** Serves the scanned prefix, then the rest of the original body. */
+  private static final class PrefixReplayingRequest extends HttpServletRequestWrapper {
+    private final ServletInputStream stream;
+    private BufferedReader reader;
+
+    PrefixReplayingRequest(HttpServletRequest request, byte[] prefix, ServletInputStream rest) {
+      super(request);
+      this.stream = new PrefixInputStream(prefix, rest);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      return stream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      if (reader == null) {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        reader = new BufferedReader(new InputStreamReader(stream, charset));
+      }
+      return reader;
+    }
+  }
+
+  /**
+   * Replays the prefix ahead of the original stream. Asynchronous reads register on the original
+   * stream; the prefix is handed to the listener straight away, since the container only signals
+   * data it has not delivered yet.
+   */
+  private static final class PrefixInputStream extends ServletInputStream {
+    private final byte[] prefix;
+    private final ServletInputStream rest;
+    private int position;
+    private boolean finished;
+    private boolean async;
+
+    PrefixInputStream(byte[] prefix, ServletInputStream rest) {
+      this.prefix = prefix;
+      this.rest = rest;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position < prefix.length) {
+        return prefix[position++] & 0xFF;
+      }
+      return track(rest.read());
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (position < prefix.length) {
+        int n = Math.min(len, prefix.length - position);
+        System.arraycopy(prefix, position, b, off, n);
+        position += n;
+        return n;
+      }
+      return track(rest.read(b, off, len));
+    }
+
+    private int track(int read) {
+      if (read < 0) {
+        finished = true;
+      }
+      return read;
+    }
+
+    private boolean prefixPending() {
+      return position < prefix.length;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return finished || (async && !prefixPending() && rest.isFinished());
+    }
+
+    @Override
+    public boolean isReady() {
+      // Blocking readers never wait for readiness, only a registered listener does
+      return prefixPending() || !async || rest.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      if (readListener == null) {
+        throw new NullPointerException("readListener");
+      }
+      async = true;
+      rest.setReadListener(
+          new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+              readListener.onDataAvailable();
+            }
+
+            @Override
+            public void onAllDataRead() throws IOException {
+              // The original stream may end while the prefix has not been read yet
+              if (prefixPending()) {
+                readListener.onDataAvailable();
+              }
+              readListener.onAllDataRead();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+              readListener.onError(t);
+            }
+          });
+      if (prefixPending()) {
+        try {
+          readListener.onDataAvailable();
+        } catch (IOException | RuntimeException e) {
+          readListener.onError(e);
+        }
+      }
+    }
+  }
+}
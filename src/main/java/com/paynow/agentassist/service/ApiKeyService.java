@@ -2,37 +2,74 @@ package com.paynow.agentassist.service;
 
 import com.paynow.agentassist.entity.ApiKeyEntity;
 import com.paynow.agentassist.repository.ApiKeyRepository;
+import com.paynow.agentassist.util.ApiKeyHasher;
+import com.paynow.agentassist.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and validates API keys. Authentication hashes the presented key once and resolves it
+ * through an in-memory principal cache keyed by key hash; keys that are not found are remembered
+ * for a shorter TTL so repeated invalid keys don't reach the database either. Deactivating a key
+ * evicts it, while changes made outside this service become visible within the cache TTL. Usage
+ * of valid keys is handed to {@link ApiKeyUsageTracker} rather than written per request.
+ */
 @Service
 @Transactional
-public class ApiKeyService {
+public class ApiKeyService implements MeterBinder {
 
   private static final Logger logger = LoggerFactory.getLogger(ApiKeyService.class);
   private static final String API_KEY_PREFIX = "pn_";
   private static final int API_KEY_LENGTH = 32;
+  private static final String METRIC_PREFIX = "api_key_cache";
+
+  /** Authenticated identity of an active API key. */
+  public record ApiKeyPrincipal(Long keyId, String userId) {}
 
   private final ApiKeyRepository apiKeyRepository;
+  private final ApiKeyUsageTracker usageTracker;
   private final SecureRandom secureRandom = new SecureRandom();
+  private final BoundedTtlCache<String, ApiKeyPrincipal> principalCache;
+  private final BoundedTtlCache<String, Boolean> negativeCache;
 
-  public ApiKeyService(ApiKeyRepository apiKeyRepository) {
+  public ApiKeyService(ApiKeyRepository apiKeyRepository, ApiKeyUsageTracker usageTracker) {
+    this(apiKeyRepository, usageTracker, 10_000, 300, 10_000, 30);
+  }
+
+  @Autowired
+  public ApiKeyService(
+      ApiKeyRepository apiKeyRepository,
+      ApiKeyUsageTracker usageTracker,
+      @Value("${paynow.security.key-cache.max-size:10000}") int maxSize,
+      @Value("${paynow.security.key-cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${paynow.security.key-cache.negative-max-size:10000}") int negativeMaxSize,
+      @Value("${paynow.security.key-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
     this.apiKeyRepository = apiKeyRepository;
+    this.usageTracker = usageTracker;
+    this.principalCache = new BoundedTtlCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+    this.negativeCache =
+        new BoundedTtlCache<>(negativeMaxSize, negativeTtlSeconds, TimeUnit.SECONDS);
   }
 
   public boolean apiKeyExists(String apiKey) {
-    String keyHash = hashApiKey(apiKey);
+    String keyHash = ApiKeyHasher.hash(apiKey);
     return apiKeyRepository.findByKeyHash(keyHash).isPresent();
   }
 
@@ -45,7 +82,7 @@ public class ApiKeyService {
   }
 
   public String createApiKey(String apiKey, String userId, String name, String description) {
-    String keyHash = hashApiKey(apiKey);
+    String keyHash = ApiKeyHasher.hash(apiKey);
 
     ApiKeyEntity entity = new ApiKeyEntity();
     entity.setUserId(userId);
@@ -55,35 +92,54 @@ public class ApiKeyService {
     entity.setActive(true);
 
     apiKeyRepository.save(entity);
+    negativeCache.invalidate(keyHash);
 
     logger.info("Created new API key for user: {}, name: {}", userId, name);
 
     return apiKey;
   }
 
-  public boolean validateApiKey(String apiKey) {
+  /**
+   * Resolves an API key to its principal with a single hash and, on a cache miss, a single
+   * repository lookup. Records usage of the key when it is valid. Runs without a transaction of
+   * its own, so a cache hit touches no connection.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+  public Optional<ApiKeyPrincipal> authenticate(String apiKey) {
     if (apiKey == null) {
-      return false;
+      return Optional.empty();
     }
 
-    String keyHash = hashApiKey(apiKey);
-    Optional<ApiKeyEntity> entity = apiKeyRepository.findByKeyHashAndActiveTrue(keyHash);
-
-    if (entity.isPresent()) {
-      updateUsageStats(entity.get().getId());
-      return true;
+    String keyHash = ApiKeyHasher.hash(apiKey);
+    ApiKeyPrincipal principal = principalCache.get(keyHash);
+    if (principal == null) {
+      if (negativeCache.get(keyHash) != null) {
+        return Optional.empty();
+      }
+      principal =
+          apiKeyRepository
+              .findByKeyHashAndActiveTrue(keyHash)
+              .map(entity -> new ApiKeyPrincipal(entity.getId(), entity.getUserId()))
+              .orElse(null);
+      if (principal == null) {
+        negativeCache.put(keyHash, Boolean.TRUE);
+        return Optional.empty();
+      }
+      principalCache.put(keyHash, principal);
     }
 
-    return false;
+    updateUsageStats(principal.keyId());
+    return Optional.of(principal);
   }
 
-  public Optional<String> getUserIdByApiKey(String apiKey) {
-    if (apiKey == null) {
-      return Optional.empty();
-    }
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+  public boolean validateApiKey(String apiKey) {
+    return authenticate(apiKey).isPresent();
+  }
 
-    String keyHash = hashApiKey(apiKey);
-    return apiKeyRepository.findByKeyHashAndActiveTrue(keyHash).map(ApiKeyEntity::getUserId);
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+  public Optional<String> getUserIdByApiKey(String apiKey) {
+    return authenticate(apiKey).map(ApiKeyPrincipal::userId);
   }
 
   public List<ApiKeyEntity> getUserApiKeys(String userId) {
@@ -99,26 +155,50 @@ public class ApiKeyService {
 
     entity.setActive(false);
     apiKeyRepository.save(entity);
+    evictAfterCompletion(entity.getKeyHash());
 
     logger.info("Deactivated API key {} for user: {}", keyId, userId);
   }
 
-  @Transactional
+  /** Records one use of the key; the stored stats catch up on the tracker's next flush. */
   public void updateUsageStats(Long keyId) {
-    try {
-      apiKeyRepository.updateUsageStats(keyId, LocalDateTime.now());
-    } catch (Exception e) {
-      logger.warn("Failed to update usage stats for key: {}", keyId, e);
-    }
+    usageTracker.record(keyId);
   }
 
-  private String hashApiKey(String apiKey) {
-    try {
-      MessageDigest digest = MessageDigest.getInstance("SHA-256");
-      byte[] hash = digest.digest(apiKey.getBytes(StandardCharsets.UTF_8));
-      return Base64.getEncoder().encodeToString(hash);
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException("SHA-256 not available", e);
+  /**
+   * Evicts the key now and again once the transaction completes, so a lookup that cached the
+   * still-active row before the deactivation committed does not outlive it.
+   */
+  private void evictAfterCompletion(String keyHash) {
+    principalCache.invalidate(keyHash);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              principalCache.invalidate(keyHash);
+            }
+          });
     }
   }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(METRIC_PREFIX + ".size", principalCache, BoundedTtlCache::size)
+        .tag("type", "positive")
+        .register(registry);
+    Gauge.builder(METRIC_PREFIX + ".size", negativeCache, BoundedTtlCache::size)
+        .tag("type", "negative")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".requests", principalCache, BoundedTtlCache::hitCount)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".requests", negativeCache, BoundedTtlCache::hitCount)
+        .tag("result", "negative_hit")
+        .register(registry);
+    FunctionCounter.builder(
+            METRIC_PREFIX + ".requests", negativeCache, BoundedTtlCache::missCount)
+        .tag("result", "miss")
+        .register(registry);
+  }
 }
@@ -0,0 +1,150 @@
+package com.paynow.agentassist.service;
+
+import com.paynow.agentassist.repository.ApiKeyRepository;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates API key usage in memory and writes it to {@code api_keys} periodically, in one
+ * transaction per flush, instead of updating the key's row on every request. Stored usage counts
+ * and last-used timestamps lag by at most the flush interval; a failed flush is retried on the
+ * next cycle, and whatever is outstanding is flushed on shutdown.
+ */
+@Component
+public class ApiKeyUsageTracker implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(ApiKeyUsageTracker.class);
+  private static final String METRIC_PREFIX = "api_key_usage";
+
+  private static final class Usage {
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator lastUsedMillis = new LongAccumulator(Math::max, 0L);
+    // Counts are never reset, so increments racing with a flush are picked up by the next one
+    private volatile long flushedCount;
+  }
+
+  private record PendingUpdate(Long keyId, Usage usage, long total, long delta, long lastUsed) {}
+
+  private final ApiKeyRepository apiKeyRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ConcurrentMap<Long, Usage> usageByKey = new ConcurrentHashMap<>();
+  private final Object flushLock = new Object();
+  private final ScheduledFuture<?> flushTask;
+
+  private final LongAdder flushes = new LongAdder();
+  private final LongAdder failedFlushes = new LongAdder();
+
+  public ApiKeyUsageTracker(
+      ApiKeyRepository apiKeyRepository,
+      PlatformTransactionManager transactionManager,
+      ResourceManager resourceManager,
+      @Value("${paynow.security.usage.flush-interval-ms:5000}") long flushIntervalMs) {
+    this.apiKeyRepository = apiKeyRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.flushTask =
+        resourceManager
+            .getOrCreateScheduler("api-key-usage-flusher")
+            .scheduleWithFixedDelay(
+                this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void record(Long keyId) {
+    Usage usage = usageByKey.computeIfAbsent(keyId, id -> new Usage());
+    usage.count.increment();
+    usage.lastUsedMillis.accumulate(System.currentTimeMillis());
+  }
+
+  /** Writes usage recorded since the last successful flush; returns the number of keys updated. */
+  public int flush() {
+    synchronized (flushLock) {
+      List<PendingUpdate> updates = new ArrayList<>();
+      usageByKey.forEach(
+          (keyId, usage) -> {
+            long total = usage.count.sum();
+            long delta = total - usage.flushedCount;
+            if (delta > 0) {
+              updates.add(
+                  new PendingUpdate(keyId, usage, total, delta, usage.lastUsedMillis.get()));
+            }
+          });
+      if (updates.isEmpty()) {
+        return 0;
+      }
+
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            for (PendingUpdate update : updates) {
+              apiKeyRepository.addUsageStats(
+                  update.keyId(),
+                  update.delta(),
+                  LocalDateTime.ofInstant(
+                      Instant.ofEpochMilli(update.lastUsed()), ZoneId.systemDefault()));
+            }
+          });
+      for (PendingUpdate update : updates) {
+        update.usage().flushedCount = update.total();
+      }
+      flushes.increment();
+      logger.debug("Flushed usage stats for {} API keys", updates.size());
+      return updates.size();
+    }
+  }
+
+  public long getPendingCount() {
+    long pending = 0;
+    for (Usage usage : usageByKey.values()) {
+      pending += usage.count.sum() - usage.flushedCount;
+    }
+    return pending;
+  }
+
+  private void flushSafely() {
+    try {
+      flush();
+    } catch (Exception e) {
+      failedFlushes.increment();
+      logger.warn("Failed to flush API key usage stats, will retry", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flushTask.cancel(false);
+    flushSafely();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(METRIC_PREFIX + ".pending", this, ApiKeyUsageTracker::getPendingCount)
+        .description("Authenticated requests not yet reflected in stored usage counts")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".flushes", flushes, LongAdder::sum)
+        .tag("result", "success")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".flushes", failedFlushes, LongAdder::sum)
+        .tag("result", "failure")
+        .register(registry);
+  }
+}
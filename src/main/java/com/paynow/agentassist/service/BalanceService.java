@@ -5,11 +5,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 
-import com.paynow.agentassist.util.ResourceManager;
+import com.paynow.agentassist.service.ledger.BalanceLedger;
 
+import static com.paynow.agentassist.service.ledger.BalanceLedger.fromMinorUnits;
+import static com.paynow.agentassist.service.ledger.BalanceLedger.toMinorUnits;
 import static com.paynow.agentassist.util.PiiMaskingUtil.maskCustomerId;
 
 @Service
@@ -17,91 +17,59 @@ public class BalanceService {
 
   private static final Logger logger = LoggerFactory.getLogger(BalanceService.class);
 
-  // In-memory balance storage for simulation
-  private final ConcurrentHashMap<String, BigDecimal> balances = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, BigDecimal> reservedAmounts = new ConcurrentHashMap<>();
+  // In-memory balance storage for simulation, balance and reserved kept in one lock-free cell
+  private final BalanceLedger ledger = new BalanceLedger();
 
-  private final ResourceManager resourceManager;
-
-  public BalanceService(ResourceManager resourceManager) {
-    this.resourceManager = resourceManager;
+  public BalanceService() {
     // Initialize some demo balances
-    balances.put("c_customer_001", new BigDecimal("1000.00"));
-    balances.put("c_customer_002", new BigDecimal("1500.00"));
-    balances.put("c_api_key_test_001", new BigDecimal("2000.00"));
-    balances.put("c_test_001", new BigDecimal("5000.00"));
-
-    reservedAmounts.put("c_customer_001", BigDecimal.ZERO);
-    reservedAmounts.put("c_customer_002", BigDecimal.ZERO);
-    reservedAmounts.put("c_api_key_test_001", BigDecimal.ZERO);
-    reservedAmounts.put("c_test_001", BigDecimal.ZERO);
+    ledger.open("c_customer_001", toMinorUnits(new BigDecimal("1000.00")));
+    ledger.open("c_customer_002", toMinorUnits(new BigDecimal("1500.00")));
+    ledger.open("c_api_key_test_001", toMinorUnits(new BigDecimal("2000.00")));
+    ledger.open("c_test_001", toMinorUnits(new BigDecimal("5000.00")));
   }
 
   public BigDecimal getAvailableBalance(String customerId) {
-    BigDecimal balance = balances.getOrDefault(customerId, BigDecimal.ZERO);
-    BigDecimal reserved = reservedAmounts.getOrDefault(customerId, BigDecimal.ZERO);
-    return balance.subtract(reserved);
+    return fromMinorUnits(ledger.get(customerId).available());
   }
 
   public boolean reserveAmount(String customerId, BigDecimal amount) {
-    return resourceManager.executeWithLock(
-        "balance:" + customerId,
-        () -> {
-          BigDecimal currentBalance = balances.getOrDefault(customerId, BigDecimal.ZERO);
-          BigDecimal currentReserved = reservedAmounts.getOrDefault(customerId, BigDecimal.ZERO);
-          BigDecimal availableBalance = currentBalance.subtract(currentReserved);
-
-          if (availableBalance.compareTo(amount) >= 0) {
-            // Sufficient funds - reserve the amount
-            reservedAmounts.put(customerId, currentReserved.add(amount));
-            logger.info(
-                "Reserved {} for customer {}, new reserved total: {}",
-                amount,
-                maskCustomerId(customerId),
-                currentReserved.add(amount));
-            return true;
-          } else {
-            logger.warn(
-                "Insufficient funds for customer {}, available: {}, requested: {}",
-                maskCustomerId(customerId),
-                availableBalance,
-                amount);
-            return false;
-          }
-        });
+    long minorAmount = toMinorUnits(amount);
+    BalanceLedger.Entry entry = ledger.reserve(customerId, minorAmount);
+
+    if (entry != null) {
+      // Sufficient funds - amount reserved
+      logger.info(
+          "Reserved {} for customer {}, new reserved total: {}",
+          amount,
+          maskCustomerId(customerId),
+          fromMinorUnits(entry.reserved()));
+      return true;
+    } else {
+      logger.warn(
+          "Insufficient funds for customer {}, available: {}, requested: {}",
+          maskCustomerId(customerId),
+          fromMinorUnits(ledger.get(customerId).available()),
+          amount);
+      return false;
+    }
   }
 
   public void releaseReservedAmount(String customerId, BigDecimal amount) {
-    resourceManager.executeWithLock(
-        "balance:" + customerId,
-        () -> {
-          BigDecimal currentReserved = reservedAmounts.getOrDefault(customerId, BigDecimal.ZERO);
-          BigDecimal newReserved = currentReserved.subtract(amount).max(BigDecimal.ZERO);
-          reservedAmounts.put(customerId, newReserved);
-          logger.info(
-              "Released {} for customer {}, new reserved total: {}",
-              amount,
-              maskCustomerId(customerId),
-              newReserved);
-        });
+    BalanceLedger.Entry entry = ledger.release(customerId, toMinorUnits(amount));
+    logger.info(
+        "Released {} for customer {}, new reserved total: {}",
+        amount,
+        maskCustomerId(customerId),
+        fromMinorUnits(entry.reserved()));
   }
 
   public void deductBalance(String customerId, BigDecimal amount) {
-    resourceManager.executeWithLock(
-        "balance:" + customerId,
-        () -> {
-          BigDecimal currentBalance = balances.getOrDefault(customerId, BigDecimal.ZERO);
-          BigDecimal currentReserved = reservedAmounts.getOrDefault(customerId, BigDecimal.ZERO);
-
-          balances.put(customerId, currentBalance.subtract(amount));
-          reservedAmounts.put(customerId, currentReserved.subtract(amount).max(BigDecimal.ZERO));
-
-          logger.info(
-              "Deducted {} from customer {}, new balance: {}",
-              amount,
-              maskCustomerId(customerId),
-              currentBalance.subtract(amount));
-        });
+    BalanceLedger.Entry entry = ledger.deduct(customerId, toMinorUnits(amount));
+    logger.info(
+        "Deducted {} from customer {}, new balance: {}",
+        amount,
+        maskCustomerId(customerId),
+        fromMinorUnits(entry.balance()));
   }
 
 }
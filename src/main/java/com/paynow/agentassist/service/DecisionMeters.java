@@ -0,0 +1,175 @@
+package com.paynow.agentassist.service;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.strategy.DecisionStrategyRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Payment decision service meters, registered once for every {@link Operation}, strategy and
+ * {@link PaymentDecision} and held in arrays indexed by ordinal, so recording a request neither
+ * allocates nor looks up the registry. Strategy names are resolved like {@link
+ * DecisionStrategyRegistry#getStrategy}: an unknown name is counted under the default strategy,
+ * which is the one that decided the request.
+ *
+ * <p>Strategies added by a definitions reload are not in the table built at startup. The first
+ * decision counted for one rebuilds the table with its name if the strategy registry knows it, so
+ * the tag values stay bounded by the defined strategies.
+ */
+@Component
+public class DecisionMeters {
+
+  static final String DEFAULT_STRATEGY = "default";
+
+  /** Service operations, tagged with the method name on the duration timer. */
+  public enum Operation {
+    CHECK_RATE_LIMIT("checkRateLimit", "rate_limit_check"),
+    PROCESS_PAYMENT_DECISION("processPaymentDecision", "payment_decision"),
+    PROCESS_PAYMENT_DECISION_WITH_STRATEGY(
+        "processPaymentDecisionWithStrategy", "payment_decision_strategy");
+
+    private final String methodName;
+    private final String tag;
+
+    Operation(String methodName, String tag) {
+      this.methodName = methodName;
+      this.tag = tag;
+    }
+  }
+
+  private static final Operation[] OPERATIONS = Operation.values();
+  private static final PaymentDecision[] DECISIONS = PaymentDecision.values();
+
+  /** Decision counters for a fixed set of strategy names. */
+  private record DecisionTable(
+      Map<String, Integer> strategyIndex, int defaultStrategy, Counter[] decisions) {
+
+    // Indexed by (operation * strategies + strategy) * decisions + decision
+    int slot(Operation operation, int strategy, PaymentDecision decision) {
+      return (operation.ordinal() * strategyIndex.size() + strategy) * DECISIONS.length
+          + decision.ordinal();
+    }
+  }
+
+  private final MeterRegistry registry;
+  private final Predicate<String> knownStrategy;
+  private volatile DecisionTable table;
+
+  private final Timer[] durations = new Timer[OPERATIONS.length];
+  // Indexed by allowed ? 1 : 0
+  private final Counter[] rateLimitChecks = new Counter[2];
+
+  @Autowired
+  public DecisionMeters(MeterRegistry registry, DecisionStrategyRegistry strategyRegistry) {
+    this(
+        registry,
+        strategyRegistry.getAvailableStrategies().keySet(),
+        strategyRegistry::isValidStrategy);
+  }
+
+  public DecisionMeters(MeterRegistry registry, Collection<String> strategyNames) {
+    this(registry, strategyNames, name -> false);
+  }
+
+  DecisionMeters(
+      MeterRegistry registry, Collection<String> strategyNames, Predicate<String> knownStrategy) {
+    this.registry = registry;
+    this.knownStrategy = knownStrategy;
+    this.table = buildTable(strategyNames);
+
+    for (Operation operation : OPERATIONS) {
+      durations[operation.ordinal()] =
+          Timer.builder(ApiConstants.METRIC_PAYMENT_SERVICE_DURATION)
+              .description("Payment decision service call duration")
+              .tag("operation", operation.methodName)
+              .register(registry);
+    }
+
+    for (int allowed = 0; allowed < rateLimitChecks.length; allowed++) {
+      rateLimitChecks[allowed] =
+          Counter.builder(ApiConstants.METRIC_RATE_LIMIT_CHECKS_TOTAL)
+              .description("Rate limit checks made by the payment decision service")
+              .tag("allowed", String.valueOf(allowed == 1))
+              .register(registry);
+    }
+  }
+
+  public void recordDuration(Operation operation, long durationNanos) {
+    durations[operation.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Counts a decision made with the default strategy. */
+  public void recordDecision(Operation operation, PaymentDecision decision) {
+    DecisionTable current = table;
+    current.decisions()[current.slot(operation, current.defaultStrategy(), decision)].increment();
+  }
+
+  public void recordDecision(Operation operation, String strategyName, PaymentDecision decision) {
+    DecisionTable current = table;
+    Integer strategy = strategyName != null ? current.strategyIndex().get(strategyName) : null;
+    if (strategy == null && strategyName != null && knownStrategy.test(strategyName)) {
+      current = addStrategy(strategyName);
+      strategy = current.strategyIndex().get(strategyName);
+    }
+    int slot =
+        current.slot(operation, strategy != null ? strategy : current.defaultStrategy(), decision);
+    current.decisions()[slot].increment();
+  }
+
+  public void recordRateLimitCheck(boolean allowed) {
+    rateLimitChecks[allowed ? 1 : 0].increment();
+  }
+
+  private synchronized DecisionTable addStrategy(String strategyName) {
+    DecisionTable current = table;
+    if (!current.strategyIndex().containsKey(strategyName)) {
+      TreeSet<String> names = new TreeSet<>(current.strategyIndex().keySet());
+      names.add(strategyName);
+      current = buildTable(names);
+      table = current;
+    }
+    return current;
+  }
+
+  // Counters already registered under the same tags are returned by the registry, not replaced
+  private DecisionTable buildTable(Collection<String> strategyNames) {
+    TreeSet<String> names = new TreeSet<>(strategyNames);
+    names.add(DEFAULT_STRATEGY);
+    String[] strategies = names.toArray(String[]::new);
+
+    Map<String, Integer> index = new HashMap<>();
+    for (int i = 0; i < strategies.length; i++) {
+      index.put(strategies[i], i);
+    }
+    DecisionTable built =
+        new DecisionTable(
+            Map.copyOf(index),
+            index.get(DEFAULT_STRATEGY),
+            new Counter[OPERATIONS.length * strategies.length * DECISIONS.length]);
+    for (Operation operation : OPERATIONS) {
+      for (int s = 0; s < strategies.length; s++) {
+        for (PaymentDecision decision : DECISIONS) {
+          built.decisions()[built.slot(operation, s, decision)] =
+              Counter.builder(ApiConstants.METRIC_DECISION_OPERATIONS_TOTAL)
+                  .description("Payment decisions by service operation and strategy")
+                  .tag("operation", operation.tag)
+                  .tag("strategy", strategies[s])
+                  .tag("decision", decision.getValue())
+                  .register(registry);
+        }
+      }
+    }
+    return built;
+  }
+}
@@ -5,8 +5,11 @@ import com.paynow.agentassist.domain.PaymentDecision;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -16,6 +19,8 @@ public class MetricsService {
 
   private final Counter requestCounter;
   private final Timer requestTimer;
+  // Indexed by PaymentDecision ordinal
+  private final Counter[] decisionCounters = new Counter[PaymentDecision.values().length];
   private final MeterRegistry meterRegistry;
 
   public MetricsService(MeterRegistry meterRegistry) {
@@ -28,6 +33,12 @@ public class MetricsService {
         Timer.builder(ApiConstants.METRIC_PAYMENT_REQUEST_DURATION)
             .description("Payment request processing time")
             .register(meterRegistry);
+    for (PaymentDecision decision : PaymentDecision.values()) {
+      decisionCounters[decision.ordinal()] =
+          Counter.builder(ApiConstants.METRIC_PAYMENT_DECISIONS_TOTAL)
+              .tag("decision", decision.getValue())
+              .register(meterRegistry);
+    }
   }
 
   public void incrementRequestCounter() {
@@ -40,10 +51,7 @@ public class MetricsService {
   }
 
   public void recordPaymentDecision(PaymentDecision decision) {
-    Counter.builder(ApiConstants.METRIC_PAYMENT_DECISIONS_TOTAL)
-        .tag("decision", decision.getValue())
-        .register(meterRegistry)
-        .increment();
+    decisionCounters[decision.ordinal()].increment();
   }
 
   public Map<String, Object> getSystemMetrics() {
@@ -84,11 +92,24 @@ public class MetricsService {
 
     Timer requestTimer = meterRegistry.find(ApiConstants.METRIC_PAYMENT_REQUEST_DURATION).timer();
     if (requestTimer != null) {
-      metrics.put("payment_request_mean_latency_ms", requestTimer.mean(TimeUnit.MILLISECONDS));
-      metrics.put("payment_request_max_latency_ms", requestTimer.max(TimeUnit.MILLISECONDS));
-      metrics.put("payment_request_count", requestTimer.count());
+      HistogramSnapshot snapshot = requestTimer.takeSnapshot();
+      metrics.put("payment_request_mean_latency_ms", snapshot.mean(TimeUnit.MILLISECONDS));
+      metrics.put("payment_request_max_latency_ms", snapshot.max(TimeUnit.MILLISECONDS));
+      metrics.put("payment_request_count", snapshot.count());
+      // Percentiles configured under management.metrics.distribution, e.g. payment_request_p99_...
+      for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+        metrics.put(
+            "payment_request_" + percentileKey(percentile.percentile()) + "_latency_ms",
+            percentile.value(TimeUnit.MILLISECONDS));
+      }
     }
 
     return metrics;
   }
+
+  /** 0.5 becomes p50, 0.999 becomes p99_9. */
+  private static String percentileKey(double percentile) {
+    String value = BigDecimal.valueOf(percentile * 100).stripTrailingZeros().toPlainString();
+    return "p" + value.replace('.', '_');
+  }
 }
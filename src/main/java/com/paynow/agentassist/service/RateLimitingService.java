@@ -1,19 +1,34 @@
 package com.paynow.agentassist.service;
 
+import com.paynow.agentassist.dto.RateLimitResult;
+import com.paynow.agentassist.service.ratelimit.LocalRateLimiterBackend;
+import com.paynow.agentassist.service.ratelimit.RateLimitTier;
+import com.paynow.agentassist.service.ratelimit.RateLimiterBackend;
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Tiered request limits: every payment request draws one token per {@link RateLimitTier}, from its
+ * customer's, its payee's and its API client's bucket. A tier with a non-positive rate, or without
+ * a key for the request, is skipped. A request is admitted only if every applicable bucket has a
+ * token; tokens already taken from earlier tiers are refunded when a later tier rejects.
+ */
 @Service
-public class RateLimitingService {
+public class RateLimitingService implements MeterBinder {
 
-  private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final RateLimiterBackend backend;
+  private final LongAdder[] rejections = new LongAdder[RateLimitTier.all().length];
 
   @Value("${paynow.rate-limit.requests-per-second:5}")
   private int requestsPerSecond;
@@ -21,20 +36,147 @@ public class RateLimitingService {
   @Value("${paynow.rate-limit.bucket-capacity:10}")
   private int bucketCapacity;
 
+  @Value("${paynow.rate-limit.payee.requests-per-second:50}")
+  private int payeeRequestsPerSecond;
+
+  @Value("${paynow.rate-limit.payee.bucket-capacity:100}")
+  private int payeeBucketCapacity;
+
+  @Value("${paynow.rate-limit.api-client.requests-per-second:200}")
+  private int apiClientRequestsPerSecond;
+
+  @Value("${paynow.rate-limit.api-client.bucket-capacity:400}")
+  private int apiClientBucketCapacity;
+
+  // Indexed by tier ordinal; a null entry disables the tier
+  private volatile BucketConfiguration[] configurations;
+
+  public RateLimitingService() {
+    this(new LocalRateLimiterBackend());
+  }
+
+  @Autowired
+  public RateLimitingService(RateLimiterBackend backend) {
+    this.backend = backend;
+    for (int i = 0; i < rejections.length; i++) {
+      rejections[i] = new LongAdder();
+    }
+  }
+
+  /** Tier limits given directly rather than injected from {@code paynow.rate-limit.*}. */
+  public RateLimitingService(
+      RateLimiterBackend backend,
+      int requestsPerSecond,
+      int bucketCapacity,
+      int payeeRequestsPerSecond,
+      int payeeBucketCapacity,
+      int apiClientRequestsPerSecond,
+      int apiClientBucketCapacity) {
+    this(backend);
+    this.requestsPerSecond = requestsPerSecond;
+    this.bucketCapacity = bucketCapacity;
+    this.payeeRequestsPerSecond = payeeRequestsPerSecond;
+    this.payeeBucketCapacity = payeeBucketCapacity;
+    this.apiClientRequestsPerSecond = apiClientRequestsPerSecond;
+    this.apiClientBucketCapacity = apiClientBucketCapacity;
+  }
+
+  /**
+   * Takes one token from each applicable tier's bucket, or from none of them.
+   *
+   * @param apiClientId the authenticated API key owner, or {@code null} to skip that tier
+   * @param payeeId the payee, or {@code null} to skip that tier
+   */
+  public RateLimitResult check(String apiClientId, String customerId, String payeeId) {
+    Objects.requireNonNull(customerId, "customerId");
+    BucketConfiguration[] limits = configurations();
+    RateLimitTier[] tiers = RateLimitTier.all();
+
+    for (int i = 0; i < tiers.length; i++) {
+      String key = keyFor(tiers[i], apiClientId, customerId, payeeId);
+      if (key == null || limits[i] == null) {
+        continue;
+      }
+      long waitNanos = backend.tryConsume(tiers[i], key, 1, limits[i]);
+      if (waitNanos > 0) {
+        refundTiersBefore(i, limits, apiClientId, customerId, payeeId);
+        rejections[i].increment();
+        return RateLimitResult.rateLimited(tiers[i].getDescription(), waitNanos);
+      }
+    }
+    return RateLimitResult.success();
+  }
+
   public boolean isAllowed(String customerId) {
-    Bucket bucket = buckets.computeIfAbsent(customerId, this::createBucket);
-    return bucket.tryConsume(1);
+    return check(null, customerId, null).allowed();
   }
 
   public long getAvailableTokens(String customerId) {
-    Bucket bucket = buckets.get(customerId);
-    return bucket != null ? bucket.getAvailableTokens() : bucketCapacity;
+    BucketConfiguration limit = configurations()[RateLimitTier.CUSTOMER.ordinal()];
+    if (limit == null) {
+      return bucketCapacity;
+    }
+    return backend
+        .getAvailableTokens(RateLimitTier.CUSTOMER, customerId, limit)
+        .orElse(bucketCapacity);
   }
 
-  private Bucket createBucket(String customerId) {
+  private void refundTiersBefore(
+      int rejected,
+      BucketConfiguration[] limits,
+      String apiClientId,
+      String customerId,
+      String payeeId) {
+    RateLimitTier[] tiers = RateLimitTier.all();
+    for (int i = 0; i < rejected; i++) {
+      String key = keyFor(tiers[i], apiClientId, customerId, payeeId);
+      if (key != null && limits[i] != null) {
+        backend.refund(tiers[i], key, 1, limits[i]);
+      }
+    }
+  }
+
+  private static String keyFor(
+      RateLimitTier tier, String apiClientId, String customerId, String payeeId) {
+    return switch (tier) {
+      case CUSTOMER -> customerId;
+      case PAYEE -> payeeId;
+      case API_CLIENT -> apiClientId;
+    };
+  }
+
+  private BucketConfiguration[] configurations() {
+    BucketConfiguration[] current = configurations;
+    if (current == null) {
+      current = new BucketConfiguration[RateLimitTier.all().length];
+      current[RateLimitTier.CUSTOMER.ordinal()] =
+          configuration(requestsPerSecond, bucketCapacity);
+      current[RateLimitTier.PAYEE.ordinal()] =
+          configuration(payeeRequestsPerSecond, payeeBucketCapacity);
+      current[RateLimitTier.API_CLIENT.ordinal()] =
+          configuration(apiClientRequestsPerSecond, apiClientBucketCapacity);
+      configurations = current;
+    }
+    return current;
+  }
+
+  private static BucketConfiguration configuration(int perSecond, int capacity) {
+    if (perSecond <= 0 || capacity <= 0) {
+      return null;
+    }
     Bandwidth limit =
-        Bandwidth.classic(
-            bucketCapacity, Refill.intervally(requestsPerSecond, Duration.ofSeconds(1)));
-    return Bucket.builder().addLimit(limit).build();
+        Bandwidth.classic(capacity, Refill.intervally(perSecond, Duration.ofSeconds(1)));
+    return BucketConfiguration.builder().addLimit(limit).build();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (RateLimitTier tier : RateLimitTier.all()) {
+      FunctionCounter.builder(
+              "rate_limiter.rejections", rejections[tier.ordinal()], LongAdder::sum)
+          .description("Requests rejected by a rate limit tier")
+          .tag("tier", tier.getTag())
+          .register(registry);
+    }
   }
 }
@@ -8,9 +8,11 @@ import com.paynow.agentassist.service.agent.tool.CaseCreationTool;
 import com.paynow.agentassist.service.agent.tool.RiskSignalsTool;
 import com.paynow.agentassist.strategy.DecisionStrategy;
 import com.paynow.agentassist.strategy.DecisionStrategyRegistry;
+import com.paynow.agentassist.strategy.ShadowStrategyEvaluator;
 import com.paynow.agentassist.factory.AgentToolFactory;
 import com.paynow.agentassist.util.PerformanceLogger;
 import com.paynow.agentassist.util.PiiMaskingUtil;
+import com.paynow.agentassist.util.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,7 +23,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class PaymentDecisionAgent implements PaymentDecisionProcessor {
@@ -32,8 +37,10 @@ public class PaymentDecisionAgent implements PaymentDecisionProcessor {
   private final RiskSignalsTool riskSignalsTool;
   private final CaseCreationTool caseCreationTool;
   private final DecisionStrategyRegistry strategyRegistry;
+  private final ShadowStrategyEvaluator shadowEvaluator;
   private final AgentToolFactory toolFactory;
   private final PerformanceLogger performanceLogger;
+  private final ScheduledExecutorService retryScheduler;
 
   @Value("${paynow.agent.max-retries:2}")
   private int maxRetries;
@@ -46,14 +53,18 @@ public class PaymentDecisionAgent implements PaymentDecisionProcessor {
       RiskSignalsTool riskSignalsTool,
       CaseCreationTool caseCreationTool,
       DecisionStrategyRegistry strategyRegistry,
+      ShadowStrategyEvaluator shadowEvaluator,
       AgentToolFactory toolFactory,
-      PerformanceLogger performanceLogger) {
+      PerformanceLogger performanceLogger,
+      ResourceManager resourceManager) {
     this.balanceTool = balanceTool;
     this.riskSignalsTool = riskSignalsTool;
     this.caseCreationTool = caseCreationTool;
     this.strategyRegistry = strategyRegistry;
+    this.shadowEvaluator = shadowEvaluator;
     this.toolFactory = toolFactory;
     this.performanceLogger = performanceLogger;
+    this.retryScheduler = resourceManager.getRetryScheduler();
   }
 
   public AgentDecisionResult processPaymentWithStrategy(
@@ -112,6 +123,7 @@ public class PaymentDecisionAgent implements PaymentDecisionProcessor {
 
             PaymentDecision decision =
                 strategy.makeDecision(request, balance, riskSignals, reasons);
+            shadowEvaluator.submit(request, balance, riskSignals, strategy.getName(), decision);
 
             // Create case if needed
             if (decision == PaymentDecision.REVIEW || decision == PaymentDecision.BLOCK) {
@@ -159,41 +171,70 @@ public class PaymentDecisionAgent implements PaymentDecisionProcessor {
         });
   }
 
-  private <T> CompletableFuture<T> executeToolWithRetry(
-      java.util.function.Supplier<CompletableFuture<T>> toolExecution, String toolName) {
+  /**
+   * Runs a tool with retries without parking any thread while it is in flight. Each attempt is
+   * chained on the tool's own future and failed attempts are re-submitted through the retry
+   * scheduler after a linear backoff, so the only blocking wait is the caller's final join.
+   */
+  <T> CompletableFuture<T> executeToolWithRetry(
+      Supplier<CompletableFuture<T>> toolExecution, String toolName) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    attemptTool(toolExecution, toolName, 0, result);
+    return result;
+  }
 
-    return CompletableFuture.supplyAsync(
-        () -> {
-          Exception lastException = null;
-
-          for (int attempt = 0; attempt <= maxRetries; attempt++) {
-            try {
-              return toolExecution.get().join();
-            } catch (Exception e) {
-              lastException = e;
-
-              if (attempt == maxRetries) {
-                break;
-              }
-
-              logger.warn(
-                  "Tool {} failed on attempt {}, retrying: {}",
-                  toolName,
-                  attempt + 1,
-                  e.getMessage());
-
-              try {
-                Thread.sleep(100 * (attempt + 1)); // Exponential backoff
-              } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Tool execution interrupted", ie);
-              }
-            }
+  private <T> void attemptTool(
+      Supplier<CompletableFuture<T>> toolExecution,
+      String toolName,
+      int attempt,
+      CompletableFuture<T> result) {
+    // The caller already gave up (e.g. orTimeout fired), don't start another attempt
+    if (result.isDone()) {
+      return;
+    }
+
+    CompletableFuture<T> execution;
+    try {
+      execution = toolExecution.get();
+    } catch (Exception e) {
+      execution = CompletableFuture.failedFuture(e);
+    }
+
+    execution.whenComplete(
+        (value, error) -> {
+          if (error == null) {
+            result.complete(value);
+            return;
+          }
+
+          Throwable cause =
+              error instanceof CompletionException && error.getCause() != null
+                  ? error.getCause()
+                  : error;
+
+          if (attempt >= maxRetries) {
+            result.completeExceptionally(
+                new RuntimeException(
+                    "Tool " + toolName + " failed after " + (maxRetries + 1) + " attempts",
+                    cause));
+            return;
           }
 
-          throw new RuntimeException(
-              "Tool " + toolName + " failed after " + (maxRetries + 1) + " attempts",
-              lastException);
+          logger.warn(
+              "Tool {} failed on attempt {}, retrying: {}",
+              toolName,
+              attempt + 1,
+              cause.getMessage());
+
+          try {
+            retryScheduler.schedule(
+                () -> attemptTool(toolExecution, toolName, attempt + 1, result),
+                100L * (attempt + 1),
+                TimeUnit.MILLISECONDS);
+          } catch (RejectedExecutionException e) {
+            result.completeExceptionally(
+                new RuntimeException("Tool " + toolName + " retry rejected", cause));
+          }
         });
   }
 
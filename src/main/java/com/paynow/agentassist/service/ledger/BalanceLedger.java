@@ -0,0 +1,134 @@
+package com.paynow.agentassist.service.ledger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Lock-free per-customer ledger. Balance and reserved amount are kept together as scaled {@code
+ * long} minor units in one cell per customer, and every mutation is a compare-and-set of that
+ * cell's entry, so reservations for the same customer never queue behind a lock.
+ */
+public final class BalanceLedger {
+
+  /** Minor-unit scale of every amount held by the ledger (cents). */
+  public static final int SCALE = 2;
+
+  private static final Entry EMPTY = new Entry(0L, 0L);
+
+  private static final LongBinaryOperator KEEP = (current, amount) -> current;
+  private static final LongBinaryOperator SUBTRACT = Math::subtractExact;
+  private static final LongBinaryOperator SUBTRACT_FLOORED =
+      (current, amount) -> Math.max(0L, current - amount);
+
+  private final ConcurrentHashMap<String, Cell> cells = new ConcurrentHashMap<>();
+
+  /** Immutable view of one customer's position, in minor units. */
+  public record Entry(long balance, long reserved) {
+    public long available() {
+      return balance - reserved;
+    }
+  }
+
+  public void open(String customerId, long balance) {
+    cells.put(customerId, new Cell(new Entry(balance, 0L)));
+  }
+
+  public Entry get(String customerId) {
+    Cell cell = cells.get(customerId);
+    return cell != null ? cell.entry : EMPTY;
+  }
+
+  /**
+   * Reserves {@code amount} if the available balance covers it.
+   *
+   * @return the entry after the reservation, or {@code null} when funds are insufficient
+   */
+  public Entry reserve(String customerId, long amount) {
+    Cell cell = cells.get(customerId);
+    if (cell == null) {
+      // Unknown customers have nothing available; only create a cell if the reservation fits
+      if (amount > 0) {
+        return null;
+      }
+      cell = cells.computeIfAbsent(customerId, k -> new Cell(EMPTY));
+    }
+
+    while (true) {
+      Entry current = cell.entry;
+      if (current.available() < amount) {
+        return null;
+      }
+      Entry next = new Entry(current.balance(), Math.addExact(current.reserved(), amount));
+      if (cell.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /** Releases up to {@code amount} of the reserved total, never going below zero. */
+  public Entry release(String customerId, long amount) {
+    return update(customerId, amount, KEEP, SUBTRACT_FLOORED);
+  }
+
+  /** Deducts {@code amount} from the balance and settles the same amount of reservation. */
+  public Entry deduct(String customerId, long amount) {
+    return update(customerId, amount, SUBTRACT, SUBTRACT_FLOORED);
+  }
+
+  public int size() {
+    return cells.size();
+  }
+
+  public static long toMinorUnits(BigDecimal amount) {
+    return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+  }
+
+  public static BigDecimal fromMinorUnits(long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  private Entry update(
+      String customerId,
+      long amount,
+      LongBinaryOperator balanceUpdate,
+      LongBinaryOperator reservedUpdate) {
+    Cell cell = cells.computeIfAbsent(customerId, k -> new Cell(EMPTY));
+    while (true) {
+      Entry current = cell.entry;
+      Entry next =
+          new Entry(
+              balanceUpdate.applyAsLong(current.balance(), amount),
+              reservedUpdate.applyAsLong(current.reserved(), amount));
+      if (cell.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  private static final class Cell {
+
+    private static final VarHandle ENTRY;
+
+    static {
+      try {
+        ENTRY = MethodHandles.lookup().findVarHandle(Cell.class, "entry", Entry.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private volatile Entry entry;
+
+    private Cell(Entry entry) {
+      this.entry = entry;
+    }
+
+    private boolean compareAndSet(Entry expected, Entry next) {
+      return ENTRY.compareAndSet(this, expected, next);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.paynow.agentassist.service.payment;
+
+import com.paynow.agentassist.dto.PaymentDecisionResponse;
+import com.paynow.agentassist.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cache of already-built decision responses keyed by idempotency key. Replayed
+ * requests are answered from here without a repository lookup or JSON deserialization of the
+ * stored reasons and agent trace.
+ */
+@Component
+public class IdempotencyCache implements MeterBinder {
+
+  private static final String METRIC_PREFIX = "idempotency_cache";
+
+  private final BoundedTtlCache<String, PaymentDecisionResponse> cache;
+
+  public IdempotencyCache(
+      @Value("${paynow.idempotency.cache.max-size:10000}") int maxSize,
+      @Value("${paynow.idempotency.cache.ttl-seconds:600}") long ttlSeconds) {
+    this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+  }
+
+  public PaymentDecisionResponse get(String idempotencyKey) {
+    return cache.get(idempotencyKey);
+  }
+
+  public void put(String idempotencyKey, PaymentDecisionResponse response) {
+    // Cached responses are shared across requests, so don't keep references to mutable lists
+    cache.put(
+        idempotencyKey,
+        new PaymentDecisionResponse(
+            response.decision(),
+            List.copyOf(response.reasons()),
+            List.copyOf(response.agentTrace()),
+            response.requestId()));
+  }
+
+  public void invalidate(String idempotencyKey) {
+    cache.invalidate(idempotencyKey);
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(METRIC_PREFIX + ".size", cache, BoundedTtlCache::size)
+        .description("Idempotent responses currently cached")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".requests", cache, BoundedTtlCache::hitCount)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".requests", cache, BoundedTtlCache::missCount)
+        .tag("result", "miss")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".evictions", cache, BoundedTtlCache::evictionCount)
+        .register(registry);
+  }
+}
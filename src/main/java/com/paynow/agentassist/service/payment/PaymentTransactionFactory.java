@@ -0,0 +1,55 @@
+package com.paynow.agentassist.service.payment;
+
+import com.paynow.agentassist.domain.AgentStep;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.entity.PaymentTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Builds the {@link PaymentTransaction} row persisted for each decision. */
+public final class PaymentTransactionFactory {
+
+  private static final Logger logger = LoggerFactory.getLogger(PaymentTransactionFactory.class);
+
+  private PaymentTransactionFactory() {
+    // Utility class
+  }
+
+  /**
+   * Populates a transaction from the request and its decision, with the reasons and agent trace
+   * encoded by {@code traceCodec}. If they cannot be encoded the row is still returned, with empty
+   * JSON lists in their place.
+   */
+  public static PaymentTransaction create(
+      TraceCodec traceCodec,
+      PaymentDecisionRequest request,
+      PaymentDecision decision,
+      List<String> reasons,
+      List<AgentStep> trace,
+      String requestId) {
+    PaymentTransaction transaction = new PaymentTransaction();
+    transaction.setIdempotencyKey(request.idempotencyKey());
+    transaction.setCustomerId(request.customerId());
+    transaction.setAmount(request.amount());
+    transaction.setCurrency(request.currency());
+    transaction.setPayeeId(request.payeeId());
+    transaction.setDecision(decision);
+    transaction.setRequestId(requestId);
+
+    try {
+      traceCodec.encode(transaction, reasons, trace);
+    } catch (IOException e) {
+      logger.error("Failed to serialize agent trace or reasons", e);
+      transaction.setAgentTraceData(null);
+      transaction.setReasonMask(null);
+      transaction.setAgentTrace("[]");
+      transaction.setReasons("[]");
+    }
+
+    return transaction;
+  }
+}
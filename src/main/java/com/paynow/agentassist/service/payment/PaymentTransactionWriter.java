@@ -0,0 +1,278 @@
+package com.paynow.agentassist.service.payment;
+
+import com.paynow.agentassist.entity.PaymentTransaction;
+import com.paynow.agentassist.repository.PaymentTransactionRepository;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind stage for {@link PaymentTransaction} rows. In {@code write-behind} mode
+ * rows are queued and inserted by a background flusher in JDBC batches, taking the commit off the
+ * request path. Queued rows are lost if the process dies before they are flushed; {@code sync}
+ * mode (the default) keeps the synchronous save in the request transaction.
+ *
+ * <p>A response is already served by the time its row is written, so a row that finally fails to
+ * insert is evicted from the {@link IdempotencyCache}: a replay then decides again rather than
+ * returning a decision that was never stored.
+ */
+@Component
+public class PaymentTransactionWriter implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(PaymentTransactionWriter.class);
+  private static final String METRIC_PREFIX = "transaction_writer";
+
+  public enum PersistenceMode {
+    SYNC,
+    WRITE_BEHIND;
+
+    public static PersistenceMode from(String value) {
+      if (value == null || value.isBlank()) {
+        return SYNC;
+      }
+      return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private final PaymentTransactionRepository transactionRepository;
+  private final IdempotencyCache idempotencyCache;
+  private final TransactionTemplate transactionTemplate;
+  private final PersistenceMode mode;
+  private final int batchSize;
+  private final long flushIntervalMs;
+  private final long offerTimeoutMs;
+
+  private final BlockingQueue<PaymentTransaction> queue;
+  private final ConcurrentMap<String, PaymentTransaction> pending = new ConcurrentHashMap<>();
+  private final Future<?> flusher;
+  private volatile boolean running = true;
+  // Submitters hold the read lock while offering, so none can queue a row after shutdown drains
+  private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+  private final LongAdder flushedRows = new LongAdder();
+  private final LongAdder failedRows = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder backpressured = new LongAdder();
+
+  public PaymentTransactionWriter(
+      PaymentTransactionRepository transactionRepository,
+      PlatformTransactionManager transactionManager,
+      IdempotencyCache idempotencyCache,
+      ResourceManager resourceManager,
+      @Value("${paynow.persistence.mode:sync}") String mode,
+      @Value("${paynow.persistence.write-behind.queue-capacity:10000}") int queueCapacity,
+      @Value("${paynow.persistence.write-behind.batch-size:50}") int batchSize,
+      @Value("${paynow.persistence.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+      @Value("${paynow.persistence.write-behind.offer-timeout-ms:5}") long offerTimeoutMs) {
+    this.transactionRepository = transactionRepository;
+    this.idempotencyCache = idempotencyCache;
+    // Rows are written after the request transaction committed, never as part of it
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.mode = PersistenceMode.from(mode);
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+    this.offerTimeoutMs = offerTimeoutMs;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    if (this.mode == PersistenceMode.WRITE_BEHIND) {
+      this.flusher =
+          resourceManager.getOrCreateExecutor("transaction-writer", 1).submit(this::runFlusher);
+      logger.info(
+          "Transaction write-behind enabled with queue capacity {} and batch size {}",
+          queueCapacity,
+          batchSize);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  public boolean isWriteBehind() {
+    return mode == PersistenceMode.WRITE_BEHIND;
+  }
+
+  /**
+   * Writes a transaction whose request has committed: queued for the flusher, or saved in a
+   * transaction of its own when {@link #submit} does not take it.
+   */
+  public void write(PaymentTransaction transaction) {
+    if (!submit(transaction)) {
+      saveIndividually(transaction);
+    }
+  }
+
+  /**
+   * Hands a new transaction to the write-behind queue.
+   *
+   * @return {@code false} when the caller must save synchronously: sync mode, shutdown, or the
+   *     queue stayed full for the offer timeout (backpressure)
+   */
+  public boolean submit(PaymentTransaction transaction) {
+    if (mode != PersistenceMode.WRITE_BEHIND) {
+      return false;
+    }
+
+    submitLock.readLock().lock();
+    try {
+      if (!running) {
+        return false;
+      }
+      pending.put(transaction.getIdempotencyKey(), transaction);
+      try {
+        if (queue.offer(transaction, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      pending.remove(transaction.getIdempotencyKey(), transaction);
+    } finally {
+      submitLock.readLock().unlock();
+    }
+
+    backpressured.increment();
+    logger.warn("Transaction write-behind queue full, saving synchronously");
+    return false;
+  }
+
+  /** Returns a transaction that was accepted but is not yet flushed to the database. */
+  public Optional<PaymentTransaction> findPending(String idempotencyKey) {
+    return Optional.ofNullable(pending.get(idempotencyKey));
+  }
+
+  public PersistenceMode getMode() {
+    return mode;
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  private void runFlusher() {
+    List<PaymentTransaction> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PaymentTransaction first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        flushBatch(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.info("Transaction writer interrupted");
+        break;
+      } catch (Exception e) {
+        logger.error("Unexpected error in transaction writer", e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flushBatch(List<PaymentTransaction> batch) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(batch));
+      flushedRows.add(batch.size());
+      batches.increment();
+      logger.debug("Flushed {} payment transactions", batch.size());
+    } catch (Exception e) {
+      // One bad row (e.g. duplicate idempotency key) must not drop the whole batch
+      logger.warn("Batch insert of {} transactions failed, retrying individually", batch.size(), e);
+      for (PaymentTransaction transaction : batch) {
+        saveIndividually(transaction);
+      }
+    } finally {
+      for (PaymentTransaction transaction : batch) {
+        pending.remove(transaction.getIdempotencyKey(), transaction);
+      }
+    }
+  }
+
+  private void saveIndividually(PaymentTransaction transaction) {
+    try {
+      transaction.setId(null);
+      transactionTemplate.executeWithoutResult(status -> transactionRepository.save(transaction));
+      flushedRows.increment();
+    } catch (Exception e) {
+      failedRows.increment();
+      idempotencyCache.invalidate(transaction.getIdempotencyKey());
+      logger.error(
+          "Failed to persist transaction for request: {}", transaction.getRequestId(), e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (flusher == null) {
+      return;
+    }
+    submitLock.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      submitLock.writeLock().unlock();
+    }
+    try {
+      flusher.get(30, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.warn("Transaction writer did not stop cleanly", e);
+    }
+
+    // Anything the flusher could not take is written here before the datasource goes away
+    List<PaymentTransaction> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    for (int from = 0; from < remaining.size(); from += batchSize) {
+      flushBatch(new ArrayList<>(remaining.subList(from, Math.min(remaining.size(), from + batchSize))));
+    }
+    logger.info(
+        "Transaction writer stopped, {} rows flushed, {} failed",
+        flushedRows.sum(),
+        failedRows.sum());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size)
+        .description("Payment transactions waiting to be flushed")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".rows", flushedRows, LongAdder::sum)
+        .tag("result", "flushed")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".rows", failedRows, LongAdder::sum)
+        .tag("result", "failed")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".batches", batches, LongAdder::sum)
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".backpressure", backpressured, LongAdder::sum)
+        .description("Submissions saved synchronously because the queue was full")
+        .register(registry);
+  }
+}
@@ -0,0 +1,254 @@
+package com.paynow.agentassist.service.payment;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.paynow.agentassist.domain.AgentStep;
+import com.paynow.agentassist.domain.ReasonCode;
+import com.paynow.agentassist.entity.PaymentTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodes the reasons and agent trace of a decision into a {@link PaymentTransaction} and back.
+ *
+ * <p>In {@code binary} format reasons are stored as a {@link ReasonCode} bitmask and the trace as
+ * a varint-prefixed blob with well-known step names replaced by a one-byte tag. Anything the
+ * compact form cannot represent (unknown reasons, oversized traces) falls back to JSON for that
+ * column. Decoding looks at which columns are populated, so rows written in either format read
+ * back regardless of the format currently configured.
+ */
+@Component
+public class TraceCodec {
+
+  public enum Format {
+    JSON,
+    BINARY;
+
+    static Format from(String value) {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  static final byte BINARY_VERSION = 1;
+
+  /** Must fit the agentTraceData column; larger traces are stored as JSON instead. */
+  static final int MAX_BINARY_TRACE_BYTES = PaymentTransaction.AGENT_TRACE_DATA_LENGTH;
+
+  // Tag 0 marks a literal step name; tag n refers to KNOWN_STEPS[n - 1]. Append only.
+  private static final List<String> KNOWN_STEPS =
+      List.of(
+          "plan",
+          "tool:getBalance",
+          "tool:getRiskSignals",
+          "strategy",
+          "tool:createCase",
+          "tool:recommend",
+          "error");
+
+  private static final JavaType REASONS_TYPE =
+      TypeFactory.defaultInstance().constructCollectionType(List.class, String.class);
+  private static final JavaType TRACE_TYPE =
+      TypeFactory.defaultInstance().constructCollectionType(List.class, AgentStep.class);
+
+  private final ObjectMapper objectMapper;
+  private final Format format;
+
+  @Autowired
+  public TraceCodec(
+      ObjectMapper objectMapper,
+      @Value("${paynow.persistence.trace-codec:binary}") String format) {
+    this(objectMapper, Format.from(format));
+  }
+
+  public TraceCodec(ObjectMapper objectMapper, Format format) {
+    this.objectMapper = objectMapper;
+    this.format = format;
+  }
+
+  public Format getFormat() {
+    return format;
+  }
+
+  /** Populates the reasons and trace columns of the transaction, clearing the unused ones. */
+  public void encode(PaymentTransaction transaction, List<String> reasons, List<AgentStep> trace)
+      throws IOException {
+    long reasonMask = format == Format.BINARY ? ReasonCode.toMask(reasons) : -1L;
+    if (reasonMask >= 0L) {
+      transaction.setReasonMask(reasonMask);
+      transaction.setReasons(null);
+    } else {
+      transaction.setReasonMask(null);
+      transaction.setReasons(objectMapper.writeValueAsString(reasons));
+    }
+
+    byte[] traceData = format == Format.BINARY ? encodeTrace(trace) : null;
+    if (traceData != null) {
+      transaction.setAgentTraceData(traceData);
+      transaction.setAgentTrace(null);
+    } else {
+      transaction.setAgentTraceData(null);
+      transaction.setAgentTrace(objectMapper.writeValueAsString(trace));
+    }
+  }
+
+  public List<String> decodeReasons(PaymentTransaction transaction) throws IOException {
+    if (transaction.getReasonMask() != null) {
+      try {
+        return ReasonCode.fromMask(transaction.getReasonMask());
+      } catch (IllegalArgumentException e) {
+        throw new IOException(e.getMessage(), e);
+      }
+    }
+    return objectMapper.readValue(transaction.getReasons(), REASONS_TYPE);
+  }
+
+  public List<AgentStep> decodeTrace(PaymentTransaction transaction) throws IOException {
+    if (transaction.getAgentTraceData() != null) {
+      return decodeTrace(transaction.getAgentTraceData());
+    }
+    return objectMapper.readValue(transaction.getAgentTrace(), TRACE_TYPE);
+  }
+
+  /** Returns the compact encoding of the trace, or null if it exceeds the column size. */
+  static byte[] encodeTrace(List<AgentStep> trace) {
+    ByteSink sink = new ByteSink(16 + trace.size() * 48);
+    sink.write(BINARY_VERSION);
+    sink.writeVarint(trace.size());
+    for (AgentStep step : trace) {
+      int tag = KNOWN_STEPS.indexOf(step.step()) + 1;
+      sink.writeVarint(tag);
+      if (tag == 0) {
+        sink.writeString(step.step());
+      }
+      sink.writeString(step.detail());
+      if (sink.size() > MAX_BINARY_TRACE_BYTES) {
+        return null;
+      }
+    }
+    return sink.toByteArray();
+  }
+
+  static List<AgentStep> decodeTrace(byte[] data) throws IOException {
+    ByteSource source = new ByteSource(data);
+    int version = source.read();
+    if (version != BINARY_VERSION) {
+      throw new IOException("Unsupported agent trace encoding version " + version);
+    }
+    int count = source.readVarint();
+    List<AgentStep> trace = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int tag = source.readVarint();
+      String step;
+      if (tag == 0) {
+        step = source.readString();
+      } else if (tag <= KNOWN_STEPS.size()) {
+        step = KNOWN_STEPS.get(tag - 1);
+      } else {
+        throw new IOException("Unknown agent step tag " + tag);
+      }
+      trace.add(new AgentStep(step, source.readString()));
+    }
+    return trace;
+  }
+
+  /** Growable byte buffer; strings are written as varint (length + 1) with 0 meaning null. */
+  private static final class ByteSink {
+    private byte[] buffer;
+    private int size;
+
+    ByteSink(int initialCapacity) {
+      this.buffer = new byte[initialCapacity];
+    }
+
+    void write(int b) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) b;
+    }
+
+    void writeVarint(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    void writeString(String value) {
+      if (value == null) {
+        writeVarint(0);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarint(bytes.length + 1);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, size, bytes.length);
+      size += bytes.length;
+    }
+
+    int size() {
+      return size;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+      }
+    }
+  }
+
+  private static final class ByteSource {
+    private final byte[] data;
+    private int position;
+
+    ByteSource(byte[] data) {
+      this.data = data;
+    }
+
+    int read() throws EOFException {
+      if (position >= data.length) {
+        throw new EOFException("Truncated agent trace data");
+      }
+      return data[position++] & 0xFF;
+    }
+
+    int readVarint() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        int b = read();
+        value |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed varint in agent trace data");
+    }
+
+    String readString() throws IOException {
+      int length = readVarint() - 1;
+      if (length < 0) {
+        return null;
+      }
+      if (length > data.length - position) {
+        throw new EOFException("Truncated agent trace data");
+      }
+      String value = new String(data, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+  }
+}
@@ -1,7 +1,5 @@
 package com.paynow.agentassist.service.payment.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paynow.agentassist.domain.AgentStep;
 import com.paynow.agentassist.domain.PaymentDecision;
 import com.paynow.agentassist.dto.PaymentDecisionRequest;
@@ -15,18 +13,31 @@ import com.paynow.agentassist.service.BalanceService;
 import com.paynow.agentassist.service.RateLimitingService;
 import com.paynow.agentassist.service.agent.PaymentDecisionAgent;
 import com.paynow.agentassist.service.agent.PaymentDecisionProcessor;
+import com.paynow.agentassist.service.payment.IdempotencyCache;
 import com.paynow.agentassist.service.payment.PaymentDecisionService;
+import com.paynow.agentassist.service.payment.PaymentTransactionFactory;
+import com.paynow.agentassist.service.payment.PaymentTransactionWriter;
+import com.paynow.agentassist.service.payment.TraceCodec;
 import com.paynow.agentassist.strategy.DecisionStrategyRegistry;
 import com.paynow.agentassist.util.PiiMaskingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Core implementation of PaymentDecisionService.
@@ -37,7 +48,8 @@ import java.util.UUID;
  * - Payment decision processing with agent tools
  * - Transaction persistence
  * - Event publishing
- * - Idempotency handling
+ * - Idempotency handling (in-memory response cache in front of the repository)
+ * - Coalescing of concurrent requests with the same idempotency key
  */
 @Service("paymentDecisionServiceImpl")
 @Transactional
@@ -51,7 +63,11 @@ public class PaymentDecisionServiceImpl implements PaymentDecisionService {
     private final RateLimitingService rateLimitingService;
     private final DecisionStrategyRegistry strategyRegistry;
     private final EventPublisher eventPublisher;
-    private final ObjectMapper objectMapper;
+    private final TraceCodec traceCodec;
+    private final IdempotencyCache idempotencyCache;
+    private final PaymentTransactionWriter transactionWriter;
+    private final ConcurrentMap<String, CompletableFuture<PaymentDecisionResponse>> inFlightDecisions =
+            new ConcurrentHashMap<>();
 
     public PaymentDecisionServiceImpl(
             PaymentTransactionRepository transactionRepository,
@@ -60,24 +76,37 @@ public class PaymentDecisionServiceImpl implements PaymentDecisionService {
             RateLimitingService rateLimitingService,
             DecisionStrategyRegistry strategyRegistry,
             EventPublisher eventPublisher,
-            ObjectMapper objectMapper) {
+            TraceCodec traceCodec,
+            IdempotencyCache idempotencyCache,
+            PaymentTransactionWriter transactionWriter) {
         this.transactionRepository = transactionRepository;
         this.decisionAgent = decisionAgent;
         this.balanceService = balanceService;
         this.rateLimitingService = rateLimitingService;
         this.strategyRegistry = strategyRegistry;
         this.eventPublisher = eventPublisher;
-        this.objectMapper = objectMapper;
+        this.traceCodec = traceCodec;
+        this.idempotencyCache = idempotencyCache;
+        this.transactionWriter = transactionWriter;
     }
 
+    // No transaction: a shared rate limiter takes its own connection, which must not wait on ours
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public RateLimitResult checkRateLimit(PaymentDecisionRequest request) {
-        if (!rateLimitingService.isAllowed(request.customerId())) {
-            logger.warn("Rate limit exceeded for customer: {}",
-                    PiiMaskingUtil.maskCustomerId(request.customerId()));
-            return RateLimitResult.rateLimited();
+        RateLimitResult result = rateLimitingService.check(
+                currentApiClient(), request.customerId(), request.payeeId());
+        if (!result.allowed()) {
+            logger.warn("Rate limit exceeded for customer: {} ({})",
+                    PiiMaskingUtil.maskCustomerId(request.customerId()), result.errorMessage());
         }
-        return RateLimitResult.success();
+        return result;
+    }
+
+    /** Owner of the API key that authenticated the current request, if any. */
+    private static String currentApiClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
     }
 
     @Override
@@ -95,11 +124,8 @@ public class PaymentDecisionServiceImpl implements PaymentDecisionService {
      * Internal method that handles the core payment decision processing logic.
      * This method is responsible for:
      * - Setting up MDC context for logging
-     * - Checking for existing transactions (idempotency)
-     * - Processing the payment decision through the agent
-     * - Handling balance reservations for ALLOW decisions
-     * - Persisting the transaction
-     * - Publishing events
+     * - Answering replays from the idempotency cache
+     * - Coalescing concurrent requests that share an idempotency key
      */
     private PaymentDecisionResponse processPaymentDecisionInternal(
             PaymentDecisionRequest request, String strategyName) {
@@ -111,50 +137,32 @@ public class PaymentDecisionServiceImpl implements PaymentDecisionService {
             logger.info("Processing payment decision for amount: {} {}", 
                        request.amount(), request.currency());
 
-            // Check for existing transaction (idempotency)
-            Optional<PaymentTransaction> existingTransaction =
-                    transactionRepository.findByIdempotencyKey(request.idempotencyKey());
-
-            if (existingTransaction.isPresent()) {
+            // Replays are answered from memory first, then from the stored transaction
+            PaymentDecisionResponse cachedResponse = idempotencyCache.get(request.idempotencyKey());
+            if (cachedResponse != null) {
                 logger.info("Returning cached decision for idempotency key: {}", request.idempotencyKey());
-                return buildResponseFromTransaction(existingTransaction.get());
+                return cachedResponse;
             }
 
-            // Process payment decision through agent
-            PaymentDecisionAgent.AgentDecisionResult result =
-                    strategyName.equals("default")
-                            ? decisionAgent.processPayment(request)
-                            : decisionAgent.processPaymentWithStrategy(request, strategyName);
-
-            // Handle balance reservation for ALLOW decisions
-            if (result.decision() == PaymentDecision.ALLOW) {
-                boolean reservationSuccessful =
-                        balanceService.reserveAmount(request.customerId(), request.amount());
-                if (!reservationSuccessful) {
-                    logger.warn("Failed to reserve amount, changing decision to BLOCK due to insufficient funds");
-                    result = new PaymentDecisionAgent.AgentDecisionResult(
-                            PaymentDecision.BLOCK, 
-                            List.of("insufficient_funds"), 
-                            result.trace());
-                } else {
-                    logger.info("Amount reserved successfully for customer");
-                }
+            // Concurrent duplicates attach to the computation already in progress
+            CompletableFuture<PaymentDecisionResponse> flight = new CompletableFuture<>();
+            CompletableFuture<PaymentDecisionResponse> inFlight =
+                    inFlightDecisions.putIfAbsent(request.idempotencyKey(), flight);
+            if (inFlight != null) {
+                logger.info("Joining in-flight decision for idempotency key: {}", request.idempotencyKey());
+                return inFlight.join();
             }
 
-            // Persist transaction
-            PaymentTransaction transaction = createTransaction(request, result, requestId);
-            transactionRepository.save(transaction);
-
-            // Build response
-            PaymentDecisionResponse response = new PaymentDecisionResponse(
-                    result.decision(), result.reasons(), result.trace(), requestId);
-
-            logger.info("Payment decision completed: {} with {} reasons",
-                       result.decision(), result.reasons().size());
-
-            // Publish event
-            publishPaymentDecisionEvent(request, result, requestId);
-
+            PaymentDecisionResponse response;
+            try {
+                response = decideAndPersist(request, strategyName, requestId);
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                releaseAfterCompletion(request.idempotencyKey(), flight);
+                throw e;
+            }
+            // This caller learns of a failed commit from the transaction itself
+            completeAfterCommit(request.idempotencyKey(), flight, response);
             return response;
 
         } catch (Exception e) {
@@ -166,31 +174,66 @@ public class PaymentDecisionServiceImpl implements PaymentDecisionService {
     }
 
     /**
-     * Creates a PaymentTransaction entity from the request and decision result.
+     * Runs a decision for a key no other request is currently deciding:
+     * - Checking for existing transactions (idempotency)
+     * - Processing the payment decision through the agent
+     * - Handling balance reservations for ALLOW decisions
+     * - Persisting the transaction
+     * - Publishing events
      */
-    private PaymentTransaction createTransaction(
-            PaymentDecisionRequest request,
-            PaymentDecisionAgent.AgentDecisionResult result,
-            String requestId) {
-        PaymentTransaction transaction = new PaymentTransaction();
-        transaction.setIdempotencyKey(request.idempotencyKey());
-        transaction.setCustomerId(request.customerId());
-        transaction.setAmount(request.amount());
-        transaction.setCurrency(request.currency());
-        transaction.setPayeeId(request.payeeId());
-        transaction.setDecision(result.decision());
-        transaction.setRequestId(requestId);
+    private PaymentDecisionResponse decideAndPersist(
+            PaymentDecisionRequest request, String strategyName, String requestId) {
+        // Check for existing transaction (idempotency), including rows not yet written behind
+        Optional<PaymentTransaction> existingTransaction =
+                transactionWriter.findPending(request.idempotencyKey())
+                        .or(() -> transactionRepository.findByIdempotencyKey(request.idempotencyKey()));
 
-        try {
-            transaction.setAgentTrace(objectMapper.writeValueAsString(result.trace()));
-            transaction.setReasons(objectMapper.writeValueAsString(result.reasons()));
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize agent trace or reasons", e);
-            transaction.setAgentTrace("[]");
-            transaction.setReasons("[]");
+        if (existingTransaction.isPresent()) {
+            logger.info("Returning cached decision for idempotency key: {}", request.idempotencyKey());
+            return buildResponseFromTransaction(existingTransaction.get());
+        }
+
+        // Process payment decision through agent
+        PaymentDecisionAgent.AgentDecisionResult result =
+                strategyName.equals("default")
+                        ? decisionAgent.processPayment(request)
+                        : decisionAgent.processPaymentWithStrategy(request, strategyName);
+
+        // Handle balance reservation for ALLOW decisions
+        if (result.decision() == PaymentDecision.ALLOW) {
+            boolean reservationSuccessful =
+                    balanceService.reserveAmount(request.customerId(), request.amount());
+            if (!reservationSuccessful) {
+                logger.warn("Failed to reserve amount, changing decision to BLOCK due to insufficient funds");
+                result = new PaymentDecisionAgent.AgentDecisionResult(
+                        PaymentDecision.BLOCK, 
+                        List.of("insufficient_funds"), 
+                        result.trace());
+            } else {
+                logger.info("Amount reserved successfully for customer");
+            }
+        }
+
+        PaymentTransaction transaction = PaymentTransactionFactory.create(
+                traceCodec, request, result.decision(), result.reasons(), result.trace(), requestId);
+        PaymentDecisionResponse response = new PaymentDecisionResponse(
+                result.decision(), result.reasons(), result.trace(), requestId);
+
+        // Persist transaction, unless the write-behind stage takes it off the request path
+        if (transactionWriter.isWriteBehind()) {
+            writeBehindAfterCommit(request.idempotencyKey(), transaction, response);
+        } else {
+            transactionRepository.save(transaction);
+            cacheAfterCommit(request.idempotencyKey(), response);
         }
 
-        return transaction;
+        logger.info("Payment decision completed: {} with {} reasons",
+                   result.decision(), result.reasons().size());
+
+        // Publish event
+        publishPaymentDecisionEvent(request, result, requestId);
+
+        return response;
     }
 
     /**
@@ -198,20 +241,107 @@ public class PaymentDecisionServiceImpl implements PaymentDecisionService {
      */
     private PaymentDecisionResponse buildResponseFromTransaction(PaymentTransaction transaction) {
         try {
-            return new PaymentDecisionResponse(
+            PaymentDecisionResponse response = new PaymentDecisionResponse(
                     transaction.getDecision(),
-                    objectMapper.readValue(transaction.getReasons(),
-                            objectMapper.getTypeFactory().constructCollectionType(List.class, String.class)),
-                    objectMapper.readValue(transaction.getAgentTrace(),
-                            objectMapper.getTypeFactory().constructCollectionType(
-                                    List.class, AgentStep.class)),
+                    traceCodec.decodeReasons(transaction),
+                    traceCodec.decodeTrace(transaction),
                     transaction.getRequestId());
-        } catch (JsonProcessingException e) {
+            idempotencyCache.put(transaction.getIdempotencyKey(), response);
+            return response;
+        } catch (IOException e) {
             logger.error("Failed to deserialize transaction data", e);
             return createErrorResponse(transaction.getRequestId());
         }
     }
 
+    /**
+     * Writes the response through to the idempotency cache once the transaction row is committed,
+     * so a rolled-back decision is never replayed from memory.
+     */
+    private void cacheAfterCommit(String idempotencyKey, PaymentDecisionResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idempotencyCache.put(idempotencyKey, response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idempotencyCache.put(idempotencyKey, response);
+            }
+        });
+    }
+
+    /**
+     * Hands the row to the write-behind stage once the request transaction commits, so a rolled
+     * back decision is never written. The response is cached first: if the row later fails to
+     * insert, the writer evicts the entry again.
+     */
+    private void writeBehindAfterCommit(
+            String idempotencyKey, PaymentTransaction transaction, PaymentDecisionResponse response) {
+        Runnable write = () -> {
+            idempotencyCache.put(idempotencyKey, response);
+            transactionWriter.write(transaction);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    /**
+     * Hands the response to joined duplicates once the transaction commits. Rows may only be
+     * inserted at commit, so a commit can still fail after the decision was made; joiners then
+     * get an error rather than a decision that was never stored.
+     */
+    private void completeAfterCommit(
+            String idempotencyKey,
+            CompletableFuture<PaymentDecisionResponse> flight,
+            PaymentDecisionResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            flight.complete(response);
+            inFlightDecisions.remove(idempotencyKey, flight);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                flight.complete(response);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // No-op after a successful commit; otherwise fails anyone still waiting
+                flight.completeExceptionally(
+                        new IllegalStateException("Decision for " + idempotencyKey + " was not committed"));
+                inFlightDecisions.remove(idempotencyKey, flight);
+            }
+        });
+    }
+
+    /**
+     * Drops the in-flight entry only after the transaction completes. Until then the row is not
+     * visible to other transactions, so a late duplicate must still join the in-flight future.
+     */
+    private void releaseAfterCompletion(
+            String idempotencyKey, CompletableFuture<PaymentDecisionResponse> flight) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlightDecisions.remove(idempotencyKey, flight);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                inFlightDecisions.remove(idempotencyKey, flight);
+            }
+        });
+    }
+
     /**
      * Creates an error response when processing fails.
      */
@@ -4,10 +4,11 @@ import com.paynow.agentassist.constants.ApiConstants;
 import com.paynow.agentassist.dto.PaymentDecisionRequest;
 import com.paynow.agentassist.dto.PaymentDecisionResponse;
 import com.paynow.agentassist.dto.RateLimitResult;
+import com.paynow.agentassist.service.DecisionMeters;
+import com.paynow.agentassist.service.DecisionMeters.Operation;
 import com.paynow.agentassist.service.payment.PaymentDecisionService;
 import com.paynow.agentassist.util.PiiMaskingUtil;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -23,18 +24,20 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
     
     private final PaymentDecisionService delegate;
     private final MeterRegistry meterRegistry;
+    private final DecisionMeters decisionMeters;
     
     public PerformanceMonitoredPaymentDecisionService(
             @Qualifier("paymentDecisionServiceImpl") PaymentDecisionService delegate,
-            MeterRegistry meterRegistry) {
+            MeterRegistry meterRegistry,
+            DecisionMeters decisionMeters) {
         this.delegate = delegate;
         this.meterRegistry = meterRegistry;
+        this.decisionMeters = decisionMeters;
     }
     
     @Override
     public RateLimitResult checkRateLimit(PaymentDecisionRequest request) {
-        Timer timer = createTimer("checkRateLimit");
-        Timer.Sample sample = Timer.start(meterRegistry);
+        long startTime = System.nanoTime();
         
         try {
             String originalCustomerId = MDC.get("customerId");
@@ -46,10 +49,7 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
                 logger.debug("Checking rate limit for customer");
                 RateLimitResult result = delegate.checkRateLimit(request);
                 
-                meterRegistry.counter(ApiConstants.METRIC_PAYMENT_REQUESTS_TOTAL,
-                                    "operation", "rate_limit_check",
-                                    "allowed", String.valueOf(result.allowed()))
-                            .increment();
+                decisionMeters.recordRateLimitCheck(result.allowed());
                 
                 if (!result.allowed()) {
                     logger.warn("Rate limit exceeded for customer");
@@ -62,14 +62,13 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
                 }
             }
         } finally {
-            sample.stop(timer);
+            decisionMeters.recordDuration(Operation.CHECK_RATE_LIMIT, System.nanoTime() - startTime);
         }
     }
     
     @Override
     public PaymentDecisionResponse processPaymentDecision(PaymentDecisionRequest request) {
-        Timer timer = createTimer("processPaymentDecision");
-        Timer.Sample sample = Timer.start(meterRegistry);
+        long startTime = System.nanoTime();
         
         try {
             String originalCustomerId = MDC.get("customerId");
@@ -81,15 +80,11 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
                 logger.info("Processing payment decision for amount: {} {}", 
                           request.amount(), request.currency());
                 
-                long startTime = System.nanoTime();
                 PaymentDecisionResponse response = delegate.processPaymentDecision(request);
-                long duration = System.nanoTime() - startTime;
-                double durationMs = duration / 1_000_000.0;
+                double durationMs = (System.nanoTime() - startTime) / 1_000_000.0;
                 
-                meterRegistry.counter(ApiConstants.METRIC_PAYMENT_REQUESTS_TOTAL,
-                                    "operation", "payment_decision",
-                                    "decision", response.decision().name())
-                            .increment();
+                decisionMeters.recordDecision(Operation.PROCESS_PAYMENT_DECISION,
+                                              response.decision());
                 
                 if (durationMs > 500) {
                     logger.warn("Slow payment decision processing: {:.2f} ms", durationMs);
@@ -115,14 +110,14 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
                 }
             }
         } finally {
-            sample.stop(timer);
+            decisionMeters.recordDuration(Operation.PROCESS_PAYMENT_DECISION,
+                                          System.nanoTime() - startTime);
         }
     }
     
     @Override
     public PaymentDecisionResponse processPaymentDecisionWithStrategy(PaymentDecisionRequest request, String strategyName) {
-        Timer timer = createTimer("processPaymentDecisionWithStrategy");
-        Timer.Sample sample = Timer.start(meterRegistry);
+        long startTime = System.nanoTime();
         
         try {
             String originalCustomerId = MDC.get("customerId");
@@ -136,11 +131,8 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
                 
                 PaymentDecisionResponse response = delegate.processPaymentDecisionWithStrategy(request, strategyName);
                 
-                meterRegistry.counter(ApiConstants.METRIC_PAYMENT_REQUESTS_TOTAL,
-                                    "operation", "payment_decision_strategy",
-                                    "strategy", strategyName,
-                                    "decision", response.decision().name())
-                            .increment();
+                decisionMeters.recordDecision(Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY,
+                                              strategyName, response.decision());
                 
                 logger.info("Payment decision with strategy completed: {} (strategy: {}, requestId: {})", 
                           response.decision(), strategyName, response.requestId());
@@ -163,14 +155,8 @@ public class PerformanceMonitoredPaymentDecisionService implements PaymentDecisi
                 }
             }
         } finally {
-            sample.stop(timer);
+            decisionMeters.recordDuration(Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY,
+                                          System.nanoTime() - startTime);
         }
     }
-    
-    private Timer createTimer(String operation) {
-        return Timer.builder(ApiConstants.METRIC_REQUEST_DURATION)
-                   .tag("service", "PaymentDecisionService")
-                   .tag("operation", operation)
-                   .register(meterRegistry);
-    }
 }
\ No newline at end of file
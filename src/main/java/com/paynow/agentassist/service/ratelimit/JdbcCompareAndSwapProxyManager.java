@@ -0,0 +1,167 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import com.paynow.agentassist.entity.RateLimitBucketState;
+import com.paynow.agentassist.util.PiiMaskingUtil;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * bucket4j proxy manager that keeps serialized bucket state in {@code rate_limit_buckets} and
+ * updates it with optimistic compare-and-swap on the row's {@code version}; bucket4j retries the
+ * command when a swap loses a race. Statements run on their own auto-commit connection so a
+ * rate limit check never joins, or poisons, the caller's transaction.
+ */
+final class JdbcCompareAndSwapProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+  private static final String TABLE = RateLimitBucketState.TABLE_NAME;
+  private static final String SELECT_SQL =
+      "SELECT state, version FROM " + TABLE + " WHERE bucket_key = ?";
+  private static final String INSERT_SQL =
+      "INSERT INTO " + TABLE + " (bucket_key, state, version) VALUES (?, ?, 0)";
+  private static final String UPDATE_SQL =
+      "UPDATE "
+          + TABLE
+          + " SET state = ?, version = version + 1 WHERE bucket_key = ? AND version = ?";
+  private static final String DELETE_SQL = "DELETE FROM " + TABLE + " WHERE bucket_key = ?";
+
+  // SQLState class 23: integrity constraint violation, here a concurrent insert of the same key
+  private static final String INTEGRITY_VIOLATION_CLASS = "23";
+
+  private final DataSource dataSource;
+  private final LongAdder roundTrips = new LongAdder();
+  private final LongAdder conflicts = new LongAdder();
+
+  JdbcCompareAndSwapProxyManager(DataSource dataSource) {
+    super(ClientSideConfig.getDefault());
+    this.dataSource = dataSource;
+  }
+
+  long getRoundTrips() {
+    return roundTrips.sum();
+  }
+
+  long getConflicts() {
+    return conflicts.sum();
+  }
+
+  @Override
+  protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+    return new CompareAndSwapOperation() {
+      private long version;
+
+      @Override
+      public Optional<byte[]> getStateData() {
+        try (Connection connection = openConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+          statement.setString(1, key);
+          roundTrips.increment();
+          try (ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+              return Optional.empty();
+            }
+            byte[] state = resultSet.getBytes(1);
+            version = resultSet.getLong(2);
+            return Optional.of(state);
+          }
+        } catch (SQLException e) {
+          throw failure("read", key, e);
+        }
+      }
+
+      @Override
+      public boolean compareAndSwap(
+          byte[] originalData, byte[] newData, RemoteBucketState newState) {
+        boolean swapped =
+            originalData == null ? insert(key, newData) : update(key, newData, version);
+        if (!swapped) {
+          conflicts.increment();
+        }
+        return swapped;
+      }
+    };
+  }
+
+  @Override
+  protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+    throw new UnsupportedOperationException("JDBC rate limiter backend is synchronous");
+  }
+
+  @Override
+  public boolean isAsyncModeSupported() {
+    return false;
+  }
+
+  @Override
+  public void removeProxy(String key) {
+    try (Connection connection = openConnection();
+        PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+      statement.setString(1, key);
+      roundTrips.increment();
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      throw failure("delete", key, e);
+    }
+  }
+
+  @Override
+  protected CompletableFuture<Void> removeAsync(String key) {
+    return CompletableFuture.failedFuture(
+        new UnsupportedOperationException("JDBC rate limiter backend is synchronous"));
+  }
+
+  private boolean insert(String key, byte[] state) {
+    try (Connection connection = openConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      statement.setString(1, key);
+      statement.setBytes(2, state);
+      roundTrips.increment();
+      return statement.executeUpdate() == 1;
+    } catch (SQLException e) {
+      String sqlState = e.getSQLState();
+      if (sqlState != null && sqlState.startsWith(INTEGRITY_VIOLATION_CLASS)) {
+        return false;
+      }
+      throw failure("insert", key, e);
+    }
+  }
+
+  private boolean update(String key, byte[] state, long expectedVersion) {
+    try (Connection connection = openConnection();
+        PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+      statement.setBytes(1, state);
+      statement.setString(2, key);
+      statement.setLong(3, expectedVersion);
+      roundTrips.increment();
+      return statement.executeUpdate() == 1;
+    } catch (SQLException e) {
+      throw failure("update", key, e);
+    }
+  }
+
+  private Connection openConnection() throws SQLException {
+    Connection connection = dataSource.getConnection();
+    if (!connection.getAutoCommit()) {
+      connection.setAutoCommit(true);
+    }
+    return connection;
+  }
+
+  private static DataAccessResourceFailureException failure(
+      String operation, String key, SQLException e) {
+    return new DataAccessResourceFailureException(
+        "Failed to " + operation + " rate limit bucket " + PiiMaskingUtil.maskCustomerId(key), e);
+  }
+}
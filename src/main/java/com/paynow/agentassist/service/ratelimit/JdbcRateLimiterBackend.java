@@ -0,0 +1,135 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import com.paynow.agentassist.util.BoundedTtlCache;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets shared by all replicas through the {@code rate_limit_buckets} table, so the configured
+ * rate holds cluster-wide instead of per node. With {@code prefetch-tokens} above zero each node
+ * consumes up to that many tokens locally before synchronizing with the database, or after
+ * {@code prefetch-max-delay-ms} at the latest; this trades one round trip per request for an
+ * overshoot of at most {@code prefetch-tokens} per node and bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "paynow.rate-limit.backend", havingValue = "jdbc")
+public class JdbcRateLimiterBackend implements RateLimiterBackend, MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimiterBackend.class);
+  private static final String METRIC_PREFIX = "rate_limiter.jdbc";
+
+  private final JdbcCompareAndSwapProxyManager proxyManager;
+  private final DelayParameters prefetch;
+  // Proxies are kept so the tokens they pre-allocated are reused by later requests
+  private final BoundedTtlCache<String, Bucket> proxies;
+
+  public JdbcRateLimiterBackend(
+      DataSource dataSource,
+      @Value("${paynow.rate-limit.jdbc.prefetch-tokens:0}") long prefetchTokens,
+      @Value("${paynow.rate-limit.jdbc.prefetch-max-delay-ms:100}") long prefetchMaxDelayMs,
+      @Value("${paynow.rate-limit.store.max-buckets:100000}") int maxProxies,
+      @Value("${paynow.rate-limit.store.idle-timeout-seconds:600}") long proxyTtlSeconds) {
+    this.proxyManager = new JdbcCompareAndSwapProxyManager(dataSource);
+    this.prefetch =
+        prefetchTokens > 0
+            ? new DelayParameters(prefetchTokens, Duration.ofMillis(prefetchMaxDelayMs))
+            : null;
+    this.proxies = new BoundedTtlCache<>(maxProxies, proxyTtlSeconds, TimeUnit.SECONDS);
+    logger.info(
+        "Shared JDBC rate limiter backend enabled with {} prefetched tokens per bucket",
+        prefetchTokens);
+  }
+
+  @Override
+  public long tryConsume(
+      RateLimitTier tier, String key, long tokens, BucketConfiguration configuration) {
+    ConsumptionProbe probe =
+        proxyFor(bucketKey(tier, key), configuration).tryConsumeAndReturnRemaining(tokens);
+    return probe.isConsumed() ? 0L : Math.max(1L, probe.getNanosToWaitForRefill());
+  }
+
+  @Override
+  public void refund(
+      RateLimitTier tier, String key, long tokens, BucketConfiguration configuration) {
+    proxyFor(bucketKey(tier, key), configuration).addTokens(tokens);
+  }
+
+  @Override
+  public OptionalLong getAvailableTokens(
+      RateLimitTier tier, String key, BucketConfiguration configuration) {
+    String bucketKey = bucketKey(tier, key);
+    Bucket proxy = proxies.get(bucketKey);
+    if (proxy == null) {
+      if (proxyManager.getProxyConfiguration(bucketKey).isEmpty()) {
+        return OptionalLong.empty();
+      }
+      proxy = proxyFor(bucketKey, configuration);
+    }
+    return OptionalLong.of(proxy.getAvailableTokens());
+  }
+
+  @Override
+  public String getName() {
+    return "jdbc";
+  }
+
+  /** Database statements issued so far; divided by requests, shows the effect of prefetching. */
+  public long getRoundTrips() {
+    return proxyManager.getRoundTrips();
+  }
+
+  private static String bucketKey(RateLimitTier tier, String key) {
+    return tier.getTag() + ':' + key;
+  }
+
+  // A proxy evicted with unsynchronized tokens forgets at most prefetch-tokens consumptions
+  private Bucket proxyFor(String key, BucketConfiguration configuration) {
+    Bucket proxy = proxies.get(key);
+    if (proxy == null) {
+      RemoteBucketBuilder<String> builder = proxyManager.builder();
+      if (prefetch != null) {
+        builder = builder.withOptimization(Optimizations.delaying(prefetch));
+      }
+      proxy = builder.build(key, configuration);
+      proxies.put(key, proxy);
+    }
+    return proxy;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(METRIC_PREFIX + ".proxies", proxies, BoundedTtlCache::size)
+        .description("Bucket proxies held in this JVM")
+        .register(registry);
+    FunctionCounter.builder(
+            METRIC_PREFIX + ".round_trips",
+            proxyManager,
+            JdbcCompareAndSwapProxyManager::getRoundTrips)
+        .description("Statements issued against the shared bucket table")
+        .register(registry);
+    FunctionCounter.builder(
+            METRIC_PREFIX + ".conflicts",
+            proxyManager,
+            JdbcCompareAndSwapProxyManager::getConflicts)
+        .description("Bucket updates retried after losing a compare-and-swap race")
+        .register(registry);
+  }
+}
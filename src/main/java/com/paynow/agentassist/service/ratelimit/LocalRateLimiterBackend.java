@@ -0,0 +1,114 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import com.paynow.agentassist.util.ResourceManager;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory buckets, one {@link TokenBucketStore} per tier; limits are enforced per replica. Idle
+ * buckets are swept every half idle timeout besides the lazy eviction the stores do on insert.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "paynow.rate-limit.backend",
+    havingValue = "local",
+    matchIfMissing = true)
+public class LocalRateLimiterBackend implements RateLimiterBackend, MeterBinder {
+
+  private static final String METRIC_PREFIX = "rate_limiter.store";
+  private static final int DEFAULT_MAX_BUCKETS = 100_000;
+  private static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 600;
+
+  private final TokenBucketStore[] stores = new TokenBucketStore[RateLimitTier.all().length];
+
+  /** Unscheduled stores with default bounds; idle buckets are still evicted on insert. */
+  public LocalRateLimiterBackend() {
+    this(DEFAULT_MAX_BUCKETS, DEFAULT_IDLE_TIMEOUT_SECONDS);
+  }
+
+  @Autowired
+  public LocalRateLimiterBackend(
+      ResourceManager resourceManager,
+      @Value("${paynow.rate-limit.store.max-buckets:100000}") int maxBucketsPerTier,
+      @Value("${paynow.rate-limit.store.idle-timeout-seconds:600}") long idleTimeoutSeconds) {
+    this(maxBucketsPerTier, idleTimeoutSeconds);
+    long sweepIntervalMs = Math.max(1L, TimeUnit.SECONDS.toMillis(idleTimeoutSeconds) / 2);
+    resourceManager
+        .getOrCreateScheduler("rate-limit-bucket-sweeper")
+        .scheduleWithFixedDelay(
+            this::evictIdle, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  private LocalRateLimiterBackend(int maxBucketsPerTier, long idleTimeoutSeconds) {
+    for (int i = 0; i < stores.length; i++) {
+      stores[i] = new TokenBucketStore(maxBucketsPerTier, idleTimeoutSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  @Override
+  public long tryConsume(
+      RateLimitTier tier, String key, long tokens, BucketConfiguration configuration) {
+    return stores[tier.ordinal()].tryConsume(
+        key, tokens, TokenBucketStore.singleBandwidth(configuration));
+  }
+
+  @Override
+  public void refund(
+      RateLimitTier tier, String key, long tokens, BucketConfiguration configuration) {
+    stores[tier.ordinal()].refund(key, tokens, TokenBucketStore.singleBandwidth(configuration));
+  }
+
+  @Override
+  public OptionalLong getAvailableTokens(
+      RateLimitTier tier, String key, BucketConfiguration configuration) {
+    return stores[tier.ordinal()].getAvailableTokens(
+        key, TokenBucketStore.singleBandwidth(configuration));
+  }
+
+  private void evictIdle() {
+    for (TokenBucketStore store : stores) {
+      store.evictIdle();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "local";
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (RateLimitTier tier : RateLimitTier.all()) {
+      TokenBucketStore store = stores[tier.ordinal()];
+      String tierTag = tier.getTag();
+      Gauge.builder(METRIC_PREFIX + ".size", store, TokenBucketStore::size)
+          .description("Rate limit buckets held in memory")
+          .tag("tier", tierTag)
+          .register(registry);
+      Gauge.builder(METRIC_PREFIX + ".capacity", store, TokenBucketStore::capacity)
+          .description("Maximum rate limit buckets held before least recently used are evicted")
+          .tag("tier", tierTag)
+          .register(registry);
+      FunctionCounter.builder(
+              METRIC_PREFIX + ".evictions", store, TokenBucketStore::idleEvictionCount)
+          .tag("tier", tierTag)
+          .tag("cause", "idle")
+          .register(registry);
+      FunctionCounter.builder(
+              METRIC_PREFIX + ".evictions", store, TokenBucketStore::sizeEvictionCount)
+          .tag("tier", tierTag)
+          .tag("cause", "size")
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * Scopes a payment request is rate limited in, each with its own buckets and bandwidth. Checked in
+ * declaration order, so the tier most likely to reject comes first and later tiers are rarely
+ * charged only to be refunded.
+ */
+public enum RateLimitTier {
+  CUSTOMER("customer"),
+  PAYEE("payee"),
+  API_CLIENT("API client");
+
+  private static final RateLimitTier[] VALUES = values();
+
+  private final String description;
+  private final String tag;
+
+  RateLimitTier(String description) {
+    this.description = description;
+    this.tag = name().toLowerCase(Locale.ROOT);
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  /** Lower-case name used in metric tags and shared bucket keys. */
+  public String getTag() {
+    return tag;
+  }
+
+  /** Shared {@link #values()} array; callers must not modify it. */
+  public static RateLimitTier[] all() {
+    return VALUES;
+  }
+}
@@ -0,0 +1,32 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.OptionalLong;
+
+/**
+ * Where token bucket state lives. Selected with {@code paynow.rate-limit.backend}: {@code local}
+ * (the default) keeps buckets in this JVM, so every replica enforces the limit independently;
+ * {@code jdbc} shares them across replicas through the datasource. Each {@link RateLimitTier} has
+ * its own key space.
+ */
+public interface RateLimiterBackend {
+
+  /**
+   * Takes {@code tokens} from the tier's bucket for {@code key}, creating it from {@code
+   * configuration} on first use.
+   *
+   * @return 0 if the tokens were taken, otherwise the nanos until they will be available
+   */
+  long tryConsume(
+      RateLimitTier tier, String key, long tokens, BucketConfiguration configuration);
+
+  /** Returns tokens taken by {@link #tryConsume}, e.g. when another tier rejected the request. */
+  void refund(RateLimitTier tier, String key, long tokens, BucketConfiguration configuration);
+
+  /** Tokens available in the tier's bucket for {@code key}, or empty if there is none yet. */
+  OptionalLong getAvailableTokens(
+      RateLimitTier tier, String key, BucketConfiguration configuration);
+
+  String getName();
+}
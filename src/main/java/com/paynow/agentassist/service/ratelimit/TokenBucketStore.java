@@ -0,0 +1,287 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Memory-bounded store of single-bandwidth token buckets. A bucket is two longs in its segment's
+ * slab, the token count and the nanos of its last refill, instead of a bucket4j object graph per
+ * key. Keys are spread over independently locked segments, each keeping its keys in access order:
+ * buckets untouched for the idle timeout are evicted lazily on insert and by {@link #evictIdle()},
+ * and a full segment evicts its least recently used bucket.
+ *
+ * <p>Refill follows bucket4j's {@code classic} bandwidth semantics, greedy or intervally. An idle
+ * timeout at least as long as a bucket's full refill time makes eviction invisible to callers,
+ * since the evicted bucket would have been full again anyway.
+ */
+final class TokenBucketStore {
+
+  private static final int SEGMENTS = 16;
+  // Small stores keep fewer segments so least-recently-used eviction stays meaningful
+  private static final int MIN_SEGMENT_CAPACITY = 64;
+  private static final int SLOT_WIDTH = 2; // [tokens, lastRefillNanos]
+  private static final int INITIAL_SLOTS = 16;
+  // Bounds the idle sweep done inline on insert so one request never pays for a large sweep
+  private static final int MAX_INLINE_EVICTIONS = 4;
+
+  private final Segment[] segments;
+  private final int maxBuckets;
+  private final long idleTimeoutNanos;
+  private final LongSupplier nanoClock;
+
+  private final LongAdder idleEvictions = new LongAdder();
+  private final LongAdder sizeEvictions = new LongAdder();
+
+  TokenBucketStore(int maxBuckets, long idleTimeout, TimeUnit unit) {
+    this(maxBuckets, idleTimeout, unit, System::nanoTime);
+  }
+
+  TokenBucketStore(int maxBuckets, long idleTimeout, TimeUnit unit, LongSupplier nanoClock) {
+    if (maxBuckets <= 0) {
+      throw new IllegalArgumentException("Bucket store size must be positive: " + maxBuckets);
+    }
+    int segmentCount = Math.max(1, Math.min(SEGMENTS, maxBuckets / MIN_SEGMENT_CAPACITY));
+    int segmentCapacity = (maxBuckets + segmentCount - 1) / segmentCount;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+    this.maxBuckets = segmentCapacity * segmentCount;
+    this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+    this.nanoClock = nanoClock;
+  }
+
+  /** Returns the only bandwidth of {@code configuration}; the store keeps one token count. */
+  static Bandwidth singleBandwidth(BucketConfiguration configuration) {
+    Bandwidth[] bandwidths = configuration.getBandwidths();
+    if (bandwidths.length != 1 || bandwidths[0].isIntervallyAligned()) {
+      throw new IllegalArgumentException(
+          "Bucket store supports one classic bandwidth per bucket: " + configuration);
+    }
+    return bandwidths[0];
+  }
+
+  /**
+   * Takes {@code tokens} from the key's bucket, creating a full one first if the key has none.
+   *
+   * @return 0 if the tokens were taken, otherwise the nanos until they will be available
+   */
+  long tryConsume(String key, long tokens, Bandwidth limit) {
+    Segment segment = segmentFor(key);
+    long now = nanoClock.getAsLong();
+    synchronized (segment) {
+      int base = segment.slotFor(key, limit, now);
+      long[] slab = segment.slab;
+      refill(slab, base, limit, now);
+
+      long available = slab[base];
+      if (available >= tokens) {
+        slab[base] = available - tokens;
+        return 0L;
+      }
+      return Math.max(1L, nanosUntil(tokens - available, slab, base, limit, now));
+    }
+  }
+
+  /** Returns tokens taken by {@link #tryConsume}, up to the bucket's capacity. */
+  void refund(String key, long tokens, Bandwidth limit) {
+    Segment segment = segmentFor(key);
+    long now = nanoClock.getAsLong();
+    synchronized (segment) {
+      Integer slot = segment.slots.get(key);
+      if (slot != null) {
+        int base = slot * SLOT_WIDTH;
+        refill(segment.slab, base, limit, now);
+        segment.slab[base] = Math.min(limit.getCapacity(), segment.slab[base] + tokens);
+      }
+    }
+  }
+
+  /** Tokens currently available in the bucket, or empty if the store holds no bucket for key. */
+  OptionalLong getAvailableTokens(String key, Bandwidth limit) {
+    Segment segment = segmentFor(key);
+    long now = nanoClock.getAsLong();
+    synchronized (segment) {
+      Integer slot = segment.slots.get(key);
+      if (slot == null) {
+        return OptionalLong.empty();
+      }
+      int base = slot * SLOT_WIDTH;
+      refill(segment.slab, base, limit, now);
+      return OptionalLong.of(segment.slab[base]);
+    }
+  }
+
+  /** Evicts every bucket idle for longer than the idle timeout; returns how many were evicted. */
+  int evictIdle() {
+    long now = nanoClock.getAsLong();
+    int evicted = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        evicted += segment.evictIdle(now, Integer.MAX_VALUE);
+      }
+    }
+    return evicted;
+  }
+
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.slots.size();
+      }
+    }
+    return size;
+  }
+
+  int capacity() {
+    return maxBuckets;
+  }
+
+  long idleEvictionCount() {
+    return idleEvictions.sum();
+  }
+
+  long sizeEvictionCount() {
+    return sizeEvictions.sum();
+  }
+
+  private static void refill(long[] slab, int base, Bandwidth limit, long now) {
+    long elapsed = now - slab[base + 1];
+    if (elapsed <= 0) {
+      return;
+    }
+    long capacity = limit.getCapacity();
+    long period = limit.getRefillPeriodNanos();
+    long refillTokens = limit.getRefillTokens();
+    long missing = capacity - slab[base];
+
+    if (limit.isRefillIntervally()) {
+      // Refills land on the bucket's period grid whether or not it is full
+      long periods = elapsed / period;
+      slab[base + 1] += periods * period;
+      slab[base] =
+          periods >= ceilDiv(missing, refillTokens)
+              ? capacity
+              : slab[base] + periods * refillTokens;
+      return;
+    }
+    if (missing <= 0 || elapsed >= ceilDiv(missing * period, refillTokens)) {
+      slab[base] = capacity;
+      slab[base + 1] = now;
+      return;
+    }
+    long added = elapsed * refillTokens / period;
+    slab[base] += added;
+    // Advance only by the time the whole tokens took, carrying the fraction to the next refill
+    slab[base + 1] += added * period / refillTokens;
+  }
+
+  /** Nanos until {@code deficit} more tokens have been refilled into the bucket at {@code base}. */
+  private static long nanosUntil(long deficit, long[] slab, int base, Bandwidth limit, long now) {
+    if (deficit <= 0) {
+      return 0L;
+    }
+    long period = limit.getRefillPeriodNanos();
+    long refillTokens = limit.getRefillTokens();
+    long sinceRefill = Math.max(0L, now - slab[base + 1]);
+    long total =
+        limit.isRefillIntervally()
+            ? ceilDiv(deficit, refillTokens) * period
+            : ceilDiv(deficit * period, refillTokens);
+    return Math.max(0L, total - sinceRefill);
+  }
+
+  private static long ceilDiv(long dividend, long divisor) {
+    return -Math.floorDiv(-dividend, divisor);
+  }
+
+  private Segment segmentFor(String key) {
+    int h = key.hashCode();
+    return segments[((h ^ (h >>> 16)) & 0x7fffffff) % segments.length];
+  }
+
+  private final class Segment {
+
+    private final int capacity;
+    // Key to slot index, in access order so the eldest entry is the least recently used bucket
+    private final LinkedHashMap<String, Integer> slots = new LinkedHashMap<>(16, 0.75f, true);
+    private long[] slab;
+    private int[] freeSlots;
+    private int freeCount;
+    private int nextUnused;
+
+    private Segment(int capacity) {
+      this.capacity = capacity;
+      this.slab = new long[Math.min(capacity, INITIAL_SLOTS) * SLOT_WIDTH];
+      this.freeSlots = new int[Math.min(capacity, INITIAL_SLOTS)];
+    }
+
+    /** Returns the slab offset of the key's bucket, creating a full bucket if it has none. */
+    private int slotFor(String key, Bandwidth limit, long now) {
+      Integer existing = slots.get(key);
+      if (existing != null) {
+        return existing * SLOT_WIDTH;
+      }
+
+      evictIdle(now, MAX_INLINE_EVICTIONS);
+      if (slots.size() >= capacity) {
+        Iterator<Map.Entry<String, Integer>> eldest = slots.entrySet().iterator();
+        release(eldest.next().getValue());
+        eldest.remove();
+        sizeEvictions.increment();
+      }
+
+      int slot = allocate();
+      slots.put(key, slot);
+      int base = slot * SLOT_WIDTH;
+      slab[base] = limit.getInitialTokens();
+      slab[base + 1] = now;
+      return base;
+    }
+
+    private int evictIdle(long now, int maxEvictions) {
+      int evicted = 0;
+      Iterator<Map.Entry<String, Integer>> iterator = slots.entrySet().iterator();
+      while (evicted < maxEvictions && iterator.hasNext()) {
+        Map.Entry<String, Integer> entry = iterator.next();
+        // lastRefill trails the last access by less than one refill period
+        if (now - slab[entry.getValue() * SLOT_WIDTH + 1] <= idleTimeoutNanos) {
+          break;
+        }
+        release(entry.getValue());
+        iterator.remove();
+        evicted++;
+      }
+      idleEvictions.add(evicted);
+      return evicted;
+    }
+
+    private int allocate() {
+      if (freeCount > 0) {
+        return freeSlots[--freeCount];
+      }
+      int slot = nextUnused++;
+      if ((slot + 1) * SLOT_WIDTH > slab.length) {
+        int slotsNow = slab.length / SLOT_WIDTH;
+        int grown = Math.min(capacity, slotsNow * 2);
+        slab = Arrays.copyOf(slab, grown * SLOT_WIDTH);
+        freeSlots = Arrays.copyOf(freeSlots, grown);
+      }
+      return slot;
+    }
+
+    private void release(int slot) {
+      freeSlots[freeCount++] = slot;
+    }
+  }
+}
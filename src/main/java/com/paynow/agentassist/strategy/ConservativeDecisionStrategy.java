@@ -1,68 +1,28 @@
 package com.paynow.agentassist.strategy;
 
-import com.paynow.agentassist.domain.PaymentDecision;
-import com.paynow.agentassist.dto.PaymentDecisionRequest;
-import com.paynow.agentassist.dto.RiskSignals;
+import com.paynow.agentassist.strategy.StrategyDefinition.Rule;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Component
-public class ConservativeDecisionStrategy implements DecisionStrategy {
-
-  @Override
-  public String getName() {
-    return "conservative";
-  }
-
-  @Override
-  public String getDescription() {
-    return "Conservative approach with lower risk tolerance";
-  }
-
-  @Override
-  public PaymentDecision makeDecision(
-      PaymentDecisionRequest request,
-      BigDecimal balance,
-      RiskSignals riskSignals,
-      List<String> reasons) {
-
-    if (balance.compareTo(request.amount()) < 0) {
-      reasons.add("insufficient_balance");
-      return PaymentDecision.BLOCK;
-    }
-
-    if (request.amount().compareTo(new BigDecimal("50")) > 0) {
-      reasons.add("amount_above_conservative_threshold");
-    }
-
-    if (riskSignals.recentDisputes() > 0) {
-      reasons.add("recent_disputes");
-      return PaymentDecision.BLOCK;
-    }
-
-    if (riskSignals.deviceChange()) {
-      reasons.add("device_change_detected");
-    }
-
-    if (riskSignals.velocityViolation()) {
-      reasons.add("velocity_violation");
-      return PaymentDecision.BLOCK;
-    }
-
-    if (riskSignals.dailyTransactionCount() > 10) {
-      reasons.add("high_transaction_frequency");
-    }
-
-    if ("HIGH".equals(riskSignals.riskScore()) || "MEDIUM".equals(riskSignals.riskScore())) {
-      return PaymentDecision.BLOCK;
-    }
-
-    if (reasons.size() >= 1) {
-      return PaymentDecision.REVIEW;
-    }
-
-    return PaymentDecision.ALLOW;
+public class ConservativeDecisionStrategy extends RuleTableDecisionStrategy {
+
+  private static final StrategyDefinition DEFINITION =
+      new StrategyDefinition(
+          "Conservative approach with lower risk tolerance",
+          List.of(
+              new Rule("amount > balance", "insufficient_balance", "block"),
+              new Rule("amount > 50", "amount_above_conservative_threshold", null),
+              new Rule("recent-disputes > 0", "recent_disputes", "block"),
+              new Rule("device-change", "device_change_detected", null),
+              new Rule("velocity-violation", "velocity_violation", "block"),
+              new Rule("daily-transactions > 10", "high_transaction_frequency", null),
+              new Rule("risk-score >= MEDIUM", null, "block"),
+              new Rule("reasons >= 1", null, "review")),
+          "allow");
+
+  public ConservativeDecisionStrategy() {
+    super("conservative", DEFINITION);
   }
 }
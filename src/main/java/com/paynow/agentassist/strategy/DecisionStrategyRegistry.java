@@ -1,45 +1,207 @@
 package com.paynow.agentassist.strategy;
 
+import com.paynow.agentassist.config.DecisionStrategyConfig;
+import com.paynow.agentassist.constants.ApiConstants;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RiskSignals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Strategies by name. The built-in beans and the configured rule tables are the base set; {@link
+ * #update} layers a versioned set of definitions over it, replacing strategies of the same name.
+ * Lookups read an immutable snapshot that an update swaps as a whole, so a request keeps the
+ * strategy it looked up even if a newer version is applied while it runs.
+ *
+ * <p>Such a request still counts its decision on the replaced version's counter, so those
+ * counters stay registered until the update after the one that replaced them.
+ */
 @Component
 public class DecisionStrategyRegistry {
 
-  private final Map<String, DecisionStrategy> strategies;
-  private final DecisionStrategy defaultStrategy;
+  private static final Logger logger = LoggerFactory.getLogger(DecisionStrategyRegistry.class);
+
+  private static final String DEFAULT_STRATEGY = "default";
+
+  /** A strategy, the definitions version it came from (0 for the base set) and its counter. */
+  private record Entry(DecisionStrategy strategy, long version, Counter decisions) {}
+
+  private record Snapshot(long version, Map<String, Entry> entries, DecisionStrategy fallback) {}
+
+  private final Map<String, DecisionStrategy> baseStrategies;
+  private final MeterRegistry meterRegistry;
+  private volatile Snapshot snapshot;
+  // Counters of the versions the last update replaced, removed by the next one
+  private List<Counter> retired = List.of();
+
+  @Autowired
+  public DecisionStrategyRegistry(
+      List<DecisionStrategy> strategyList,
+      DecisionStrategyConfig strategyConfig,
+      MeterRegistry meterRegistry) {
+    this(withConfigured(strategyList, strategyConfig), meterRegistry);
+  }
 
   public DecisionStrategyRegistry(List<DecisionStrategy> strategyList) {
-    this.strategies =
-        new ConcurrentHashMap<>(
+    this(strategyList, null);
+  }
+
+  private DecisionStrategyRegistry(
+      List<DecisionStrategy> strategyList, MeterRegistry meterRegistry) {
+    // Rejects duplicate names, including configured ones that clash with a bean
+    this.baseStrategies =
+        Map.copyOf(
             strategyList.stream()
                 .collect(Collectors.toMap(DecisionStrategy::getName, Function.identity())));
-
-    this.defaultStrategy = strategies.get("default");
-    if (this.defaultStrategy == null) {
+    if (!baseStrategies.containsKey(DEFAULT_STRATEGY)) {
       throw new IllegalStateException("Default decision strategy not found");
     }
+    this.meterRegistry = meterRegistry;
+    this.snapshot = build(0L, Map.of());
+  }
+
+  private static List<DecisionStrategy> withConfigured(
+      List<DecisionStrategy> strategyList, DecisionStrategyConfig strategyConfig) {
+    List<DecisionStrategy> all = new ArrayList<>(strategyList);
+    strategyConfig
+        .getStrategies()
+        .forEach((name, definition) -> all.add(new RuleTableDecisionStrategy(name, definition)));
+    return all;
   }
 
   public DecisionStrategy getStrategy(String strategyName) {
-    return strategies.getOrDefault(strategyName, defaultStrategy);
+    Snapshot current = snapshot;
+    Entry entry = strategyName != null ? current.entries().get(strategyName) : null;
+    return entry != null ? entry.strategy() : current.fallback();
+  }
+
+  /**
+   * Returns the strategy of that name without counting its decisions, for evaluations that are
+   * not served; {@code null} if there is none.
+   */
+  public DecisionStrategy findStrategy(String strategyName) {
+    Entry entry = strategyName != null ? snapshot.entries().get(strategyName) : null;
+    if (entry == null) {
+      return null;
+    }
+    return entry.strategy() instanceof Counted counted ? counted.delegate() : entry.strategy();
   }
 
   public DecisionStrategy getDefaultStrategy() {
-    return defaultStrategy;
+    return snapshot.fallback();
   }
 
   public Map<String, String> getAvailableStrategies() {
-    return strategies.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getDescription()));
+    return snapshot.entries().entrySet().stream()
+        .collect(
+            Collectors.toMap(
+                Map.Entry::getKey, entry -> entry.getValue().strategy().getDescription()));
   }
 
   public boolean isValidStrategy(String strategyName) {
-    return strategies.containsKey(strategyName);
+    return snapshot.entries().containsKey(strategyName);
+  }
+
+  /** Version of the definitions applied by {@link #update}; 0 while only the base set is in use. */
+  public long getDefinitionsVersion() {
+    return snapshot.version();
+  }
+
+  /**
+   * Compiles {@code definitions} and swaps them in over the base strategies, replacing any set
+   * applied before. Does nothing and returns {@code false} unless {@code version} is newer than
+   * the applied one.
+   *
+   * @throws IllegalArgumentException if a definition does not compile; the current set stays
+   */
+  public synchronized boolean update(long version, Map<String, StrategyDefinition> definitions) {
+    Snapshot current = snapshot;
+    if (version <= current.version()) {
+      return false;
+    }
+    Map<String, DecisionStrategy> compiled = new LinkedHashMap<>();
+    definitions.forEach(
+        (name, definition) -> compiled.put(name, new RuleTableDecisionStrategy(name, definition)));
+
+    Snapshot next = build(version, compiled);
+    snapshot = next;
+    // Strategies still in use keep their counters; replaced ones are retired for one update
+    retired.forEach(meterRegistry::remove);
+    List<Counter> replaced = new ArrayList<>();
+    current.entries().forEach(
+        (name, entry) -> {
+          Entry kept = next.entries().get(name);
+          if (entry.decisions() != null && (kept == null || kept.version() != entry.version())) {
+            replaced.add(entry.decisions());
+          }
+        });
+    retired = List.copyOf(replaced);
+    logger.info("Applied decision strategy definitions version {}: {}", version, compiled.keySet());
+    return true;
+  }
+
+  private Snapshot build(long version, Map<String, DecisionStrategy> overrides) {
+    Map<String, Entry> entries = new HashMap<>();
+    baseStrategies.forEach((name, strategy) -> entries.put(name, entry(name, strategy, 0L)));
+    overrides.forEach((name, strategy) -> entries.put(name, entry(name, strategy, version)));
+    Map<String, Entry> copy = Map.copyOf(entries);
+    return new Snapshot(version, copy, copy.get(DEFAULT_STRATEGY).strategy());
+  }
+
+  private Entry entry(String name, DecisionStrategy strategy, long version) {
+    if (meterRegistry == null) {
+      return new Entry(strategy, version, null);
+    }
+    // The registry returns the existing counter when a strategy is kept at the same version
+    Counter decisions = decisionCounter(name, version);
+    return new Entry(new Counted(strategy, decisions), version, decisions);
+  }
+
+  private Counter decisionCounter(String name, long version) {
+    return Counter.builder(ApiConstants.METRIC_STRATEGY_DECISIONS_TOTAL)
+        .description("Decisions made by each strategy and definitions version")
+        .tag("strategy", name)
+        .tag("version", String.valueOf(version))
+        .register(meterRegistry);
+  }
+
+  /** Counts the decisions of a strategy, tagged with its definitions version. */
+  private record Counted(DecisionStrategy delegate, Counter decisions)
+      implements DecisionStrategy {
+
+    @Override
+    public String getName() {
+      return delegate.getName();
+    }
+
+    @Override
+    public String getDescription() {
+      return delegate.getDescription();
+    }
+
+    @Override
+    public PaymentDecision makeDecision(
+        PaymentDecisionRequest request,
+        BigDecimal balance,
+        RiskSignals riskSignals,
+        List<String> reasons) {
+      PaymentDecision decision = delegate.makeDecision(request, balance, riskSignals, reasons);
+      decisions.increment();
+      return decision;
+    }
   }
 }
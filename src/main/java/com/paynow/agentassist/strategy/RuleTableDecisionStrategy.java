@@ -0,0 +1,308 @@
+package com.paynow.agentassist.strategy;
+
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.domain.ReasonCode;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RiskSignals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decision strategy compiled from a {@link StrategyDefinition}. The rules are parsed once into
+ * flat arrays of field codes and value ranges, and evaluation walks them over the signals'
+ * primitive fields. Amount thresholds stay {@link BigDecimal} constants, which compare against
+ * the request amount without allocating. {@link #evaluate} returns the decision and the reasons
+ * as a {@link ReasonCode} bitmask packed in one {@code long}, so a decision produces no garbage.
+ */
+public class RuleTableDecisionStrategy implements DecisionStrategy {
+
+  private static final int AMOUNT = 0;
+  private static final int BALANCE = 1;
+  private static final int RECENT_DISPUTES = 2;
+  private static final int DAILY_TRANSACTIONS = 3;
+  private static final int DEVICE_CHANGE = 4;
+  private static final int VELOCITY_VIOLATION = 5;
+  private static final int RISK_SCORE = 6;
+  private static final int REASONS = 7;
+  private static final String[] FIELDS = {
+    "amount",
+    "balance",
+    "recent-disputes",
+    "daily-transactions",
+    "device-change",
+    "velocity-violation",
+    "risk-score",
+    "reasons"
+  };
+
+  private static final String[] OPERATORS = {">", ">=", "<", "<=", "=", "!="};
+  private static final int GT = 0;
+  private static final int GE = 1;
+  private static final int LT = 2;
+  private static final int LE = 3;
+  private static final int EQ = 4;
+  private static final int NE = 5;
+
+  // An unrecognised or missing risk score ranks below LOW
+  private static final String[] RISK_SCORES = {"LOW", "MEDIUM", "HIGH"};
+  private static final int UNKNOWN_RISK = -1;
+
+  // Amounts carry two decimal places; thresholds of the same scale compare on the fast path
+  private static final int AMOUNT_SCALE = 2;
+
+  private static final PaymentDecision[] DECISIONS = PaymentDecision.values();
+  private static final int DECISION_BITS = 2;
+  private static final int NO_OUTCOME = -1;
+
+  static {
+    if (ReasonCode.values().length > Long.SIZE - DECISION_BITS) {
+      throw new IllegalStateException("Reason codes no longer fit a packed decision");
+    }
+  }
+
+  private final String name;
+  private final String description;
+
+  // Conditions of rule r are indexes ruleStart[r] to ruleStart[r + 1] - 1
+  private final int[] ruleStart;
+  private final long[] ruleReason;
+  private final int[] ruleOutcome;
+  private final int otherwise;
+
+  // Condition c holds when (low[c] <= value <= high[c]) == inside[c]; any operator on an
+  // integer, or on the sign of an amount comparison, reduces to such a range
+  private final int[] field;
+  private final long[] low;
+  private final long[] high;
+  private final boolean[] inside;
+  // Amount or balance threshold; null when the two are compared with each other
+  private final BigDecimal[] threshold;
+
+  public RuleTableDecisionStrategy(String name, StrategyDefinition definition) {
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Strategy name is required");
+    }
+    List<StrategyDefinition.Rule> rules =
+        definition.rules() != null ? definition.rules() : List.of();
+    this.name = name;
+    this.description = definition.description() != null ? definition.description() : name;
+    this.ruleStart = new int[rules.size() + 1];
+    this.ruleReason = new long[rules.size()];
+    this.ruleOutcome = new int[rules.size()];
+
+    List<String[]> conditions = new ArrayList<>();
+    for (int r = 0; r < rules.size(); r++) {
+      StrategyDefinition.Rule rule = rules.get(r);
+      String where = "Strategy '" + name + "' rule " + (r + 1);
+      if (rule.reason() == null && rule.outcome() == null) {
+        throw new IllegalArgumentException(where + " needs a reason or an outcome");
+      }
+      if (rule.reason() != null) {
+        ReasonCode reason = ReasonCode.fromValue(rule.reason());
+        if (reason == null) {
+          throw new IllegalArgumentException(where + " has unknown reason '" + rule.reason() + "'");
+        }
+        ruleReason[r] = reason.bit();
+      }
+      ruleOutcome[r] = rule.outcome() != null ? decisionIndex(rule.outcome(), where) : NO_OUTCOME;
+
+      ruleStart[r] = conditions.size();
+      if (rule.when() != null && !rule.when().isBlank()) {
+        for (String condition : rule.when().trim().split("\\s+and\\s+")) {
+          conditions.add(condition.trim().split("\\s+"));
+        }
+      }
+    }
+    ruleStart[rules.size()] = conditions.size();
+    this.otherwise =
+        definition.otherwise() != null
+            ? decisionIndex(definition.otherwise(), "Strategy '" + name + "' otherwise")
+            : PaymentDecision.ALLOW.ordinal();
+
+    int count = conditions.size();
+    this.field = new int[count];
+    this.low = new long[count];
+    this.high = new long[count];
+    this.inside = new boolean[count];
+    this.threshold = new BigDecimal[count];
+    for (int r = 0; r < rules.size(); r++) {
+      for (int c = ruleStart[r]; c < ruleStart[r + 1]; c++) {
+        compileCondition(c, conditions.get(c), "Strategy '" + name + "' rule " + (r + 1));
+      }
+    }
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public PaymentDecision makeDecision(
+      PaymentDecisionRequest request,
+      BigDecimal balance,
+      RiskSignals riskSignals,
+      List<String> reasons) {
+    long result = evaluate(request.amount(), balance, riskSignals);
+    ReasonCode.addValues(reasonMask(result), reasons);
+    return decision(result);
+  }
+
+  /**
+   * Evaluates the rules; read the result with {@link #decision} and {@link #reasonMask}. Reasons
+   * are in {@link ReasonCode} declaration order rather than rule order.
+   */
+  public long evaluate(BigDecimal amount, BigDecimal balance, RiskSignals riskSignals) {
+    int recentDisputes = riskSignals.recentDisputes();
+    int dailyTransactions = riskSignals.dailyTransactionCount();
+    int deviceChange = riskSignals.deviceChange() ? 1 : 0;
+    int velocityViolation = riskSignals.velocityViolation() ? 1 : 0;
+    int risk = riskLevel(riskSignals.riskScore());
+
+    long mask = 0L;
+    int c = 0;
+    for (int r = 0; r < ruleOutcome.length; r++) {
+      int end = ruleStart[r + 1];
+      boolean matched = true;
+      for (; c < end; c++) {
+        long value =
+            switch (field[c]) {
+              case AMOUNT -> amount.compareTo(threshold[c] != null ? threshold[c] : balance);
+              case BALANCE -> balance.compareTo(threshold[c] != null ? threshold[c] : amount);
+              case RECENT_DISPUTES -> recentDisputes;
+              case DAILY_TRANSACTIONS -> dailyTransactions;
+              case DEVICE_CHANGE -> deviceChange;
+              case VELOCITY_VIOLATION -> velocityViolation;
+              case RISK_SCORE -> risk;
+              case REASONS -> Long.bitCount(mask);
+              default -> throw new IllegalStateException("Unknown field " + field[c]);
+            };
+        if ((value >= low[c] && value <= high[c]) != inside[c]) {
+          matched = false;
+          break;
+        }
+      }
+      c = end;
+      if (matched) {
+        mask |= ruleReason[r];
+        if (ruleOutcome[r] != NO_OUTCOME) {
+          return pack(ruleOutcome[r], mask);
+        }
+      }
+    }
+    return pack(otherwise, mask);
+  }
+
+  public static PaymentDecision decision(long result) {
+    return DECISIONS[(int) (result & ((1 << DECISION_BITS) - 1))];
+  }
+
+  public static long reasonMask(long result) {
+    return result >>> DECISION_BITS;
+  }
+
+  private void compileCondition(int c, String[] tokens, String where) {
+    String text = String.join(" ", tokens);
+    if (tokens.length == 1) {
+      // A boolean signal on its own
+      tokens = new String[] {tokens[0], "=", "true"};
+    } else if (tokens.length != 3) {
+      throw new IllegalArgumentException(where + ": cannot parse condition '" + text + "'");
+    }
+    field[c] = indexOf(FIELDS, tokens[0]);
+    int operator = indexOf(OPERATORS, tokens[1]);
+    if (field[c] < 0 || operator < 0) {
+      throw new IllegalArgumentException(where + ": unknown field or operator in '" + text + "'");
+    }
+
+    String value = tokens[2];
+    long operand;
+    try {
+      switch (field[c]) {
+        case AMOUNT, BALANCE -> {
+          // Compared by the sign of compareTo against the threshold or the other field
+          int other = field[c] == AMOUNT ? BALANCE : AMOUNT;
+          if (!FIELDS[other].equals(value)) {
+            BigDecimal parsed = new BigDecimal(value);
+            threshold[c] = parsed.setScale(Math.max(parsed.scale(), AMOUNT_SCALE));
+          }
+          operand = 0;
+        }
+        case DEVICE_CHANGE, VELOCITY_VIOLATION -> {
+          if (operator != EQ && operator != NE) {
+            throw new IllegalArgumentException("booleans only compare with = and !=");
+          }
+          if (!value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException("expected true or false");
+          }
+          operand = Boolean.parseBoolean(value) ? 1 : 0;
+        }
+        case RISK_SCORE -> {
+          operand = indexOf(RISK_SCORES, value);
+          if (operand < 0) {
+            throw new IllegalArgumentException("expected one of LOW, MEDIUM, HIGH");
+          }
+        }
+        default -> operand = Integer.parseInt(value);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          where + ": invalid value in '" + text + "': " + e.getMessage(), e);
+    }
+
+    low[c] =
+        switch (operator) {
+          case GT -> operand + 1;
+          case GE, EQ, NE -> operand;
+          default -> Long.MIN_VALUE;
+        };
+    high[c] =
+        switch (operator) {
+          case LT -> operand - 1;
+          case LE, EQ, NE -> operand;
+          default -> Long.MAX_VALUE;
+        };
+    inside[c] = operator != NE;
+  }
+
+  private static int riskLevel(String riskScore) {
+    if (riskScore == null) {
+      return UNKNOWN_RISK;
+    }
+    return switch (riskScore) {
+      case "LOW" -> 0;
+      case "MEDIUM" -> 1;
+      case "HIGH" -> 2;
+      default -> UNKNOWN_RISK;
+    };
+  }
+
+  private static int decisionIndex(String value, String where) {
+    for (PaymentDecision decision : DECISIONS) {
+      if (decision.getValue().equalsIgnoreCase(value)) {
+        return decision.ordinal();
+      }
+    }
+    throw new IllegalArgumentException(where + " has unknown outcome '" + value + "'");
+  }
+
+  private static long pack(int decision, long mask) {
+    return mask << DECISION_BITS | decision;
+  }
+
+  private static int indexOf(String[] values, String value) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i].equals(value)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
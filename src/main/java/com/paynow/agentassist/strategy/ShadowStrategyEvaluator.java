@@ -0,0 +1,210 @@
+package com.paynow.agentassist.strategy;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RiskSignals;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow mode for trialling strategies on live traffic. After a request is decided, a background
+ * thread runs the candidate strategies on the same balance and risk signals and counts each pair
+ * of served and candidate decisions, giving an agreement matrix per pair of strategies. Shadow
+ * decisions are never served and create no cases.
+ *
+ * <p>The request only offers the inputs to a bounded queue; when the queue is full the sample is
+ * dropped and counted rather than slowing the request down. Candidates are looked up when they
+ * are evaluated, so they follow reloaded definitions.
+ */
+@Component
+public class ShadowStrategyEvaluator implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(ShadowStrategyEvaluator.class);
+  private static final String METRIC_PREFIX = "decision_strategy_shadow";
+  private static final long POLL_INTERVAL_MS = 100;
+
+  /** Inputs and outcome of a served decision. */
+  record Sample(
+      PaymentDecisionRequest request,
+      BigDecimal balance,
+      RiskSignals riskSignals,
+      String strategy,
+      PaymentDecision decision) {}
+
+  private final DecisionStrategyRegistry registry;
+  private final List<String> candidates;
+  private final BlockingQueue<Sample> queue;
+  private final Future<?> worker;
+  private volatile boolean running = true;
+  private volatile Meter.MeterProvider<Counter> outcomes;
+
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+
+  public ShadowStrategyEvaluator(
+      DecisionStrategyRegistry registry,
+      ResourceManager resourceManager,
+      @Value("${paynow.decision.shadow.strategies:}") String candidates,
+      @Value("${paynow.decision.shadow.queue-capacity:1000}") int queueCapacity) {
+    this.registry = registry;
+    this.candidates =
+        Arrays.stream(candidates.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .distinct()
+            .toList();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    if (this.candidates.isEmpty()) {
+      this.worker = null;
+      return;
+    }
+    for (String candidate : this.candidates) {
+      if (!registry.isValidStrategy(candidate)) {
+        logger.warn("Shadow strategy '{}' is not defined, skipping it until it is", candidate);
+      }
+    }
+    this.worker = resourceManager.getOrCreateExecutor("strategy-shadow", 1).submit(this::run);
+    logger.info(
+        "Shadow evaluation of strategies {} enabled with queue capacity {}",
+        this.candidates,
+        queueCapacity);
+  }
+
+  public boolean isEnabled() {
+    return worker != null;
+  }
+
+  public List<String> getCandidates() {
+    return candidates;
+  }
+
+  /**
+   * Queues a served decision for shadow evaluation without blocking.
+   *
+   * @return {@code false} if shadow mode is off or the sample was dropped
+   */
+  public boolean submit(
+      PaymentDecisionRequest request,
+      BigDecimal balance,
+      RiskSignals riskSignals,
+      String strategy,
+      PaymentDecision decision) {
+    if (worker == null || !running) {
+      return false;
+    }
+    if (queue.offer(new Sample(request, balance, riskSignals, strategy, decision))) {
+      return true;
+    }
+    dropped.increment();
+    return false;
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /** Runs the candidates on one sample and counts their agreement with the served decision. */
+  void evaluate(Sample sample) {
+    Meter.MeterProvider<Counter> counters = outcomes;
+    for (String candidate : candidates) {
+      if (candidate.equals(sample.strategy())) {
+        continue;
+      }
+      DecisionStrategy strategy = registry.findStrategy(candidate);
+      if (strategy == null) {
+        continue;
+      }
+      PaymentDecision decision;
+      try {
+        decision =
+            strategy.makeDecision(
+                sample.request(), sample.balance(), sample.riskSignals(), new ArrayList<>());
+      } catch (Exception e) {
+        failures.increment();
+        logger.debug("Shadow strategy '{}' failed", candidate, e);
+        continue;
+      }
+      if (counters != null) {
+        counters
+            .withTags(
+                "primary", sample.strategy(),
+                "candidate", candidate,
+                "primary_decision", sample.decision().getValue(),
+                "candidate_decision", decision.getValue())
+            .increment();
+      }
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        Sample sample = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (sample != null) {
+          evaluate(sample);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        logger.error("Unexpected error in shadow strategy evaluation", e);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (worker == null) {
+      return;
+    }
+    running = false;
+    try {
+      worker.get(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.warn("Shadow strategy evaluation did not stop cleanly", e);
+    }
+    // Shadow results are best effort, samples still queued are not worth delaying shutdown for
+    queue.clear();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    outcomes =
+        Counter.builder(ApiConstants.METRIC_STRATEGY_SHADOW_DECISIONS_TOTAL)
+            .description("Served decisions by the decision a shadow strategy made instead")
+            .withRegistry(registry);
+    Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size)
+        .description("Served decisions waiting for shadow evaluation")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".dropped", dropped, LongAdder::sum)
+        .description("Served decisions not shadowed because the queue was full")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + ".failures", failures, LongAdder::sum)
+        .description("Shadow evaluations that threw")
+        .register(registry);
+  }
+}
@@ -0,0 +1,32 @@
+package com.paynow.agentassist.strategy;
+
+import java.util.List;
+
+/**
+ * Declarative form of a {@link RuleTableDecisionStrategy}. Rules are tried in order; a matching
+ * rule adds its reason, and if it has an outcome the decision is made. When no rule decides, the
+ * outcome is {@code otherwise}, {@code allow} if unset.
+ *
+ * <p>A rule's {@code when} is a list of conditions joined by {@code and}, each either a boolean
+ * signal on its own or {@code <field> <op> <value>} with one of {@code > >= < <= = !=}:
+ *
+ * <ul>
+ *   <li>{@code amount}, {@code balance}: a decimal, or the other of the two
+ *   <li>{@code recent-disputes}, {@code daily-transactions}: an integer
+ *   <li>{@code device-change}, {@code velocity-violation}: {@code true} or {@code false}
+ *   <li>{@code risk-score}: {@code LOW}, {@code MEDIUM} or {@code HIGH}, ordered in that way; an
+ *       unrecognised or missing score ranks below {@code LOW}
+ *   <li>{@code reasons}: the number of reasons added by earlier rules
+ * </ul>
+ *
+ * An empty {@code when} always matches.
+ */
+public record StrategyDefinition(String description, List<Rule> rules, String otherwise) {
+
+  /**
+   * @param reason a {@link com.paynow.agentassist.domain.ReasonCode} value, or {@code null}
+   * @param outcome a {@link com.paynow.agentassist.domain.PaymentDecision} value, or {@code null}
+   *     to carry on with the next rule
+   */
+  public record Rule(String when, String reason, String outcome) {}
+}
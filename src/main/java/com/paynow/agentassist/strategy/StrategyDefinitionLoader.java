@@ -0,0 +1,157 @@
+package com.paynow.agentassist.strategy;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies strategy definitions from a JSON file to the {@link DecisionStrategyRegistry}, and again
+ * whenever the file changes:
+ *
+ * <pre>
+ * {"version": 2,
+ *  "strategies": {"default": {"description": "...", "rules": [...], "otherwise": "allow"}}}
+ * </pre>
+ *
+ * The file is checked on a housekeeping thread, so parsing and compiling stay off the request
+ * path. A file that fails to parse or compile, or whose version is not newer than the applied one,
+ * is logged and skipped until it changes again; the strategies in use are left as they are.
+ * Polling the modification time, rather than a watch service, also picks up files replaced
+ * through a symlink swap, as mounted config maps are.
+ */
+@Component
+public class StrategyDefinitionLoader implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(StrategyDefinitionLoader.class);
+  private static final String METRIC_PREFIX = "decision_strategy_definitions";
+
+  /** Contents of the definitions file. */
+  record DefinitionsFile(long version, Map<String, StrategyDefinition> strategies) {}
+
+  private record Stamp(FileTime lastModified, long size) {}
+
+  private final DecisionStrategyRegistry registry;
+  private final ObjectReader reader;
+  private final Path file;
+  private final ScheduledFuture<?> pollTask;
+
+  private final LongAdder applied = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  // The file as last read, applied or not
+  private Stamp lastSeen;
+
+  public StrategyDefinitionLoader(
+      DecisionStrategyRegistry registry,
+      ObjectMapper objectMapper,
+      ResourceManager resourceManager,
+      @Value("${paynow.decision.definitions.file:}") String file,
+      @Value("${paynow.decision.definitions.poll-interval-ms:5000}") long pollIntervalMs) {
+    this.registry = registry;
+    // A misspelt key would otherwise be dropped silently rather than rejected
+    this.reader =
+        objectMapper
+            .readerFor(DefinitionsFile.class)
+            .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.file = file.isBlank() ? null : Path.of(file);
+    if (this.file == null) {
+      this.pollTask = null;
+      return;
+    }
+    // The first load runs before startup completes, so traffic never sees an older version
+    pollSafely();
+    this.pollTask =
+        resourceManager
+            .getOrCreateScheduler("strategy-definitions-loader")
+            .scheduleWithFixedDelay(
+                this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /** Reads and applies the file if it changed since the last poll; returns whether it applied. */
+  synchronized boolean poll() throws IOException {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      if (lastSeen != null) {
+        logger.warn("Strategy definitions file {} is missing, keeping the applied version", file);
+        lastSeen = null;
+      }
+      return false;
+    }
+    Stamp stamp = new Stamp(attributes.lastModifiedTime(), attributes.size());
+    if (stamp.equals(lastSeen)) {
+      return false;
+    }
+    lastSeen = stamp;
+
+    DefinitionsFile definitions;
+    try {
+      definitions = reader.readValue(file.toFile());
+      if (definitions.strategies() == null) {
+        throw new IllegalArgumentException("No 'strategies' in " + file);
+      }
+      if (!registry.update(definitions.version(), definitions.strategies())) {
+        throw new IllegalArgumentException(
+            "Version "
+                + definitions.version()
+                + " is not newer than the applied version "
+                + registry.getDefinitionsVersion());
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      rejected.increment();
+      throw e;
+    }
+    applied.increment();
+    return true;
+  }
+
+  private void pollSafely() {
+    try {
+      poll();
+    } catch (Exception e) {
+      logger.warn("Rejected strategy definitions from {}: {}", file, e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (pollTask != null) {
+      pollTask.cancel(false);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    Gauge.builder(
+            METRIC_PREFIX + ".version", registry, DecisionStrategyRegistry::getDefinitionsVersion)
+        .description("Version of the applied strategy definitions; 0 for the built-in set")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + ".loads", applied, LongAdder::sum)
+        .tag("result", "applied")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + ".loads", rejected, LongAdder::sum)
+        .tag("result", "rejected")
+        .register(meterRegistry);
+  }
+}
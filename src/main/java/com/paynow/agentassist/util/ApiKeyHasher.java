@@ -0,0 +1,38 @@
+package com.paynow.agentassist.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/** SHA-256 of an API key, Base64 encoded; the form in which keys are stored and looked up. */
+public final class ApiKeyHasher {
+
+  private static final MessageDigest SHA_256_PROTOTYPE = newSha256();
+
+  private ApiKeyHasher() {
+    // Utility class
+  }
+
+  public static String hash(String apiKey) {
+    byte[] hash = newDigest().digest(apiKey.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(hash);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      // Cloning skips the provider lookup that getInstance performs on every call
+      return (MessageDigest) SHA_256_PROTOTYPE.clone();
+    } catch (CloneNotSupportedException e) {
+      return newSha256();
+    }
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException("SHA-256 not available", e);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.paynow.agentassist.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size- and TTL-bounded in-memory cache. Keys are spread over independently locked LRU segments so
+ * concurrent lookups for different keys rarely meet on the same monitor; each segment evicts its
+ * least recently used entry once it holds more than its share of the maximum size. Expired entries
+ * are dropped lazily on lookup.
+ */
+public class BoundedTtlCache<K, V> {
+
+  private static final int SEGMENTS = 16;
+
+  private final Segment<K, V>[] segments;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public BoundedTtlCache(int maxSize, long ttl, TimeUnit unit) {
+    this(maxSize, ttl, unit, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  public BoundedTtlCache(int maxSize, long ttl, TimeUnit unit, LongSupplier nanoClock) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+    }
+    int segmentCount = Math.min(SEGMENTS, maxSize);
+    int segmentCapacity = (maxSize + segmentCount - 1) / segmentCount;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(segmentCapacity, evictions);
+    }
+    this.ttlNanos = unit.toNanos(ttl);
+    this.nanoClock = nanoClock;
+  }
+
+  public V get(K key) {
+    Segment<K, V> segment = segmentFor(key);
+    long now = nanoClock.getAsLong();
+    synchronized (segment) {
+      Entry<V> entry = segment.get(key);
+      if (entry != null) {
+        if (now - entry.expiresAtNanos < 0) {
+          hits.increment();
+          return entry.value;
+        }
+        segment.remove(key);
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  public void put(K key, V value) {
+    Segment<K, V> segment = segmentFor(key);
+    Entry<V> entry = new Entry<>(value, nanoClock.getAsLong() + ttlNanos);
+    synchronized (segment) {
+      segment.put(key, entry);
+    }
+  }
+
+  public void invalidate(K key) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      segment.remove(key);
+    }
+  }
+
+  public void invalidateAll() {
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  private Segment<K, V> segmentFor(K key) {
+    int h = key.hashCode();
+    return segments[((h ^ (h >>> 16)) & 0x7fffffff) % segments.length];
+  }
+
+  private record Entry<V>(V value, long expiresAtNanos) {}
+
+  private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+    private final int capacity;
+    private final LongAdder evictions;
+
+    private Segment(int capacity, LongAdder evictions) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+      this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+      if (size() > capacity) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -1,61 +1,121 @@
 package com.paynow.agentassist.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PreDestroy;
 
+import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Component
-public class ResourceManager {
+public class ResourceManager implements MeterBinder {
 
   private static final Logger logger = LoggerFactory.getLogger(ResourceManager.class);
 
+  /** How the shared tool pools and named executors create their threads. */
+  public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public static ExecutionMode from(String value) {
+      if (value == null || value.isBlank()) {
+        return PLATFORM;
+      }
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private final ExecutionMode executionMode;
+
   // Thread-safe collections for resource management
   private final ConcurrentHashMap<String, ExecutorService> executorServices;
-  private final ConcurrentHashMap<String, ReentrantLock> resourceLocks;
+  private final StripedLockTable resourceLocks;
   private final ConcurrentHashMap<String, AutoCloseable> managedResources;
 
   // Shared thread pools
   private final ExecutorService agentToolExecutor;
   private final ExecutorService eventProcessingExecutor;
+  private final ScheduledExecutorService retryScheduler;
+
+  private static final int DEFAULT_LOCK_STRIPES = 64;
 
   public ResourceManager() {
+    this(ExecutionMode.PLATFORM);
+  }
+
+  public ResourceManager(ExecutionMode executionMode) {
+    this(executionMode, DEFAULT_LOCK_STRIPES, false);
+  }
+
+  @Autowired
+  public ResourceManager(
+      @Value("${paynow.execution.mode:platform}") String executionMode,
+      @Value("${paynow.locks.stripes:64}") int lockStripes,
+      @Value("${paynow.locks.fair:false}") boolean fairLocks) {
+    this(ExecutionMode.from(executionMode), lockStripes, fairLocks);
+  }
+
+  public ResourceManager(ExecutionMode executionMode, int lockStripes, boolean fairLocks) {
+    this.executionMode = executionMode;
     this.executorServices = new ConcurrentHashMap<>();
-    this.resourceLocks = new ConcurrentHashMap<>();
+    this.resourceLocks = new StripedLockTable(lockStripes, fairLocks);
     this.managedResources = new ConcurrentHashMap<>();
 
-    // Initialize shared thread pools with proper naming and sizing
+    // Tool calls are blocking I/O, so in virtual mode each one gets its own virtual thread
     this.agentToolExecutor =
+        executionMode == ExecutionMode.VIRTUAL
+            ? newVirtualThreadExecutor("agent-tool-")
+            : Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors() * 2,
+                r -> {
+                  Thread t = new Thread(r, "agent-tool-" + System.currentTimeMillis());
+                  t.setDaemon(true);
+                  return t;
+                });
+
+    this.eventProcessingExecutor =
         Executors.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors() * 2,
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
             r -> {
-              Thread t = new Thread(r, "agent-tool-" + System.currentTimeMillis());
+              Thread t = new Thread(r, "event-processor-" + System.currentTimeMillis());
               t.setDaemon(true);
               return t;
             });
 
-    this.eventProcessingExecutor =
-        Executors.newFixedThreadPool(
-            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+    // Single timer thread: it only re-submits delayed retries, the work runs on the tool pools
+    this.retryScheduler =
+        Executors.newSingleThreadScheduledExecutor(
             r -> {
-              Thread t = new Thread(r, "event-processor-" + System.currentTimeMillis());
+              Thread t = new Thread(r, "agent-retry-scheduler");
               t.setDaemon(true);
               return t;
             });
 
     executorServices.put("agentToolExecutor", agentToolExecutor);
     executorServices.put("eventProcessingExecutor", eventProcessingExecutor);
+    executorServices.put("retryScheduler", retryScheduler);
 
     logger.info(
-        "ResourceManager initialized with {} CPU cores",
-        Runtime.getRuntime().availableProcessors());
+        "ResourceManager initialized with {} CPU cores in {} execution mode, {} {} lock stripes",
+        Runtime.getRuntime().availableProcessors(),
+        executionMode,
+        resourceLocks.stripeCount(),
+        fairLocks ? "fair" : "non-fair");
+  }
+
+  public ExecutionMode getExecutionMode() {
+    return executionMode;
   }
 
   public ExecutorService getAgentToolExecutor() {
@@ -66,10 +126,19 @@ public class ResourceManager {
     return eventProcessingExecutor;
   }
 
+  public ScheduledExecutorService getRetryScheduler() {
+    return retryScheduler;
+  }
+
   public ExecutorService getOrCreateExecutor(String name, int poolSize) {
     return executorServices.computeIfAbsent(
         name,
         k -> {
+          if (executionMode == ExecutionMode.VIRTUAL) {
+            // Pool size is not a concurrency bound for virtual threads
+            logger.info("Created virtual thread executor service: {}", name);
+            return newVirtualThreadExecutor(name + "-");
+          }
           ExecutorService executor =
               Executors.newFixedThreadPool(
                   poolSize,
@@ -83,13 +152,35 @@ public class ResourceManager {
         });
   }
 
+  /**
+   * Returns a named single-thread scheduler for periodic housekeeping, created on first use and
+   * shut down with the other executors.
+   */
+  public ScheduledExecutorService getOrCreateScheduler(String name) {
+    ExecutorService executor =
+        executorServices.computeIfAbsent(
+            name,
+            k -> {
+              logger.info("Created scheduler: {}", name);
+              return Executors.newSingleThreadScheduledExecutor(
+                  r -> {
+                    Thread t = new Thread(r, name);
+                    t.setDaemon(true);
+                    return t;
+                  });
+            });
+    if (!(executor instanceof ScheduledExecutorService scheduler)) {
+      throw new IllegalStateException("Executor " + name + " is not a scheduler");
+    }
+    return scheduler;
+  }
+
+  /**
+   * Returns the lock guarding {@code resourceId}. Locks are striped, so unrelated resources may
+   * share one; acquiring it directly bypasses the wait-time metrics of {@link #executeWithLock}.
+   */
   public ReentrantLock getResourceLock(String resourceId) {
-    return resourceLocks.computeIfAbsent(
-        resourceId,
-        k -> {
-          logger.debug("Created resource lock for: {}", resourceId);
-          return new ReentrantLock(true); // Fair lock
-        });
+    return resourceLocks.stripeFor(resourceId).getLock();
   }
 
   public void registerManagedResource(String resourceId, AutoCloseable resource) {
@@ -111,25 +202,30 @@ public class ResourceManager {
   }
 
   public <T> T executeWithLock(String resourceId, java.util.function.Supplier<T> operation) {
-    ReentrantLock lock = getResourceLock(resourceId);
-    lock.lock();
+    StripedLockTable.Stripe stripe = resourceLocks.stripeFor(resourceId);
+    stripe.lock();
     try {
       return operation.get();
     } finally {
-      lock.unlock();
+      stripe.unlock();
     }
   }
 
   public void executeWithLock(String resourceId, Runnable operation) {
-    ReentrantLock lock = getResourceLock(resourceId);
-    lock.lock();
+    StripedLockTable.Stripe stripe = resourceLocks.stripeFor(resourceId);
+    stripe.lock();
     try {
       operation.run();
     } finally {
-      lock.unlock();
+      stripe.unlock();
     }
   }
 
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    resourceLocks.bindTo(registry);
+  }
+
   @PreDestroy
   public void cleanup() {
     logger.info("Starting ResourceManager cleanup...");
@@ -142,12 +238,13 @@ public class ResourceManager {
     executorServices.forEach(this::shutdownExecutorSafely);
     executorServices.clear();
 
-    // Clear locks
-    resourceLocks.clear();
-
     logger.info("ResourceManager cleanup completed");
   }
 
+  private static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+  }
+
   private void closeResourceSafely(String resourceId, AutoCloseable resource) {
     try {
       resource.close();
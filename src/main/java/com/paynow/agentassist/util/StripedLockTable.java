@@ -0,0 +1,104 @@
+package com.paynow.agentassist.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size table of locks shared by resource IDs that hash to the same stripe. Memory stays
+ * constant no matter how many distinct IDs are locked, at the cost of unrelated IDs occasionally
+ * sharing a stripe. Each stripe tracks acquisitions, contended acquisitions and time spent waiting.
+ */
+public class StripedLockTable implements MeterBinder {
+
+  static final String METRIC_LOCK_WAIT = "resource_lock.wait";
+  static final String METRIC_LOCK_CONTENDED = "resource_lock.contended";
+
+  private final Stripe[] stripes;
+  private final int mask;
+
+  public StripedLockTable(int stripeCount, boolean fair) {
+    if (stripeCount <= 0) {
+      throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+    }
+    int size = Integer.highestOneBit(stripeCount);
+    if (size < stripeCount) {
+      size <<= 1;
+    }
+    this.stripes = new Stripe[size];
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe(fair);
+    }
+  }
+
+  public Stripe stripeFor(String resourceId) {
+    int h = resourceId.hashCode();
+    return stripes[(h ^ (h >>> 16)) & mask];
+  }
+
+  public int stripeCount() {
+    return stripes.length;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (int i = 0; i < stripes.length; i++) {
+      Stripe stripe = stripes[i];
+      String index = String.valueOf(i);
+      FunctionTimer.builder(
+              METRIC_LOCK_WAIT,
+              stripe,
+              s -> s.acquisitions.sum(),
+              s -> s.waitNanos.sum(),
+              TimeUnit.NANOSECONDS)
+          .tag("stripe", index)
+          .description("Resource lock acquisitions and time spent waiting for them")
+          .register(registry);
+      FunctionCounter.builder(METRIC_LOCK_CONTENDED, stripe, s -> s.contended.sum())
+          .tag("stripe", index)
+          .description("Resource lock acquisitions that had to wait for another holder")
+          .register(registry);
+    }
+  }
+
+  /** One lock of the table plus its contention statistics. */
+  public static final class Stripe {
+
+    private final ReentrantLock lock;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    private Stripe(boolean fair) {
+      this.lock = new ReentrantLock(fair);
+    }
+
+    public void lock() {
+      // tryLock() barges past queued threads, so a fair lock only takes it when nobody waits
+      if ((!lock.isFair() || !lock.hasQueuedThreads()) && lock.tryLock()) {
+        acquisitions.increment();
+        return;
+      }
+
+      long start = System.nanoTime();
+      lock.lock();
+      waitNanos.add(System.nanoTime() - start);
+      contended.increment();
+      acquisitions.increment();
+    }
+
+    public void unlock() {
+      lock.unlock();
+    }
+
+    public ReentrantLock getLock() {
+      return lock;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.paynow.agentassist.util;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event and reports virtual threads that blocked
+ * while pinned to their carrier. Each pin is counted under the application class nearest the top
+ * of its stack, which is the one holding the monitor in practice (for example the {@code
+ * synchronized} segments of {@link BoundedTtlCache}), or under {@code other} if there is none.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final String APPLICATION_PACKAGE = "com.paynow.agentassist.";
+  private static final String OTHER_SOURCE = "other";
+  private static final int LOGGED_FRAMES = 8;
+
+  private final RecordingStream recordingStream;
+  private final Meter.MeterProvider<Counter> pins;
+
+  public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+    this.pins =
+        Counter.builder(ApiConstants.METRIC_VIRTUAL_THREAD_PINNED)
+            .description("Virtual threads blocked while pinned to a carrier thread")
+            .withRegistry(meterRegistry);
+
+    this.recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    recordingStream.startAsync();
+
+    logger.info("Virtual thread pinning monitor started with threshold {} ms", threshold.toMillis());
+  }
+
+  private void onPinned(RecordedEvent event) {
+    RecordedStackTrace stackTrace = event.getStackTrace();
+    List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+
+    String source =
+        frames.stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .map(frame -> frame.getMethod().getType().getName())
+            .filter(type -> type.startsWith(APPLICATION_PACKAGE))
+            .findFirst()
+            .map(VirtualThreadPinningMonitor::simpleName)
+            .orElse(OTHER_SOURCE);
+    pins.withTag("source", source).increment();
+
+    logger.warn(
+        "Virtual thread pinned for {} ms in {}: {}",
+        event.getDuration().toMillis(),
+        source,
+        frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName())
+            .collect(Collectors.joining(" <- ")));
+  }
+
+  // Nested and lambda classes are attributed to their outermost class
+  private static String simpleName(String className) {
+    String simple = className.substring(className.lastIndexOf('.') + 1);
+    int nested = simple.indexOf('$');
+    return nested > 0 ? simple.substring(0, nested) : simple;
+  }
+
+  @Override
+  public void close() {
+    recordingStream.close();
+    logger.info("Virtual thread pinning monitor stopped");
+  }
+}
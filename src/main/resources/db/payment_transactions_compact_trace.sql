@@ -0,0 +1,14 @@
+-- Compact columns for PaymentTransaction: the agent trace as codec-encoded bytes and the decision
+-- reasons as a bit mask. ddl-auto creates them for a new schema; run this once against a schema
+-- managed any other way (the prod profile only validates), before deploying.
+--
+-- The agent_trace and reasons TEXT columns are now NULL for rows written in compact form. They
+-- still hold JSON for rows written before this change or in the json format, and for values the
+-- compact form cannot represent (unknown reasons, oversized traces); each column falls back on
+-- its own. Anything reading these columns outside the application must handle both forms.
+
+-- H2
+ALTER TABLE payment_transactions ADD (agent_trace_data VARBINARY(2048), reason_mask BIGINT);
+
+-- PostgreSQL: use this instead of the H2 statement above
+-- ALTER TABLE payment_transactions ADD agent_trace_data BYTEA, ADD reason_mask BIGINT;
@@ -0,0 +1,16 @@
+-- Sequence behind PaymentTransaction ids. Ids were IDENTITY values; the pooled sequence lets
+-- Hibernate batch inserts. ddl-auto creates it for a new schema; run this once against a schema
+-- managed any other way, before deploying.
+--
+-- Hibernate reserves 50 ids per call (allocationSize), taking the value returned as the highest
+-- id of the block, so the sequence must start at least 50 above the largest existing id.
+
+CREATE SEQUENCE IF NOT EXISTS payment_transactions_seq START WITH 1 INCREMENT BY 50;
+
+-- H2
+ALTER SEQUENCE payment_transactions_seq
+  RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM payment_transactions);
+
+-- PostgreSQL: use this instead of the H2 statement above
+-- SELECT setval('payment_transactions_seq',
+--   (SELECT COALESCE(MAX(id), 0) + 50 FROM payment_transactions), false);
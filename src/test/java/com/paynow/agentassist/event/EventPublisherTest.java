@@ -0,0 +1,297 @@
+package com.paynow.agentassist.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Event Publisher Tests")
+class EventPublisherTest {
+
+  @TempDir Path spillDir;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+  private final CountDownLatch consumerHeld = new CountDownLatch(1);
+  private final CountDownLatch releaseConsumer = new CountDownLatch(1);
+
+  private PaymentEventLog eventLog;
+  private ResourceManager resourceManager;
+  private MeterRegistry meterRegistry;
+  private EventPublisher publisher;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    // The log records the delivery order; the first append can be held to keep the ring full
+    eventLog = mock(PaymentEventLog.class);
+    when(eventLog.isEnabled()).thenReturn(true);
+    AtomicLong offsets = new AtomicLong();
+    when(eventLog.append(anyInt(), any(byte[].class), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              byte[] payload = invocation.getArgument(1);
+              int off = invocation.getArgument(2);
+              int len = invocation.getArgument(3);
+              PaymentDecisionEvent event =
+                  objectMapper.readValue(payload, off, len, PaymentDecisionEvent.class);
+              if (consumerHeld.getCount() > 0) {
+                consumerHeld.countDown();
+                releaseConsumer.await(5, TimeUnit.SECONDS);
+              }
+              delivered.add(event.eventId());
+              return offsets.getAndIncrement();
+            });
+    resourceManager = new ResourceManager();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseConsumer.countDown();
+    if (publisher != null) {
+      publisher.shutdown();
+    }
+    resourceManager.cleanup();
+  }
+
+  @Test
+  @DisplayName("Should make producers wait for space with the block policy")
+  void shouldBlockWhenFull() throws Exception {
+    // Given
+    publisher = publisher(1, 2, "block");
+    fillRing();
+
+    // When
+    ExecutorService producer = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> blocked = producer.submit(() -> publisher.publishPaymentDecision(event("e4")));
+      assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+      releaseConsumer.countDown();
+      blocked.get(5, TimeUnit.SECONDS);
+    } finally {
+      producer.shutdownNow();
+    }
+
+    // Then
+    awaitDelivered(4);
+    assertEquals(List.of("e1", "e2", "e3", "e4"), delivered);
+    assertEquals(0.0, events("dropped"));
+  }
+
+  @Test
+  @DisplayName("Should evict the oldest queued events with the drop-oldest policy")
+  void shouldDropOldestWhenFull() throws Exception {
+    // Given
+    publisher = publisher(1, 2, "drop-oldest");
+    fillRing();
+
+    // When
+    publisher.publishPaymentDecision(event("e4"));
+    publisher.publishPaymentDecision(event("e5"));
+    releaseConsumer.countDown();
+
+    // Then
+    awaitDelivered(3);
+    assertEquals(List.of("e1", "e4", "e5"), delivered);
+    assertEquals(2.0, events("dropped"));
+  }
+
+  @Test
+  @DisplayName("Should spill overflow to disk and replay it in order once the ring drains")
+  void shouldSpillAndReplayInOrder() throws Exception {
+    // Given
+    publisher = publisher(1, 2, "spill");
+    fillRing();
+
+    // When
+    publisher.publishPaymentDecision(event("e4"));
+    publisher.publishPaymentDecision(event("e5"));
+    publisher.publishPaymentDecision(event("e6"));
+    Path spillFile = spillDir.resolve("partition-0.jsonl");
+    assertEquals(3, Files.readAllLines(spillFile).size());
+    releaseConsumer.countDown();
+
+    // Then
+    awaitDelivered(6);
+    assertEquals(List.of("e1", "e2", "e3", "e4", "e5", "e6"), delivered);
+    assertEquals(3.0, events("spilled"));
+    assertFalse(Files.exists(spillFile));
+  }
+
+  @Test
+  @DisplayName("Should replay a spill file left by a previous run on startup")
+  void shouldReplaySpillFileOnStartup() throws Exception {
+    // Given
+    releaseConsumer.countDown();
+    Path spillFile = spillDir.resolve("partition-0.jsonl");
+    Files.writeString(
+        spillFile,
+        objectMapper.writeValueAsString(event("old-1"))
+            + "\n{\"eventId\": \"torn"
+            + "\n"
+            + objectMapper.writeValueAsString(event("old-2"))
+            + "\n");
+
+    // When
+    publisher = publisher(1, 8, "spill");
+    publisher.publishPaymentDecision(event("new-1"));
+
+    // Then - the unreadable line is skipped rather than wedging the partition
+    awaitDelivered(3);
+    assertEquals(List.of("old-1", "old-2", "new-1"), delivered);
+    assertEquals(1.0, events("failed"));
+    assertFalse(Files.exists(spillFile));
+  }
+
+  @Test
+  @DisplayName("Should deliver each customer's events in publish order")
+  void shouldKeepPerCustomerOrder() throws Exception {
+    // Given
+    releaseConsumer.countDown();
+    publisher = publisher(4, 16, "block");
+    List<String> customers = List.of("c_1", "c_2", "c_3", "c_4", "c_5", "c_6");
+
+    // When - one producer per customer, all publishing concurrently
+    ExecutorService producers = Executors.newFixedThreadPool(customers.size());
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (String customer : customers) {
+        futures.add(
+            producers.submit(
+                () -> {
+                  for (int i = 0; i < 50; i++) {
+                    publisher.publishPaymentDecision(event(customer + ":" + i, customer));
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      producers.shutdownNow();
+    }
+
+    // Then
+    awaitDelivered(customers.size() * 50);
+    Map<String, List<Integer>> byCustomer =
+        delivered.stream()
+            .map(id -> id.split(":"))
+            .collect(
+                Collectors.groupingBy(
+                    parts -> parts[0],
+                    Collectors.mapping(parts -> Integer.parseInt(parts[1]), Collectors.toList())));
+    for (String customer : customers) {
+      List<Integer> sequence = byCustomer.get(customer);
+      assertEquals(50, sequence.size());
+      for (int i = 0; i < sequence.size(); i++) {
+        assertEquals(i, sequence.get(i), "out of order for " + customer);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should deliver queued events on shutdown and drop later ones")
+  void shouldDrainOnShutdown() {
+    // Given
+    releaseConsumer.countDown();
+    publisher = publisher(2, 64, "block");
+    for (int i = 0; i < 40; i++) {
+      publisher.publishPaymentDecision(event("e" + i, "c_" + (i % 5)));
+    }
+
+    // When
+    publisher.shutdown();
+    publisher.publishPaymentDecision(event("late"));
+
+    // Then
+    assertEquals(40, delivered.size());
+    assertEquals(40.0, events("published"));
+    assertEquals(1.0, events("dropped"));
+    assertEquals(0, publisher.getQueueSize());
+  }
+
+  private EventPublisher publisher(int partitions, int capacity, String overflow) {
+    EventPublisher created =
+        new EventPublisher(
+            objectMapper,
+            resourceManager,
+            eventLog,
+            partitions,
+            capacity,
+            1,
+            overflow,
+            spillDir.toString());
+    created.bindTo(meterRegistry);
+    return created;
+  }
+
+  // The consumer holds e1 while e2 and e3 fill a two-slot ring
+  private void fillRing() throws InterruptedException {
+    publisher.publishPaymentDecision(event("e1"));
+    assertTrue(consumerHeld.await(5, TimeUnit.SECONDS));
+    publisher.publishPaymentDecision(event("e2"));
+    publisher.publishPaymentDecision(event("e3"));
+    assertEquals(2, publisher.getQueueSize());
+  }
+
+  private void awaitDelivered(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (delivered.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(count, delivered.size());
+  }
+
+  private double events(String result) {
+    return meterRegistry
+        .get("event_pipeline.events")
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  private static PaymentDecisionEvent event(String eventId) {
+    return event(eventId, "c_test_001");
+  }
+
+  private static PaymentDecisionEvent event(String eventId, String customerId) {
+    return new PaymentDecisionEvent(
+        eventId,
+        customerId,
+        new BigDecimal("100.00"),
+        "USD",
+        "p_test_001",
+        PaymentDecision.ALLOW,
+        List.of(),
+        "req_" + eventId,
+        "key-" + eventId);
+  }
+}
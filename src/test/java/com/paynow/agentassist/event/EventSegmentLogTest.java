@@ -0,0 +1,148 @@
+package com.paynow.agentassist.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Event Segment Log Tests")
+class EventSegmentLogTest {
+
+  private static final int SEGMENT_BYTES = 64;
+
+  @TempDir Path directory;
+
+  @Test
+  @DisplayName("Should assign sequential offsets and read records back")
+  void shouldAssignSequentialOffsetsAndReadBack() throws IOException {
+    // Given
+    EventSegmentLog log = new EventSegmentLog(directory, 1024, 4);
+
+    // When
+    long first = append(log, "alpha");
+    long second = append(log, "beta");
+    long third = append(log, "gamma");
+    log.commit();
+
+    // Then
+    assertEquals(List.of(0L, 1L, 2L), List.of(first, second, third));
+    assertEquals(3L, log.endOffset());
+    assertEquals(List.of("beta", "gamma"), payloads(log.reader(1L).poll(10)));
+  }
+
+  @Test
+  @DisplayName("Should tail records appended after the reader caught up")
+  void shouldTailNewRecords() throws IOException {
+    // Given
+    EventSegmentLog log = new EventSegmentLog(directory, SEGMENT_BYTES, 8);
+    EventSegmentLog.Reader reader = log.reader(0L);
+    append(log, "one");
+
+    // When
+    List<EventSegmentLog.Record> firstPoll = reader.poll(10);
+    List<EventSegmentLog.Record> caughtUp = reader.poll(10);
+    for (int i = 0; i < 10; i++) {
+      append(log, "record-" + i); // 20-byte frames roll the 64-byte segments
+    }
+    List<EventSegmentLog.Record> tail = reader.poll(100);
+
+    // Then
+    assertEquals(List.of("one"), payloads(firstPoll));
+    assertTrue(caughtUp.isEmpty());
+    assertEquals(10, tail.size());
+    assertEquals(1L, tail.get(0).offset());
+    assertEquals("record-9", payloads(tail).get(9));
+    assertEquals(11L, reader.position());
+    assertTrue(log.segmentCount() > 1);
+  }
+
+  @Test
+  @DisplayName("Should roll segments and delete the oldest beyond retention")
+  void shouldRollAndApplyRetention() throws IOException {
+    // Given
+    EventSegmentLog log = new EventSegmentLog(directory, SEGMENT_BYTES, 2);
+    EventSegmentLog.Reader laggingReader = log.reader(0L);
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      append(log, "record-" + (char) ('a' + i));
+    }
+
+    // Then
+    assertEquals(2, log.segmentCount());
+    assertEquals(2, countSegmentFiles());
+    assertTrue(log.startOffset() > 0L);
+    List<EventSegmentLog.Record> records = laggingReader.poll(100);
+    assertEquals(log.startOffset(), records.get(0).offset());
+    assertEquals(20L, records.get(records.size() - 1).offset() + 1);
+  }
+
+  @Test
+  @DisplayName("Should recover offsets on reopen and drop a torn trailing record")
+  void shouldRecoverAndDropTornRecord() throws IOException {
+    // Given
+    EventSegmentLog log = new EventSegmentLog(directory, 1024, 4);
+    append(log, "kept-1");
+    append(log, "kept-2");
+    append(log, "torn");
+    log.close();
+    corruptLastPayloadByte("torn");
+
+    // When
+    EventSegmentLog reopened = new EventSegmentLog(directory, 1024, 4);
+    long next = append(reopened, "after-restart");
+
+    // Then
+    assertEquals(2L, next);
+    assertEquals(
+        List.of("kept-1", "kept-2", "after-restart"), payloads(reopened.reader(0L).poll(10)));
+  }
+
+  @Test
+  @DisplayName("Should reject records larger than a segment")
+  void shouldRejectOversizedRecords() throws IOException {
+    EventSegmentLog log = new EventSegmentLog(directory, SEGMENT_BYTES, 2);
+
+    assertThrows(IllegalArgumentException.class, () -> log.append(new byte[SEGMENT_BYTES], 0, 60));
+  }
+
+  private static long append(EventSegmentLog log, String payload) throws IOException {
+    byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+    return log.append(bytes, 0, bytes.length);
+  }
+
+  private static List<String> payloads(List<EventSegmentLog.Record> records) {
+    return records.stream()
+        .map(record -> new String(record.payload(), StandardCharsets.UTF_8))
+        .toList();
+  }
+
+  private long countSegmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(f -> f.toString().endsWith(".log")).count();
+    }
+  }
+
+  private void corruptLastPayloadByte(String payload) throws IOException {
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(f -> f.toString().endsWith(".log")).findFirst().orElseThrow();
+    }
+    byte[] content = Files.readAllBytes(segment);
+    int index = new String(content, StandardCharsets.ISO_8859_1).indexOf(payload);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {'X'}), index + payload.length() - 1);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.paynow.agentassist.interceptor;
+
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Customer ID MDC Advice Tests")
+class CustomerIdMdcAdviceTest {
+
+  private final CustomerIdMdcAdvice advice = new CustomerIdMdcAdvice();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should only advise payment decision request bodies")
+  void shouldSupportPaymentDecisionRequests() {
+    assertTrue(
+        advice.supports(
+            null, PaymentDecisionRequest.class, MappingJackson2HttpMessageConverter.class));
+    assertFalse(advice.supports(null, String.class, MappingJackson2HttpMessageConverter.class));
+  }
+
+  @Test
+  @DisplayName("Should put the masked customer ID of the bound request into the MDC")
+  void shouldPutMaskedCustomerId() {
+    PaymentDecisionRequest request =
+        new PaymentDecisionRequest(
+            "c_customer_001", new BigDecimal("150.00"), "USD", "p_test_001", "key-0000001");
+
+    Object body =
+        advice.afterBodyRead(
+            request,
+            null,
+            null,
+            PaymentDecisionRequest.class,
+            MappingJackson2HttpMessageConverter.class);
+
+    assertSame(request, body);
+    assertEquals("c_c***01", MDC.get("customerId"));
+  }
+
+  @Test
+  @DisplayName("Should leave the MDC alone when the request has no customer ID")
+  void shouldSkipMissingCustomerId() {
+    PaymentDecisionRequest request =
+        new PaymentDecisionRequest(
+            null, new BigDecimal("150.00"), "USD", "p_test_001", "key-0000001");
+
+    advice.afterBodyRead(
+        request,
+        null,
+        null,
+        PaymentDecisionRequest.class,
+        MappingJackson2HttpMessageConverter.class);
+
+    assertNull(MDC.get("customerId"));
+  }
+}
@@ -0,0 +1,132 @@
+package com.paynow.agentassist.interceptor;
+
+import com.paynow.agentassist.service.MetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HTTP Route Meters Tests")
+class HttpRouteMetersTest {
+
+  private MeterRegistry registry;
+  private HttpRouteMeters meters;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    meters = new HttpRouteMeters(registry, 2);
+    meters.registerRoute("/api/v1/payments/decide", List.of("POST"));
+  }
+
+  @Test
+  @DisplayName("Should pre-register meters for declared routes")
+  void shouldPreRegisterDeclaredRoutes() {
+    assertNotNull(
+        registry
+            .find("api_requests_total")
+            .tags("endpoint", "/api/v1/payments/decide", "method", "POST")
+            .counter());
+    assertNotNull(
+        registry
+            .find("request_duration")
+            .tags("endpoint", "/api/v1/payments/decide", "method", "POST", "status", "200")
+            .timer());
+  }
+
+  @Test
+  @DisplayName("Should tag unknown paths, methods and statuses as other")
+  void shouldBucketUnknownValuesAsOther() {
+    for (int i = 0; i < 100; i++) {
+      int slot = meters.slot("/api/v1/scan/" + i, "PROPFIND");
+      meters.recordRequest(slot);
+      meters.recordDuration(slot, 299 + i, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    meters.recordRequest(meters.slot(null, "GET"));
+
+    assertEquals(
+        100,
+        registry
+            .get("api_requests_total")
+            .tags("endpoint", "other", "method", "other")
+            .counter()
+            .count());
+    assertEquals(
+        1,
+        registry
+            .get("api_requests_total")
+            .tags("endpoint", "other", "method", "GET")
+            .counter()
+            .count());
+    assertEquals(
+        100,
+        registry
+            .get("request_duration")
+            .tags("endpoint", "other", "method", "other", "status", "other")
+            .timer()
+            .count());
+    assertEquals(2, registry.get("request_duration").timers().size());
+  }
+
+  @Test
+  @DisplayName("Should reuse the cached meter for a slot")
+  void shouldReuseCachedMeters() {
+    int slot = meters.slot("/api/v1/payments/decide", "POST");
+
+    meters.recordRequest(slot);
+    meters.recordRequest(slot);
+    meters.recordDuration(slot, 429, 1_000);
+
+    assertEquals("/api/v1/payments/decide", meters.route(slot));
+    assertEquals(
+        2,
+        registry
+            .get("api_requests_total")
+            .tags("endpoint", "/api/v1/payments/decide")
+            .counter()
+            .count());
+    assertEquals(
+        1,
+        registry
+            .get("request_duration")
+            .tags("endpoint", "/api/v1/payments/decide", "status", "429")
+            .timer()
+            .count());
+  }
+
+  @Test
+  @DisplayName("Should cap the number of tagged routes")
+  void shouldCapRoutes() {
+    meters.registerRoute("/api/v1/metrics", List.of("GET"));
+    meters.registerRoute("/api/v1/extra", List.of("GET"));
+
+    assertEquals(2, meters.routeCount());
+    assertEquals("other", meters.route(meters.slot("/api/v1/extra", "GET")));
+    assertEquals("/api/v1/metrics", meters.route(meters.slot("/api/v1/metrics", "GET")));
+  }
+
+  @Test
+  @DisplayName("Should export alongside the service request counter without a name clash")
+  void shouldExportAlongsideServiceRequestCounter() {
+    PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    new MetricsService(prometheus).incrementRequestCounter();
+    HttpRouteMeters routeMeters = new HttpRouteMeters(prometheus, 2);
+    routeMeters.registerRoute("/api/v1/payments/decide", List.of("POST"));
+
+    routeMeters.recordRequest(routeMeters.slot("/api/v1/payments/decide", "POST"));
+
+    String scrape = prometheus.scrape();
+    assertTrue(scrape.contains("payment_requests_total 1.0"));
+    assertTrue(
+        scrape.contains(
+            "api_requests_total{endpoint=\"/api/v1/payments/decide\",method=\"POST\",} 1.0"));
+  }
+}
@@ -0,0 +1,58 @@
+package com.paynow.agentassist.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Performance Interceptor Tests")
+class PerformanceInterceptorTest {
+
+  private final PerformanceInterceptor interceptor =
+      new PerformanceInterceptor(new SimpleMeterRegistry(), 8);
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should clear the request's MDC entries, including the customer ID, on completion")
+  void shouldClearMdcOnCompletion() throws Exception {
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("POST", "/api/v1/payments/decide");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    interceptor.preHandle(request, response, new Object());
+    // Set by CustomerIdMdcAdvice once the body is bound
+    MDC.put("customerId", "c_c***01");
+    assertNotNull(MDC.get("requestId"));
+
+    interceptor.afterCompletion(request, response, new Object(), null);
+
+    assertNull(MDC.get("customerId"));
+    assertNull(MDC.get("requestId"));
+    assertNull(MDC.getCopyOfContextMap());
+  }
+
+  @Test
+  @DisplayName("Should clear the MDC even when the handler failed")
+  void shouldClearMdcWhenHandlerFailed() throws Exception {
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("POST", "/api/v1/payments/decide");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.setStatus(500);
+
+    interceptor.preHandle(request, response, new Object());
+    MDC.put("customerId", "c_c***01");
+    interceptor.afterCompletion(
+        request, response, new Object(), new IllegalStateException("handler failed"));
+
+    assertNull(MDC.get("customerId"));
+  }
+}
@@ -0,0 +1,208 @@
+package com.paynow.agentassist.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paynow.agentassist.service.RateLimitingService;
+import com.paynow.agentassist.service.ratelimit.LocalRateLimiterBackend;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Early Rate Limit Filter Tests")
+class EarlyRateLimitFilterTest {
+
+  private static final String BODY =
+      "{\"customerId\":\"c_early\",\"amount\":10.00,\"currency\":\"USD\","
+          + "\"payeeId\":\"p_early\",\"idempotencyKey\":\"early-key-0001\"}";
+
+  private RateLimitingService rateLimitingService;
+  private EarlyRateLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    rateLimitingService =
+        new RateLimitingService(new LocalRateLimiterBackend(), 1, 2, 50, 100, 200, 400);
+    filter = new EarlyRateLimitFilter(rateLimitingService, new ObjectMapper().findAndRegisterModules(), 1024);
+  }
+
+  @Test
+  @DisplayName("Should reject with 429 before the body reaches the controller")
+  void shouldRejectBeforeBinding() throws Exception {
+    assertEquals(200, send(BODY).response().getStatus());
+    assertEquals(200, send(BODY).response().getStatus());
+
+    Exchange rejected = send(BODY);
+
+    assertEquals(429, rejected.response().getStatus());
+    assertEquals("1", rejected.response().getHeader("Retry-After"));
+    assertTrue(rejected.response().getContentAsString().contains("RATE_LIMIT_EXCEEDED"));
+    assertNull(rejected.chain().getRequest(), "chain must not be invoked");
+  }
+
+  @Test
+  @DisplayName("Should replay the scanned bytes and mark the checked keys")
+  void shouldReplayBodyAndMarkCheckedKeys() throws Exception {
+    Exchange exchange = send(BODY);
+
+    String replayed =
+        StreamUtils.copyToString(
+            exchange.chain().getRequest().getInputStream(), StandardCharsets.UTF_8);
+    assertEquals(BODY, replayed);
+    assertEquals(
+        new EarlyRateLimitFilter.Checked("c_early", "p_early"),
+        exchange.chain().getRequest().getAttribute(EarlyRateLimitFilter.CHECKED_ATTRIBUTE));
+    assertEquals(1, rateLimitingService.getAvailableTokens("c_early"));
+  }
+
+  @Test
+  @DisplayName("Should defer to the controller when keys are beyond the scanned prefix")
+  void shouldDeferWhenKeysAreNotInPrefix() throws Exception {
+    filter = new EarlyRateLimitFilter(rateLimitingService, new ObjectMapper().findAndRegisterModules(), 16);
+
+    Exchange exchange = send(BODY);
+
+    assertEquals(
+        BODY,
+        StreamUtils.copyToString(
+            exchange.chain().getRequest().getInputStream(), StandardCharsets.UTF_8));
+    assertNull(exchange.chain().getRequest().getAttribute(EarlyRateLimitFilter.CHECKED_ATTRIBUTE));
+    assertEquals(2, rateLimitingService.getAvailableTokens("c_early"));
+  }
+
+  @Test
+  @DisplayName("Should ignore nested keys and malformed bodies")
+  void shouldIgnoreNestedKeysAndMalformedBodies() throws Exception {
+    String nested = "{\"meta\":{\"customerId\":\"c_x\",\"payeeId\":\"p_x\"},\"amount\":1}";
+
+    assertNull(
+        send(nested).chain().getRequest().getAttribute(EarlyRateLimitFilter.CHECKED_ATTRIBUTE));
+    assertNull(
+        send("{\"customerId\":").chain().getRequest()
+            .getAttribute(EarlyRateLimitFilter.CHECKED_ATTRIBUTE));
+    assertEquals(2, rateLimitingService.getAvailableTokens("c_x"));
+  }
+
+  @Test
+  @DisplayName("Should only filter payment decisions")
+  void shouldOnlyFilterPaymentDecisions() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/metrics");
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertSame(request, chain.getRequest());
+  }
+
+  @Test
+  @DisplayName("Should replay the scanned bytes to an asynchronous reader before the rest")
+  void shouldReplayBodyToReadListener() throws Exception {
+    filter = new EarlyRateLimitFilter(rateLimitingService, new ObjectMapper().findAndRegisterModules(), 16);
+    AsyncBody original = new AsyncBody(BODY.getBytes(StandardCharsets.UTF_8));
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("POST", EarlyRateLimitFilter.DECIDE_PATH);
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(
+        new HttpServletRequestWrapper(request) {
+          @Override
+          public ServletInputStream getInputStream() {
+            return original;
+          }
+        },
+        new MockHttpServletResponse(),
+        chain);
+
+    ServletInputStream replayed = chain.getRequest().getInputStream();
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    boolean[] allRead = new boolean[1];
+    replayed.setReadListener(
+        new ReadListener() {
+          @Override
+          public void onDataAvailable() throws IOException {
+            byte[] buffer = new byte[8];
+            int n;
+            while (replayed.isReady() && (n = replayed.read(buffer)) != -1) {
+              read.write(buffer, 0, n);
+            }
+          }
+
+          @Override
+          public void onAllDataRead() {
+            allRead[0] = true;
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            fail(t);
+          }
+        });
+
+    // The prefix is delivered on registration, the container signals the rest
+    assertEquals(16, read.size());
+    assertNotNull(original.listener, "listener must be registered on the original stream");
+    original.available = true;
+    original.listener.onDataAvailable();
+    original.listener.onAllDataRead();
+
+    assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+    assertTrue(allRead[0]);
+    assertTrue(replayed.isFinished());
+  }
+
+  private Exchange send(String body) throws Exception {
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("POST", EarlyRateLimitFilter.DECIDE_PATH);
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+    return new Exchange(response, chain);
+  }
+
+  private record Exchange(MockHttpServletResponse response, MockFilterChain chain) {}
+
+  /** A body whose data the test makes available, like a container reading from the network. */
+  private static final class AsyncBody extends ServletInputStream {
+    private final ByteArrayInputStream bytes;
+    private ReadListener listener;
+    private boolean available;
+
+    AsyncBody(byte[] body) {
+      this.bytes = new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public int read() {
+      return bytes.read();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return bytes.available() == 0;
+    }
+
+    // Ready for the synchronous scan, then only once the test signals more data
+    @Override
+    public boolean isReady() {
+      return listener == null || available;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      this.listener = readListener;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.paynow.agentassist.service;
+
+import com.paynow.agentassist.entity.ApiKeyEntity;
+import com.paynow.agentassist.repository.ApiKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("API Key Service Tests")
+class ApiKeyServiceTest {
+
+  @Mock private ApiKeyRepository apiKeyRepository;
+  @Mock private ApiKeyUsageTracker usageTracker;
+
+  private ApiKeyService apiKeyService;
+  private ApiKeyEntity activeKey;
+
+  @BeforeEach
+  void setUp() {
+    apiKeyService = new ApiKeyService(apiKeyRepository, usageTracker);
+
+    activeKey = new ApiKeyEntity();
+    activeKey.setId(7L);
+    activeKey.setUserId("user7");
+    activeKey.setActive(true);
+  }
+
+  @Test
+  @DisplayName("Should answer repeated authentications from the principal cache")
+  void shouldCachePrincipals() {
+    // Given
+    when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString()))
+        .thenReturn(Optional.of(activeKey));
+
+    // When
+    Optional<ApiKeyService.ApiKeyPrincipal> first = apiKeyService.authenticate("pn_cached");
+    Optional<ApiKeyService.ApiKeyPrincipal> second = apiKeyService.authenticate("pn_cached");
+
+    // Then
+    assertEquals(Optional.of(new ApiKeyService.ApiKeyPrincipal(7L, "user7")), first);
+    assertEquals(first, second);
+    verify(apiKeyRepository, times(1)).findByKeyHashAndActiveTrue(anyString());
+    verify(usageTracker, times(2)).record(7L);
+  }
+
+  @Test
+  @DisplayName("Should negatively cache unknown keys")
+  void shouldNegativelyCacheUnknownKeys() {
+    // Given
+    when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString())).thenReturn(Optional.empty());
+
+    // When
+    boolean first = apiKeyService.validateApiKey("pn_unknown");
+    boolean second = apiKeyService.validateApiKey("pn_unknown");
+
+    // Then
+    assertFalse(first);
+    assertFalse(second);
+    verify(apiKeyRepository, times(1)).findByKeyHashAndActiveTrue(anyString());
+    verifyNoInteractions(usageTracker);
+  }
+
+  @Test
+  @DisplayName("Should accept a key created after it was negatively cached")
+  void shouldClearNegativeEntryOnCreate() {
+    // Given
+    when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString()))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(activeKey));
+    assertFalse(apiKeyService.validateApiKey("pn_late"));
+
+    // When
+    apiKeyService.createApiKey("pn_late", "user7", "late", null);
+
+    // Then
+    assertTrue(apiKeyService.validateApiKey("pn_late"));
+    verify(apiKeyRepository).save(any(ApiKeyEntity.class));
+  }
+
+  @Test
+  @DisplayName("Should stop authenticating a key once it is deactivated")
+  void shouldEvictDeactivatedKeys() {
+    // Given
+    ArgumentCaptor<String> keyHash = ArgumentCaptor.forClass(String.class);
+    when(apiKeyRepository.findByKeyHashAndActiveTrue(keyHash.capture()))
+        .thenReturn(Optional.of(activeKey))
+        .thenReturn(Optional.empty());
+    assertTrue(apiKeyService.authenticate("pn_revoked").isPresent());
+    activeKey.setKeyHash(keyHash.getValue());
+    when(apiKeyRepository.findById(7L)).thenReturn(Optional.of(activeKey));
+
+    // When
+    apiKeyService.deactivateApiKey(7L, "user7");
+
+    // Then
+    assertFalse(activeKey.isActive());
+    assertTrue(apiKeyService.authenticate("pn_revoked").isEmpty());
+    verify(apiKeyRepository, times(2)).findByKeyHashAndActiveTrue(anyString());
+  }
+}
@@ -0,0 +1,103 @@
+package com.paynow.agentassist.service;
+
+import com.paynow.agentassist.repository.ApiKeyRepository;
+import com.paynow.agentassist.util.ResourceManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("API Key Usage Tracker Tests")
+class ApiKeyUsageTrackerTest {
+
+  @Mock private ApiKeyRepository apiKeyRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private ResourceManager resourceManager;
+  private ApiKeyUsageTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    resourceManager = new ResourceManager();
+    // Long interval so only explicit flushes run during the test
+    tracker =
+        new ApiKeyUsageTracker(apiKeyRepository, transactionManager, resourceManager, 60_000);
+  }
+
+  @AfterEach
+  void tearDown() {
+    resourceManager.cleanup();
+  }
+
+  @Test
+  @DisplayName("Should aggregate usage per key into one update per flush")
+  void shouldAggregateUsagePerKey() {
+    // Given
+    tracker.record(1L);
+    tracker.record(1L);
+    tracker.record(1L);
+    tracker.record(2L);
+
+    // When
+    int updatedKeys = tracker.flush();
+
+    // Then
+    assertEquals(2, updatedKeys);
+    assertEquals(0L, tracker.getPendingCount());
+    verify(apiKeyRepository).addUsageStats(eq(1L), eq(3L), any(LocalDateTime.class));
+    verify(apiKeyRepository).addUsageStats(eq(2L), eq(1L), any(LocalDateTime.class));
+    verify(transactionManager, times(1)).commit(any());
+  }
+
+  @Test
+  @DisplayName("Should only write usage recorded since the previous flush")
+  void shouldOnlyWriteNewUsage() {
+    // Given
+    tracker.record(1L);
+    tracker.flush();
+    tracker.record(1L);
+
+    // When
+    int secondFlush = tracker.flush();
+    int thirdFlush = tracker.flush();
+
+    // Then
+    assertEquals(1, secondFlush);
+    assertEquals(0, thirdFlush);
+    verify(apiKeyRepository, times(2)).addUsageStats(eq(1L), eq(1L), any(LocalDateTime.class));
+  }
+
+  @Test
+  @DisplayName("Should keep usage pending after a failed flush and write it on shutdown")
+  void shouldRetryFailedFlushOnShutdown() {
+    // Given
+    tracker.record(5L);
+    tracker.record(5L);
+    when(apiKeyRepository.addUsageStats(eq(5L), anyLong(), any(LocalDateTime.class)))
+        .thenThrow(new RuntimeException("database unavailable"))
+        .thenReturn(1);
+
+    // When
+    assertThrows(RuntimeException.class, () -> tracker.flush());
+    long pendingAfterFailure = tracker.getPendingCount();
+    tracker.shutdown();
+
+    // Then
+    assertEquals(2L, pendingAfterFailure);
+    assertEquals(0L, tracker.getPendingCount());
+    verify(apiKeyRepository, times(2)).addUsageStats(eq(5L), eq(2L), any(LocalDateTime.class));
+  }
+}
@@ -1,6 +1,5 @@
 package com.paynow.agentassist.service;
 
-import com.paynow.agentassist.util.ResourceManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,8 +15,7 @@ class BalanceServiceTest {
 
   @BeforeEach
   void setUp() {
-    ResourceManager resourceManager = new ResourceManager();
-    balanceService = new BalanceService(resourceManager);
+    balanceService = new BalanceService();
   }
 
   @Test
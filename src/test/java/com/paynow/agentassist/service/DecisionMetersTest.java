@@ -0,0 +1,117 @@
+package com.paynow.agentassist.service;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.service.DecisionMeters.Operation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Decision Meters Tests")
+class DecisionMetersTest {
+
+  private MeterRegistry meterRegistry;
+  private DecisionMeters decisionMeters;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    decisionMeters = new DecisionMeters(meterRegistry, List.of("default", "conservative"));
+  }
+
+  @Test
+  @DisplayName("Should register every operation, strategy and decision up front")
+  void shouldPreRegisterAllCombinations() {
+    int expected = Operation.values().length * 2 * PaymentDecision.values().length;
+
+    assertEquals(
+        expected,
+        meterRegistry.get(ApiConstants.METRIC_DECISION_OPERATIONS_TOTAL).counters().size());
+    assertEquals(
+        Operation.values().length,
+        meterRegistry.get(ApiConstants.METRIC_PAYMENT_SERVICE_DURATION).timers().size());
+    assertEquals(
+        2, meterRegistry.get(ApiConstants.METRIC_RATE_LIMIT_CHECKS_TOTAL).counters().size());
+  }
+
+  @Test
+  @DisplayName("Should record into the matching meters")
+  void shouldRecordIntoMatchingMeters() {
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, "conservative", PaymentDecision.BLOCK);
+    decisionMeters.recordDecision(Operation.PROCESS_PAYMENT_DECISION, PaymentDecision.ALLOW);
+    decisionMeters.recordRateLimitCheck(false);
+    decisionMeters.recordDuration(Operation.CHECK_RATE_LIMIT, TimeUnit.MILLISECONDS.toNanos(3));
+
+    assertEquals(1.0, decisionCount("payment_decision_strategy", "conservative", "block"));
+    assertEquals(1.0, decisionCount("payment_decision", "default", "allow"));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get(ApiConstants.METRIC_RATE_LIMIT_CHECKS_TOTAL)
+            .tag("allowed", "false")
+            .counter()
+            .count());
+    assertEquals(
+        3.0,
+        meterRegistry
+            .get(ApiConstants.METRIC_PAYMENT_SERVICE_DURATION)
+            .tag("operation", "checkRateLimit")
+            .timer()
+            .totalTime(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  @DisplayName("Should count unknown strategies under the default strategy")
+  void shouldCountUnknownStrategiesAsDefault() {
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, "unknown", PaymentDecision.REVIEW);
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, null, PaymentDecision.REVIEW);
+
+    assertEquals(2.0, decisionCount("payment_decision_strategy", "default", "review"));
+    assertNull(
+        meterRegistry
+            .find(ApiConstants.METRIC_DECISION_OPERATIONS_TOTAL)
+            .tag("strategy", "unknown")
+            .counter());
+  }
+
+  @Test
+  @DisplayName("Should add counters for strategies the registry learns about later")
+  void shouldCountReloadedStrategies() {
+    Set<String> known = new HashSet<>(List.of("default", "conservative"));
+    decisionMeters = new DecisionMeters(meterRegistry, known, known::contains);
+
+    known.add("cautious");
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, "cautious", PaymentDecision.REVIEW);
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, "cautious", PaymentDecision.REVIEW);
+    decisionMeters.recordDecision(
+        Operation.PROCESS_PAYMENT_DECISION_WITH_STRATEGY, "unknown", PaymentDecision.REVIEW);
+
+    assertEquals(2.0, decisionCount("payment_decision_strategy", "cautious", "review"));
+    assertEquals(1.0, decisionCount("payment_decision_strategy", "default", "review"));
+    assertEquals(
+        Operation.values().length * 3 * PaymentDecision.values().length,
+        meterRegistry.get(ApiConstants.METRIC_DECISION_OPERATIONS_TOTAL).counters().size());
+  }
+
+  private double decisionCount(String operation, String strategy, String decision) {
+    return meterRegistry
+        .get(ApiConstants.METRIC_DECISION_OPERATIONS_TOTAL)
+        .tags("operation", operation, "strategy", strategy, "decision", decision)
+        .counter()
+        .count();
+  }
+}
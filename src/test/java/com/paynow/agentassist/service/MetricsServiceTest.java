@@ -2,7 +2,10 @@ package com.paynow.agentassist.service;
 
 import com.paynow.agentassist.constants.ApiConstants;
 import com.paynow.agentassist.domain.PaymentDecision;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -102,6 +105,40 @@ class MetricsServiceTest {
     assertNotNull(metrics.get("payment_request_count"));
   }
 
+  @Test
+  @DisplayName("Should report configured latency percentiles")
+  void shouldReportConfiguredLatencyPercentiles() {
+    // Given a registry configured like management.metrics.distribution.percentiles
+    meterRegistry = new SimpleMeterRegistry();
+    meterRegistry
+        .config()
+        .meterFilter(
+            new MeterFilter() {
+              @Override
+              public DistributionStatisticConfig configure(
+                  Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                    .percentiles(0.5, 0.99, 0.999)
+                    .build()
+                    .merge(config);
+              }
+            });
+    metricsService = new MetricsService(meterRegistry);
+    for (int ms = 1; ms <= 100; ms++) {
+      metricsService.recordRequestDuration(System.nanoTime() - ms * 1_000_000L);
+    }
+
+    // When
+    Map<String, Object> metrics = metricsService.getSystemMetrics();
+
+    // Then
+    double p50 = (double) metrics.get("payment_request_p50_latency_ms");
+    double p99 = (double) metrics.get("payment_request_p99_latency_ms");
+    assertTrue(p50 >= 40 && p50 <= 60, "p50 was " + p50);
+    assertTrue(p99 >= p50);
+    assertNotNull(metrics.get("payment_request_p99_9_latency_ms"));
+  }
+
   @Test
   @DisplayName("Should handle empty metrics gracefully")
   void shouldHandleEmptyMetricsGracefully() {
@@ -15,7 +15,10 @@ import com.paynow.agentassist.event.PaymentDecisionEvent;
 import com.paynow.agentassist.repository.PaymentTransactionRepository;
 import com.paynow.agentassist.service.agent.PaymentDecisionAgent;
 import com.paynow.agentassist.service.agent.PaymentDecisionProcessor;
+import com.paynow.agentassist.service.payment.IdempotencyCache;
+import com.paynow.agentassist.service.payment.PaymentTransactionWriter;
 import com.paynow.agentassist.service.payment.PaymentDecisionService;
+import com.paynow.agentassist.service.payment.TraceCodec;
 import com.paynow.agentassist.service.payment.impl.PaymentDecisionServiceImpl;
 import com.paynow.agentassist.strategy.DecisionStrategyRegistry;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,13 +26,20 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -47,8 +57,9 @@ class PaymentDecisionServiceUnitTest {
   @Mock private DecisionStrategyRegistry strategyRegistry;
   @Mock private EventPublisher eventPublisher;
   @Mock private ObjectMapper objectMapper;
+  @Spy private IdempotencyCache idempotencyCache = new IdempotencyCache(100, 60);
+  @Mock private PaymentTransactionWriter transactionWriter;
 
-  @InjectMocks
   private PaymentDecisionServiceImpl paymentDecisionService;
 
   private PaymentDecisionRequest testRequest;
@@ -56,6 +67,18 @@ class PaymentDecisionServiceUnitTest {
 
   @BeforeEach
   void setUp() {
+    // JSON format keeps serialization going through the mocked ObjectMapper
+    paymentDecisionService =
+        new PaymentDecisionServiceImpl(
+            transactionRepository,
+            decisionAgent,
+            balanceService,
+            rateLimitingService,
+            strategyRegistry,
+            eventPublisher,
+            new TraceCodec(objectMapper, TraceCodec.Format.JSON),
+            idempotencyCache,
+            transactionWriter);
     testRequest = createTestRequest();
     testAgentResult = createAgentResult(PaymentDecision.ALLOW);
   }
@@ -68,22 +91,23 @@ class PaymentDecisionServiceUnitTest {
     @DisplayName("Should return success when rate limit is not exceeded")
     void shouldReturnSuccessWhenRateLimitNotExceeded() {
       // Given
-      RateLimitResult allowedResult = new RateLimitResult(true, null, null);
-      when(rateLimitingService.isAllowed(testRequest.customerId())).thenReturn(true);
+      when(rateLimitingService.check(null, testRequest.customerId(), testRequest.payeeId()))
+          .thenReturn(RateLimitResult.success());
 
       // When
       RateLimitResult result = paymentDecisionService.checkRateLimit(testRequest);
 
       // Then
       assertTrue(result.allowed());
-      verify(rateLimitingService).isAllowed(testRequest.customerId());
+      verify(rateLimitingService).check(null, testRequest.customerId(), testRequest.payeeId());
     }
 
     @Test
     @DisplayName("Should return rate limited when rate limit is exceeded")
     void shouldReturnRateLimitedWhenRateLimitExceeded() {
       // Given
-      when(rateLimitingService.isAllowed(testRequest.customerId())).thenReturn(false);
+      when(rateLimitingService.check(null, testRequest.customerId(), testRequest.payeeId()))
+          .thenReturn(RateLimitResult.rateLimited("customer", 1_500_000_000L));
 
       // When
       RateLimitResult result = paymentDecisionService.checkRateLimit(testRequest);
@@ -91,8 +115,8 @@ class PaymentDecisionServiceUnitTest {
       // Then
       assertFalse(result.allowed());
       assertNotNull(result.errorMessage());
-      assertNotNull(result.retryAfter());
-      verify(rateLimitingService).isAllowed(testRequest.customerId());
+      assertEquals("2", result.retryAfter());
+      verify(rateLimitingService).check(null, testRequest.customerId(), testRequest.payeeId());
     }
   }
 
@@ -160,6 +184,188 @@ class PaymentDecisionServiceUnitTest {
       verify(eventPublisher, never()).publishPaymentDecision(any());
     }
 
+    @Test
+    @DisplayName("Should answer replays from the idempotency cache without repository lookup")
+    void shouldAnswerReplaysFromIdempotencyCache() {
+      // Given
+      when(transactionRepository.findByIdempotencyKey(testRequest.idempotencyKey()))
+          .thenReturn(Optional.empty());
+      when(decisionAgent.processPayment(testRequest)).thenReturn(testAgentResult);
+      when(balanceService.reserveAmount(testRequest.customerId(), testRequest.amount()))
+          .thenReturn(true);
+      when(transactionRepository.save(any(PaymentTransaction.class)))
+          .thenReturn(new PaymentTransaction());
+      try {
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+      } catch (JsonProcessingException e) {
+        // Mocking doesn't actually throw
+      }
+
+      // When
+      PaymentDecisionResponse first = paymentDecisionService.processPaymentDecision(testRequest);
+      PaymentDecisionResponse replay = paymentDecisionService.processPaymentDecision(testRequest);
+
+      // Then
+      assertEquals(first, replay);
+      verify(idempotencyCache).put(eq(testRequest.idempotencyKey()), any());
+      verify(transactionRepository, times(1)).findByIdempotencyKey(testRequest.idempotencyKey());
+      verify(decisionAgent, times(1)).processPayment(testRequest);
+      verify(transactionRepository, times(1)).save(any(PaymentTransaction.class));
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent requests with the same idempotency key")
+    void shouldCoalesceConcurrentRequestsWithSameIdempotencyKey() throws Exception {
+      // Given - the agent blocks until the duplicate request has arrived
+      CountDownLatch agentStarted = new CountDownLatch(1);
+      CountDownLatch releaseAgent = new CountDownLatch(1);
+      when(transactionRepository.findByIdempotencyKey(testRequest.idempotencyKey()))
+          .thenReturn(Optional.empty());
+      when(decisionAgent.processPayment(testRequest))
+          .thenAnswer(
+              invocation -> {
+                agentStarted.countDown();
+                releaseAgent.await(5, TimeUnit.SECONDS);
+                return testAgentResult;
+              });
+      when(balanceService.reserveAmount(testRequest.customerId(), testRequest.amount()))
+          .thenReturn(true);
+      when(transactionRepository.save(any(PaymentTransaction.class)))
+          .thenReturn(new PaymentTransaction());
+      when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        // When
+        Future<PaymentDecisionResponse> leader =
+            executor.submit(() -> paymentDecisionService.processPaymentDecision(testRequest));
+        assertTrue(agentStarted.await(5, TimeUnit.SECONDS));
+        Future<PaymentDecisionResponse> duplicate =
+            executor.submit(() -> paymentDecisionService.processPaymentDecision(testRequest));
+        Thread.sleep(50);
+        releaseAgent.countDown();
+
+        // Then - both callers get the leader's response from a single agent run
+        assertEquals(leader.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        verify(decisionAgent, times(1)).processPayment(testRequest);
+        verify(balanceService, times(1)).reserveAmount(any(), any());
+        verify(transactionRepository, times(1)).save(any(PaymentTransaction.class));
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    @Test
+    @DisplayName("Should fail joined duplicates when the leader's commit fails")
+    void shouldFailJoinersWhenCommitFails() throws Exception {
+      // Given - the agent blocks until the duplicate request has joined
+      CountDownLatch agentStarted = new CountDownLatch(1);
+      CountDownLatch releaseAgent = new CountDownLatch(1);
+      CountDownLatch leaderReturned = new CountDownLatch(1);
+      CountDownLatch commit = new CountDownLatch(1);
+      when(transactionRepository.findByIdempotencyKey(testRequest.idempotencyKey()))
+          .thenReturn(Optional.empty());
+      when(decisionAgent.processPayment(testRequest))
+          .thenAnswer(
+              invocation -> {
+                agentStarted.countDown();
+                releaseAgent.await(5, TimeUnit.SECONDS);
+                return testAgentResult;
+              });
+      when(balanceService.reserveAmount(testRequest.customerId(), testRequest.amount()))
+          .thenReturn(true);
+      when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        // When - the leader runs in a transaction whose commit fails, e.g. on a duplicate key
+        Future<PaymentDecisionResponse> leader =
+            executor.submit(
+                () -> {
+                  TransactionSynchronizationManager.initSynchronization();
+                  try {
+                    PaymentDecisionResponse response =
+                        paymentDecisionService.processPaymentDecision(testRequest);
+                    leaderReturned.countDown();
+                    commit.await(5, TimeUnit.SECONDS);
+                    TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(
+                            sync ->
+                                sync.afterCompletion(
+                                    TransactionSynchronization.STATUS_ROLLED_BACK));
+                    return response;
+                  } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                  }
+                });
+        assertTrue(agentStarted.await(5, TimeUnit.SECONDS));
+        Future<PaymentDecisionResponse> duplicate =
+            executor.submit(() -> paymentDecisionService.processPaymentDecision(testRequest));
+        Thread.sleep(50);
+        releaseAgent.countDown();
+        assertTrue(leaderReturned.await(5, TimeUnit.SECONDS));
+
+        // Then - the duplicate waits for the commit and does not get the unstored decision
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+        commit.countDown();
+
+        PaymentDecisionResponse joined = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(PaymentDecision.BLOCK, joined.decision());
+        assertTrue(joined.reasons().contains(ApiConstants.REASON_SYSTEM_ERROR));
+        assertEquals(PaymentDecision.ALLOW, leader.get(5, TimeUnit.SECONDS).decision());
+        verify(decisionAgent, times(1)).processPayment(testRequest);
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    @Test
+    @DisplayName("Should hand the row to write-behind only once the transaction commits")
+    void shouldWriteBehindAfterCommit() throws Exception {
+      // Given
+      stubAllowedDecision();
+      when(transactionWriter.isWriteBehind()).thenReturn(true);
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        // When
+        paymentDecisionService.processPaymentDecision(testRequest);
+
+        // Then - nothing is queued or cached while the transaction can still roll back
+        verify(transactionWriter, never()).write(any());
+        assertNull(idempotencyCache.get(testRequest.idempotencyKey()));
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(TransactionSynchronization::afterCommit);
+        verify(transactionWriter).write(any(PaymentTransaction.class));
+        assertNotNull(idempotencyCache.get(testRequest.idempotencyKey()));
+        verify(transactionRepository, never()).save(any());
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+
+    @Test
+    @DisplayName("Should not write behind a decision whose transaction rolls back")
+    void shouldNotWriteBehindAfterRollback() throws Exception {
+      // Given
+      stubAllowedDecision();
+      when(transactionWriter.isWriteBehind()).thenReturn(true);
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        // When
+        paymentDecisionService.processPaymentDecision(testRequest);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        verify(transactionWriter, never()).write(any());
+        assertNull(idempotencyCache.get(testRequest.idempotencyKey()));
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+
     @Test
     @DisplayName("Should change ALLOW to BLOCK when balance reservation fails")
     void shouldChangeAllowToBlockWhenBalanceReservationFails() {
@@ -435,6 +641,15 @@ class PaymentDecisionServiceUnitTest {
   }
 
   // Helper methods
+  private void stubAllowedDecision() throws JsonProcessingException {
+    when(transactionRepository.findByIdempotencyKey(testRequest.idempotencyKey()))
+        .thenReturn(Optional.empty());
+    when(decisionAgent.processPayment(testRequest)).thenReturn(testAgentResult);
+    when(balanceService.reserveAmount(testRequest.customerId(), testRequest.amount()))
+        .thenReturn(true);
+    when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+  }
+
   private PaymentDecisionRequest createTestRequest() {
     return PaymentDecisionRequestBuilder.newBuilder()
         .customerId("c_test_customer_123")
@@ -1,5 +1,6 @@
 package com.paynow.agentassist.service;
 
+import com.paynow.agentassist.dto.RateLimitResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -74,4 +75,29 @@ class RateLimitingServiceTest {
     assertTrue(
         tokensAfterConsumption < initialTokens); // Should have fewer tokens after consumption
   }
+
+  @Test
+  @DisplayName("Should reject on any tier and refund the tiers already charged")
+  void shouldRejectOnAnyTierAndRefundEarlierTiers() {
+    // Given
+    RateLimitingService rateLimitingService = new RateLimitingService();
+    ReflectionTestUtils.setField(rateLimitingService, "requestsPerSecond", 5);
+    ReflectionTestUtils.setField(rateLimitingService, "bucketCapacity", 10);
+    ReflectionTestUtils.setField(rateLimitingService, "payeeRequestsPerSecond", 1);
+    ReflectionTestUtils.setField(rateLimitingService, "payeeBucketCapacity", 2);
+
+    // When
+    RateLimitResult first = rateLimitingService.check("user1", "c_tiered", "p_busy_payee");
+    RateLimitResult second = rateLimitingService.check("user1", "c_tiered", "p_busy_payee");
+    RateLimitResult third = rateLimitingService.check("user1", "c_tiered", "p_busy_payee");
+
+    // Then
+    assertTrue(first.allowed());
+    assertTrue(second.allowed());
+    assertFalse(third.allowed());
+    assertEquals("Too many requests for this payee", third.errorMessage());
+    assertEquals("1", third.retryAfter());
+    assertEquals(8, rateLimitingService.getAvailableTokens("c_tiered"));
+    assertTrue(rateLimitingService.check("user1", "c_tiered", "p_other_payee").allowed());
+  }
 }
@@ -0,0 +1,191 @@
+package com.paynow.agentassist.service.agent;
+
+import com.paynow.agentassist.factory.AgentToolFactory;
+import com.paynow.agentassist.service.agent.tool.BalanceTool;
+import com.paynow.agentassist.service.agent.tool.CaseCreationTool;
+import com.paynow.agentassist.service.agent.tool.RiskSignalsTool;
+import com.paynow.agentassist.strategy.DecisionStrategyRegistry;
+import com.paynow.agentassist.strategy.ShadowStrategyEvaluator;
+import com.paynow.agentassist.util.PerformanceLogger;
+import com.paynow.agentassist.util.ResourceManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Decision Agent Tests")
+class PaymentDecisionAgentTest {
+
+  @Mock private BalanceTool balanceTool;
+  @Mock private RiskSignalsTool riskSignalsTool;
+  @Mock private CaseCreationTool caseCreationTool;
+  @Mock private DecisionStrategyRegistry strategyRegistry;
+  @Mock private ShadowStrategyEvaluator shadowEvaluator;
+  @Mock private AgentToolFactory toolFactory;
+  @Mock private PerformanceLogger performanceLogger;
+  @Mock private ResourceManager resourceManager;
+  @Mock private ScheduledExecutorService retryScheduler;
+
+  private final AtomicInteger attempts = new AtomicInteger();
+  // Retries handed to the scheduler, run by the test when it chooses
+  private final List<Runnable> scheduledRetries = new ArrayList<>();
+  private final List<Long> backoffs = new ArrayList<>();
+
+  private PaymentDecisionAgent agent;
+
+  @BeforeEach
+  void setUp() {
+    when(resourceManager.getRetryScheduler()).thenReturn(retryScheduler);
+    agent =
+        new PaymentDecisionAgent(
+            balanceTool,
+            riskSignalsTool,
+            caseCreationTool,
+            strategyRegistry,
+            shadowEvaluator,
+            toolFactory,
+            performanceLogger,
+            resourceManager);
+    ReflectionTestUtils.setField(agent, "maxRetries", 2);
+  }
+
+  @Test
+  @DisplayName("Should retry a failing tool and return the first successful result")
+  void shouldRetryUntilToolSucceeds() {
+    scheduleRetries();
+
+    CompletableFuture<BigDecimal> result =
+        agent.executeToolWithRetry(failingTool(2, new BigDecimal("100.00")), "getBalance");
+    runScheduledRetries();
+
+    assertEquals(new BigDecimal("100.00"), result.join());
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  @DisplayName("Should back off linearly through the retry scheduler")
+  void shouldBackOffLinearly() {
+    scheduleRetries();
+
+    agent.executeToolWithRetry(failingTool(Integer.MAX_VALUE, BigDecimal.ONE), "getBalance");
+    runScheduledRetries();
+
+    assertEquals(List.of(100L, 200L), backoffs);
+    verify(retryScheduler, times(2))
+        .schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  @DisplayName("Should give up after the maximum retries with the last tool failure as cause")
+  void shouldGiveUpAfterMaxRetries() {
+    scheduleRetries();
+
+    CompletableFuture<BigDecimal> result =
+        agent.executeToolWithRetry(failingTool(Integer.MAX_VALUE, BigDecimal.ONE), "getBalance");
+    runScheduledRetries();
+
+    CompletionException thrown = assertThrows(CompletionException.class, result::join);
+    assertEquals("Tool getBalance failed after 3 attempts", thrown.getCause().getMessage());
+    assertEquals("balance service down (attempt 3)", thrown.getCause().getCause().getMessage());
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  @DisplayName("Should not start another attempt once the caller has timed out")
+  void shouldStopRetryingAfterCallerTimeout() {
+    scheduleRetries();
+
+    CompletableFuture<BigDecimal> result =
+        agent.executeToolWithRetry(failingTool(Integer.MAX_VALUE, BigDecimal.ONE), "getBalance");
+    CompletableFuture<BigDecimal> caller = result.orTimeout(10, TimeUnit.MILLISECONDS);
+    assertThrows(CompletionException.class, caller::join);
+    runScheduledRetries();
+
+    assertEquals(1, attempts.get());
+    assertEquals(1, backoffs.size());
+  }
+
+  @Test
+  @DisplayName("Should fail with the tool failure when the scheduler rejects the retry")
+  void shouldFailWhenRetryIsRejected() {
+    when(retryScheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenThrow(new RejectedExecutionException("scheduler shut down"));
+
+    CompletableFuture<BigDecimal> result =
+        agent.executeToolWithRetry(failingTool(Integer.MAX_VALUE, BigDecimal.ONE), "getBalance");
+
+    CompletionException thrown = assertThrows(CompletionException.class, result::join);
+    assertEquals("Tool getBalance retry rejected", thrown.getCause().getMessage());
+    assertEquals("balance service down (attempt 1)", thrown.getCause().getCause().getMessage());
+    assertEquals(1, attempts.get());
+  }
+
+  @Test
+  @DisplayName("Should treat a tool that throws instead of returning a future as a failed attempt")
+  void shouldRetryToolThatThrows() {
+    scheduleRetries();
+    Supplier<CompletableFuture<BigDecimal>> throwing =
+        () -> {
+          if (attempts.incrementAndGet() == 1) {
+            throw new IllegalStateException("executor rejected the tool");
+          }
+          return CompletableFuture.completedFuture(BigDecimal.TEN);
+        };
+
+    CompletableFuture<BigDecimal> result = agent.executeToolWithRetry(throwing, "getBalance");
+    runScheduledRetries();
+
+    assertEquals(BigDecimal.TEN, result.join());
+    assertEquals(2, attempts.get());
+  }
+
+  // Fails the first `failures` attempts through the returned future, then returns `value`
+  private Supplier<CompletableFuture<BigDecimal>> failingTool(int failures, BigDecimal value) {
+    return () -> {
+      int attempt = attempts.incrementAndGet();
+      if (attempt <= failures) {
+        return CompletableFuture.failedFuture(
+            new IllegalStateException("balance service down (attempt " + attempt + ")"));
+      }
+      return CompletableFuture.completedFuture(value);
+    };
+  }
+
+  private void scheduleRetries() {
+    when(retryScheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenAnswer(
+            invocation -> {
+              scheduledRetries.add(invocation.getArgument(0));
+              backoffs.add(invocation.getArgument(1));
+              return null;
+            });
+  }
+
+  // Each retry may schedule the next one, so run until the queue stays empty
+  private void runScheduledRetries() {
+    while (!scheduledRetries.isEmpty()) {
+      scheduledRetries.remove(0).run();
+    }
+  }
+}
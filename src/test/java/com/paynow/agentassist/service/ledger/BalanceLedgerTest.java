@@ -0,0 +1,120 @@
+package com.paynow.agentassist.service.ledger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Balance Ledger Tests")
+class BalanceLedgerTest {
+
+  private BalanceLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    ledger = new BalanceLedger();
+    ledger.open("c_ledger", 100_000L); // 1000.00
+  }
+
+  @Test
+  @DisplayName("Should convert amounts to and from minor units")
+  void shouldConvertAmountsToAndFromMinorUnits() {
+    assertEquals(12_550L, BalanceLedger.toMinorUnits(new BigDecimal("125.50")));
+    assertEquals(500L, BalanceLedger.toMinorUnits(new BigDecimal("5")));
+    assertEquals(new BigDecimal("125.50"), BalanceLedger.fromMinorUnits(12_550L));
+    assertThrows(
+        ArithmeticException.class, () -> BalanceLedger.toMinorUnits(new BigDecimal("1.005")));
+  }
+
+  @Test
+  @DisplayName("Should reserve, release and deduct within one entry")
+  void shouldReserveReleaseAndDeductWithinOneEntry() {
+    // When
+    BalanceLedger.Entry reserved = ledger.reserve("c_ledger", 30_000L);
+    BalanceLedger.Entry released = ledger.release("c_ledger", 10_000L);
+    BalanceLedger.Entry deducted = ledger.deduct("c_ledger", 20_000L);
+
+    // Then
+    assertEquals(new BalanceLedger.Entry(100_000L, 30_000L), reserved);
+    assertEquals(new BalanceLedger.Entry(100_000L, 20_000L), released);
+    assertEquals(new BalanceLedger.Entry(80_000L, 0L), deducted);
+    assertEquals(80_000L, ledger.get("c_ledger").available());
+  }
+
+  @Test
+  @DisplayName("Should reject reservations above available balance")
+  void shouldRejectReservationsAboveAvailableBalance() {
+    // When
+    BalanceLedger.Entry first = ledger.reserve("c_ledger", 90_000L);
+    BalanceLedger.Entry second = ledger.reserve("c_ledger", 20_000L);
+
+    // Then
+    assertNotNull(first);
+    assertNull(second);
+    assertEquals(90_000L, ledger.get("c_ledger").reserved());
+  }
+
+  @Test
+  @DisplayName("Should not create cells for failed reservations of unknown customers")
+  void shouldNotCreateCellsForFailedReservationsOfUnknownCustomers() {
+    // When
+    BalanceLedger.Entry entry = ledger.reserve("c_unknown", 1_000L);
+
+    // Then
+    assertNull(entry);
+    assertEquals(1, ledger.size());
+    assertEquals(0L, ledger.get("c_unknown").available());
+  }
+
+  @Test
+  @DisplayName("Should never over-reserve under concurrent reservations")
+  void shouldNeverOverReserveUnderConcurrentReservations() throws Exception {
+    // Given - 1000.00 available and 16 threads each trying 100 reservations of 1.00
+    int threads = 16;
+    int attemptsPerThread = 100;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+
+    try {
+      for (int t = 0; t < threads; t++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  int successes = 0;
+                  for (int i = 0; i < attemptsPerThread; i++) {
+                    if (ledger.reserve("c_ledger", 100L) != null) {
+                      successes++;
+                    }
+                  }
+                  return successes;
+                }));
+      }
+
+      // When
+      start.countDown();
+      int totalSuccesses = 0;
+      for (Future<Integer> result : results) {
+        totalSuccesses += result.get(10, TimeUnit.SECONDS);
+      }
+
+      // Then - exactly the balance worth of reservations succeeded
+      assertEquals(1_000, totalSuccesses);
+      assertEquals(100_000L, ledger.get("c_ledger").reserved());
+      assertEquals(0L, ledger.get("c_ledger").available());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
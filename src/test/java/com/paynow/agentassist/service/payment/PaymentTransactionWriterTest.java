@@ -0,0 +1,230 @@
+package com.paynow.agentassist.service.payment;
+
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionResponse;
+import com.paynow.agentassist.entity.PaymentTransaction;
+import com.paynow.agentassist.repository.PaymentTransactionRepository;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Payment Transaction Writer Tests")
+class PaymentTransactionWriterTest {
+
+  private PaymentTransactionRepository repository;
+  private PlatformTransactionManager transactionManager;
+  private IdempotencyCache idempotencyCache;
+  private ResourceManager resourceManager;
+  private MeterRegistry meterRegistry;
+  private PaymentTransactionWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(PaymentTransactionRepository.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    idempotencyCache = new IdempotencyCache(100, 60);
+    resourceManager = new ResourceManager();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (writer != null) {
+      writer.shutdown();
+    }
+    resourceManager.cleanup();
+  }
+
+  @Test
+  @DisplayName("Should insert queued rows in batches of at most the batch size")
+  void shouldFlushInBatches() throws InterruptedException {
+    // Given - the first batch is held until every row is queued
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    when(repository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              batchSizes.add(invocation.<List<?>>getArgument(0).size());
+              return invocation.getArgument(0);
+            });
+    writer = writeBehind(100, 3);
+
+    // When
+    for (int i = 0; i < 7; i++) {
+      assertTrue(writer.submit(transaction("key-" + i)));
+    }
+    assertTrue(writer.findPending("key-6").isPresent());
+    release.countDown();
+    awaitWritten("key-6");
+
+    // Then
+    assertEquals(7.0, rows("flushed"));
+    assertEquals(7, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    assertTrue(batchSizes.stream().allMatch(size -> size <= 3));
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Should retry a failed batch row by row and evict rows that still fail")
+  void shouldFallBackToIndividualSaves() throws InterruptedException {
+    // Given
+    when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("duplicate key"));
+    when(repository.save(argThat(row -> row != null && row.getIdempotencyKey().equals("bad"))))
+        .thenThrow(new IllegalStateException("duplicate key"));
+    idempotencyCache.put("good", response());
+    idempotencyCache.put("bad", response());
+    writer = writeBehind(100, 10);
+
+    // When
+    writer.submit(transaction("good"));
+    writer.submit(transaction("bad"));
+    awaitWritten("bad");
+
+    // Then
+    assertEquals(1.0, rows("flushed"));
+    assertEquals(1.0, rows("failed"));
+    verify(repository, times(2)).save(any());
+    assertNotNull(idempotencyCache.get("good"));
+    assertNull(idempotencyCache.get("bad"));
+  }
+
+  @Test
+  @DisplayName("Should refuse rows when the queue stays full and save them synchronously")
+  void shouldApplyBackpressure() throws InterruptedException {
+    // Given - the flusher is stuck on the first row, the second fills the queue
+    CountDownLatch flushing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(repository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              flushing.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return invocation.getArgument(0);
+            });
+    writer = writeBehind(1, 1);
+    assertTrue(writer.submit(transaction("first")));
+    assertTrue(flushing.await(5, TimeUnit.SECONDS));
+    assertTrue(writer.submit(transaction("second")));
+
+    // When
+    boolean accepted = writer.submit(transaction("third"));
+    writer.write(transaction("fourth"));
+
+    // Then
+    assertFalse(accepted);
+    assertTrue(writer.findPending("third").isEmpty());
+    verify(repository).save(argThat(row -> row.getIdempotencyKey().equals("fourth")));
+    assertEquals(
+        2.0, meterRegistry.get("transaction_writer.backpressure").functionCounter().count());
+    release.countDown();
+  }
+
+  @Test
+  @DisplayName("Should write every accepted row on shutdown and refuse later ones")
+  void shouldDrainOnShutdown() {
+    // Given
+    when(repository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(20);
+              return invocation.getArgument(0);
+            });
+    writer = writeBehind(100, 2);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(writer.submit(transaction("key-" + i)));
+    }
+
+    // When
+    writer.shutdown();
+
+    // Then
+    assertEquals(10.0, rows("flushed"));
+    assertEquals(0, writer.getQueueDepth());
+    assertFalse(writer.submit(transaction("late")));
+    writer.write(transaction("late"));
+    verify(repository).save(argThat(row -> row.getIdempotencyKey().equals("late")));
+  }
+
+  @Test
+  @DisplayName("Should leave saving to the caller in sync mode")
+  void shouldNotQueueInSyncMode() {
+    writer = writer("sync", 100, 10);
+
+    assertFalse(writer.isWriteBehind());
+    assertFalse(writer.submit(transaction("key-0")));
+    assertTrue(writer.findPending("key-0").isEmpty());
+    verifyNoInteractions(repository);
+  }
+
+  private PaymentTransactionWriter writeBehind(int queueCapacity, int batchSize) {
+    return writer("write-behind", queueCapacity, batchSize);
+  }
+
+  private PaymentTransactionWriter writer(String mode, int queueCapacity, int batchSize) {
+    PaymentTransactionWriter created =
+        new PaymentTransactionWriter(
+            repository,
+            transactionManager,
+            idempotencyCache,
+            resourceManager,
+            mode,
+            queueCapacity,
+            batchSize,
+            10,
+            5);
+    created.bindTo(meterRegistry);
+    return created;
+  }
+
+  // A row stops being pending once its batch has been written or given up on
+  private void awaitWritten(String idempotencyKey) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (writer.findPending(idempotencyKey).isPresent() && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(writer.findPending(idempotencyKey).isEmpty());
+  }
+
+  private double rows(String result) {
+    return meterRegistry
+        .get("transaction_writer.rows")
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  private static PaymentTransaction transaction(String idempotencyKey) {
+    PaymentTransaction transaction = new PaymentTransaction();
+    transaction.setIdempotencyKey(idempotencyKey);
+    transaction.setCustomerId("c_test_001");
+    transaction.setAmount(new BigDecimal("100.00"));
+    transaction.setCurrency("USD");
+    transaction.setPayeeId("p_test_001");
+    transaction.setDecision(PaymentDecision.ALLOW);
+    transaction.setRequestId("req_" + idempotencyKey);
+    return transaction;
+  }
+
+  private static PaymentDecisionResponse response() {
+    return new PaymentDecisionResponse(PaymentDecision.ALLOW, List.of(), List.of(), "req_test");
+  }
+}
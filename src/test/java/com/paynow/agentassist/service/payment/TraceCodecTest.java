@@ -0,0 +1,120 @@
+package com.paynow.agentassist.service.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paynow.agentassist.domain.AgentStep;
+import com.paynow.agentassist.entity.PaymentTransaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Trace Codec Tests")
+class TraceCodecTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final TraceCodec binaryCodec = new TraceCodec(objectMapper, TraceCodec.Format.BINARY);
+  private final TraceCodec jsonCodec = new TraceCodec(objectMapper, TraceCodec.Format.JSON);
+
+  private final List<String> reasons = List.of("recent_disputes", "device_change_detected");
+  private final List<AgentStep> trace =
+      List.of(
+          new AgentStep("plan", "Check balance, risk, and limits"),
+          new AgentStep("tool:getBalance", "balance=300.00"),
+          new AgentStep("custom:step", "café ✓"),
+          new AgentStep("tool:recommend", null));
+
+  @Test
+  @DisplayName("Should round-trip reasons and trace through the compact columns")
+  void shouldRoundTripThroughCompactColumns() throws IOException {
+    // Given
+    PaymentTransaction transaction = new PaymentTransaction();
+
+    // When
+    binaryCodec.encode(transaction, reasons, trace);
+
+    // Then
+    assertNull(transaction.getReasons());
+    assertNull(transaction.getAgentTrace());
+    assertNotNull(transaction.getReasonMask());
+    assertTrue(
+        transaction.getAgentTraceData().length < objectMapper.writeValueAsBytes(trace).length);
+    assertEquals(reasons, binaryCodec.decodeReasons(transaction));
+    assertEquals(trace, binaryCodec.decodeTrace(transaction));
+  }
+
+  @Test
+  @DisplayName("Should fall back to JSON for reasons outside the vocabulary or order")
+  void shouldFallBackToJsonForUnrepresentableReasons() throws IOException {
+    for (List<String> unrepresentable :
+        List.of(
+            List.of("low_risk"),
+            List.of("device_change_detected", "recent_disputes"),
+            List.of("system_error", "system_error"))) {
+      // Given
+      PaymentTransaction transaction = new PaymentTransaction();
+
+      // When
+      binaryCodec.encode(transaction, unrepresentable, trace);
+
+      // Then
+      assertNull(transaction.getReasonMask());
+      assertNotNull(transaction.getReasons());
+      assertEquals(unrepresentable, binaryCodec.decodeReasons(transaction));
+    }
+  }
+
+  @Test
+  @DisplayName("Should fall back to JSON for traces larger than the column")
+  void shouldFallBackToJsonForOversizedTraces() throws IOException {
+    // Given
+    char[] detail = new char[PaymentTransaction.AGENT_TRACE_DATA_LENGTH];
+    Arrays.fill(detail, 'x');
+    List<AgentStep> oversized = List.of(new AgentStep("error", new String(detail)));
+    PaymentTransaction transaction = new PaymentTransaction();
+
+    // When
+    binaryCodec.encode(transaction, reasons, oversized);
+
+    // Then
+    assertNull(transaction.getAgentTraceData());
+    assertEquals(oversized, binaryCodec.decodeTrace(transaction));
+  }
+
+  @Test
+  @DisplayName("Should read rows written in either format")
+  void shouldReadRowsWrittenInEitherFormat() throws IOException {
+    // Given
+    PaymentTransaction jsonRow = new PaymentTransaction();
+    PaymentTransaction binaryRow = new PaymentTransaction();
+
+    // When
+    jsonCodec.encode(jsonRow, reasons, trace);
+    binaryCodec.encode(binaryRow, reasons, trace);
+
+    // Then
+    assertNull(jsonRow.getReasonMask());
+    assertNull(jsonRow.getAgentTraceData());
+    assertEquals(reasons, binaryCodec.decodeReasons(jsonRow));
+    assertEquals(trace, binaryCodec.decodeTrace(jsonRow));
+    assertEquals(reasons, jsonCodec.decodeReasons(binaryRow));
+    assertEquals(trace, jsonCodec.decodeTrace(binaryRow));
+  }
+
+  @Test
+  @DisplayName("Should reject corrupt trace data")
+  void shouldRejectCorruptTraceData() {
+    byte[] valid = TraceCodec.encodeTrace(new ArrayList<>(trace));
+    byte[] truncated = Arrays.copyOf(valid, valid.length - 3);
+    byte[] wrongVersion = valid.clone();
+    wrongVersion[0] = 42;
+
+    assertThrows(IOException.class, () -> TraceCodec.decodeTrace(truncated));
+    assertThrows(IOException.class, () -> TraceCodec.decodeTrace(wrongVersion));
+    assertThrows(IOException.class, () -> TraceCodec.decodeTrace(new byte[0]));
+  }
+}
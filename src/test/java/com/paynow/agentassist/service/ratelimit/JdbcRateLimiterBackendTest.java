@@ -0,0 +1,105 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.paynow.agentassist.service.ratelimit.RateLimitTier.CUSTOMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JDBC Rate Limiter Backend Tests")
+class JdbcRateLimiterBackendTest {
+
+  private static final int CAPACITY = 10;
+  private static final BucketConfiguration CONFIGURATION =
+      BucketConfiguration.builder()
+          .addLimit(Bandwidth.classic(CAPACITY, Refill.intervally(1, Duration.ofHours(1))))
+          .build();
+
+  private JdbcDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:rate-limit-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          "CREATE TABLE rate_limit_buckets (bucket_key VARCHAR(255) PRIMARY KEY,"
+              + " state VARBINARY(512) NOT NULL, version BIGINT NOT NULL)");
+    }
+  }
+
+  @Test
+  @DisplayName("Should enforce one limit across replicas sharing the database")
+  void shouldShareLimitAcrossReplicas() {
+    // Given
+    JdbcRateLimiterBackend nodeA = new JdbcRateLimiterBackend(dataSource, 0, 100, 1000, 600);
+    JdbcRateLimiterBackend nodeB = new JdbcRateLimiterBackend(dataSource, 0, 100, 1000, 600);
+
+    // When
+    int allowed = 0;
+    for (int i = 0; i < CAPACITY; i++) {
+      JdbcRateLimiterBackend node = i % 2 == 0 ? nodeA : nodeB;
+      if (node.tryConsume(CUSTOMER, "c_shared", 1, CONFIGURATION) == 0L) {
+        allowed++;
+      }
+    }
+
+    // Then
+    assertEquals(CAPACITY, allowed);
+    assertTrue(nodeA.tryConsume(CUSTOMER, "c_shared", 1, CONFIGURATION) > 0L);
+    assertTrue(nodeB.tryConsume(CUSTOMER, "c_shared", 1, CONFIGURATION) > 0L);
+  }
+
+  @Test
+  @DisplayName("Should find buckets created by another replica")
+  void shouldFindBucketsCreatedElsewhere() {
+    // Given
+    JdbcRateLimiterBackend nodeA = new JdbcRateLimiterBackend(dataSource, 0, 100, 1000, 600);
+    JdbcRateLimiterBackend nodeB = new JdbcRateLimiterBackend(dataSource, 0, 100, 1000, 600);
+    assertTrue(nodeB.getAvailableTokens(CUSTOMER, "c_elsewhere", CONFIGURATION).isEmpty());
+
+    // When
+    nodeA.tryConsume(CUSTOMER, "c_elsewhere", 3, CONFIGURATION);
+
+    // Then
+    assertEquals(
+        CAPACITY - 3,
+        nodeB.getAvailableTokens(CUSTOMER, "c_elsewhere", CONFIGURATION).getAsLong());
+  }
+
+  @Test
+  @DisplayName("Should consume prefetched tokens without a round trip per request")
+  void shouldPrefetchTokens() {
+    // Given
+    JdbcRateLimiterBackend unbatched = new JdbcRateLimiterBackend(dataSource, 0, 100, 1000, 600);
+    JdbcRateLimiterBackend prefetching =
+        new JdbcRateLimiterBackend(dataSource, 5, 60_000, 1000, 600);
+
+    // When
+    for (int i = 0; i < CAPACITY; i++) {
+      assertEquals(0L, unbatched.tryConsume(CUSTOMER, "c_unbatched", 1, CONFIGURATION));
+      assertEquals(0L, prefetching.tryConsume(CUSTOMER, "c_prefetching", 1, CONFIGURATION));
+    }
+
+    // Then
+    assertTrue(
+        prefetching.getRoundTrips() * 2 < unbatched.getRoundTrips(),
+        () ->
+            "prefetching issued "
+                + prefetching.getRoundTrips()
+                + " statements, unbatched "
+                + unbatched.getRoundTrips());
+  }
+}
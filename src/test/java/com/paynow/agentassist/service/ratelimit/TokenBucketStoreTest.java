@@ -0,0 +1,140 @@
+package com.paynow.agentassist.service.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.TimeMeter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token Bucket Store Tests")
+class TokenBucketStoreTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final Bandwidth INTERVALLY =
+      Bandwidth.classic(10, Refill.intervally(5, Duration.ofSeconds(1)));
+  private static final Bandwidth GREEDY =
+      Bandwidth.classic(10, Refill.greedy(4, Duration.ofSeconds(1)));
+
+  private final AtomicLong clock = new AtomicLong(1_000L * SECOND);
+
+  @Test
+  @DisplayName("Should match bucket4j consumption and wait times for both refill styles")
+  void shouldMatchBucket4jSemantics() {
+    for (Bandwidth limit : new Bandwidth[] {INTERVALLY, GREEDY}) {
+      // Given
+      TokenBucketStore store = new TokenBucketStore(100, 1, TimeUnit.HOURS, clock::get);
+      Bucket reference =
+          Bucket.builder().addLimit(limit).withCustomTimePrecision(new ManualTimeMeter()).build();
+      long[] steps = {0, 0, SECOND / 3, 0, SECOND, 0, SECOND / 10, 7 * SECOND, 0, 0};
+      long[] tokens = {4, 7, 3, 2, 6, 1, 5, 10, 1, 9};
+
+      for (int i = 0; i < steps.length; i++) {
+        // When
+        clock.addAndGet(steps[i]);
+        ConsumptionProbe expected = reference.tryConsumeAndReturnRemaining(tokens[i]);
+        long wait = store.tryConsume("c_ref", tokens[i], limit);
+
+        // Then
+        String step = limit + " step " + i;
+        assertEquals(expected.isConsumed(), wait == 0L, step);
+        assertEquals(expected.getNanosToWaitForRefill(), wait, step);
+        assertEquals(
+            expected.getRemainingTokens(),
+            store.getAvailableTokens("c_ref", limit).getAsLong(),
+            step);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should evict buckets idle past the timeout and restart them full")
+  void shouldEvictIdleBuckets() {
+    // Given
+    TokenBucketStore store = new TokenBucketStore(100, 60, TimeUnit.SECONDS, clock::get);
+    store.tryConsume("c_idle", 10, INTERVALLY);
+    store.tryConsume("c_active", 1, INTERVALLY);
+
+    // When
+    clock.addAndGet(45 * SECOND);
+    store.tryConsume("c_active", 1, INTERVALLY);
+    clock.addAndGet(30 * SECOND);
+    int evicted = store.evictIdle();
+
+    // Then
+    assertEquals(1, evicted);
+    assertEquals(1, store.size());
+    assertTrue(store.getAvailableTokens("c_idle", INTERVALLY).isEmpty());
+    assertTrue(store.getAvailableTokens("c_active", INTERVALLY).isPresent());
+    assertEquals(1, store.idleEvictionCount());
+  }
+
+  @Test
+  @DisplayName("Should evict the least recently used bucket when full and reuse its slot")
+  void shouldEvictLeastRecentlyUsedWhenFull() {
+    // Given a store small enough for a single segment
+    TokenBucketStore store = new TokenBucketStore(3, 1, TimeUnit.HOURS, clock::get);
+    store.tryConsume("c_1", 1, INTERVALLY);
+    store.tryConsume("c_2", 2, INTERVALLY);
+    store.tryConsume("c_3", 3, INTERVALLY);
+    store.tryConsume("c_1", 1, INTERVALLY);
+
+    // When
+    store.tryConsume("c_4", 4, INTERVALLY);
+
+    // Then
+    assertEquals(6, store.getAvailableTokens("c_4", INTERVALLY).getAsLong());
+    assertEquals(3, store.size());
+    assertEquals(1, store.sizeEvictionCount());
+    assertTrue(store.getAvailableTokens("c_2", INTERVALLY).isEmpty());
+    assertEquals(8, store.getAvailableTokens("c_1", INTERVALLY).getAsLong());
+    assertEquals(7, store.getAvailableTokens("c_3", INTERVALLY).getAsLong());
+  }
+
+  @Test
+  @DisplayName("Should refund tokens up to the bucket capacity")
+  void shouldRefundUpToCapacity() {
+    // Given
+    TokenBucketStore store = new TokenBucketStore(100, 1, TimeUnit.HOURS, clock::get);
+    store.tryConsume("c_refund", 3, INTERVALLY);
+
+    // When
+    store.refund("c_refund", 2, INTERVALLY);
+    long afterRefund = store.getAvailableTokens("c_refund", INTERVALLY).getAsLong();
+    store.refund("c_refund", 5, INTERVALLY);
+
+    // Then
+    assertEquals(9, afterRefund);
+    assertEquals(10, store.getAvailableTokens("c_refund", INTERVALLY).getAsLong());
+  }
+
+  @Test
+  @DisplayName("Should reject configurations with more than one bandwidth")
+  void shouldRejectMultipleBandwidths() {
+    BucketConfiguration configuration =
+        BucketConfiguration.builder().addLimit(INTERVALLY).addLimit(GREEDY).build();
+
+    assertThrows(
+        IllegalArgumentException.class, () -> TokenBucketStore.singleBandwidth(configuration));
+  }
+
+  private final class ManualTimeMeter implements TimeMeter {
+    @Override
+    public long currentTimeNanos() {
+      return clock.get();
+    }
+
+    @Override
+    public boolean isWallClockBased() {
+      return false;
+    }
+  }
+}
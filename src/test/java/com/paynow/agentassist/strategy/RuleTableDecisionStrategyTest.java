@@ -0,0 +1,176 @@
+package com.paynow.agentassist.strategy;
+
+import com.paynow.agentassist.config.DecisionStrategyConfig;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.domain.ReasonCode;
+import com.paynow.agentassist.dto.PaymentDecisionRequestBuilder;
+import com.paynow.agentassist.dto.RiskSignals;
+import com.paynow.agentassist.strategy.StrategyDefinition.Rule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rule Table Decision Strategy Tests")
+class RuleTableDecisionStrategyTest {
+
+  private static final BigDecimal BALANCE = new BigDecimal("1000.00");
+  private static final RiskSignals LOW_RISK = new RiskSignals(0, false, false, 1, "LOW");
+
+  private final RuleTableDecisionStrategy cautious =
+      new RuleTableDecisionStrategy(
+          "cautious",
+          new StrategyDefinition(
+              "Reviews anything above 250 or with a device change",
+              List.of(
+                  new Rule("amount > balance", "insufficient_balance", "block"),
+                  new Rule("risk-score >= MEDIUM and recent-disputes > 1", null, "block"),
+                  new Rule("amount > 250", "amount_above_daily_threshold", null),
+                  new Rule("device-change", "device_change_detected", null),
+                  new Rule("reasons >= 1", null, "review")),
+              null));
+
+  @Test
+  @DisplayName("Should pack the decision and reason mask into the result")
+  void shouldPackDecisionAndReasons() {
+    long result =
+        cautious.evaluate(
+            new BigDecimal("300.00"), BALANCE, new RiskSignals(0, true, false, 1, "LOW"));
+
+    assertEquals(PaymentDecision.REVIEW, RuleTableDecisionStrategy.decision(result));
+    assertEquals(
+        ReasonCode.AMOUNT_ABOVE_DAILY_THRESHOLD.bit() | ReasonCode.DEVICE_CHANGE_DETECTED.bit(),
+        RuleTableDecisionStrategy.reasonMask(result));
+  }
+
+  @Test
+  @DisplayName("Should fall through to the default outcome when no rule decides")
+  void shouldUseOtherwiseWhenNoRuleDecides() {
+    long result = cautious.evaluate(new BigDecimal("250.00"), BALANCE, LOW_RISK);
+
+    assertEquals(PaymentDecision.ALLOW, RuleTableDecisionStrategy.decision(result));
+    assertEquals(0L, RuleTableDecisionStrategy.reasonMask(result));
+  }
+
+  @Test
+  @DisplayName("Should compare the amount with the balance exactly")
+  void shouldCompareAmountWithBalance() {
+    assertEquals(
+        PaymentDecision.ALLOW,
+        RuleTableDecisionStrategy.decision(
+            cautious.evaluate(new BigDecimal("100"), new BigDecimal("100.00"), LOW_RISK)));
+    assertEquals(
+        PaymentDecision.BLOCK,
+        RuleTableDecisionStrategy.decision(
+            cautious.evaluate(new BigDecimal("100.01"), new BigDecimal("100.00"), LOW_RISK)));
+  }
+
+  @Test
+  @DisplayName("Should order risk scores and never match an unknown one")
+  void shouldOrderRiskScores() {
+    assertEquals(PaymentDecision.BLOCK, decide(new RiskSignals(2, false, false, 1, "HIGH")));
+    assertEquals(PaymentDecision.BLOCK, decide(new RiskSignals(2, false, false, 1, "MEDIUM")));
+    assertEquals(PaymentDecision.ALLOW, decide(new RiskSignals(2, false, false, 1, "LOW")));
+    assertEquals(PaymentDecision.ALLOW, decide(new RiskSignals(2, false, false, 1, "SEVERE")));
+    assertEquals(PaymentDecision.ALLOW, decide(new RiskSignals(2, false, false, 1, null)));
+  }
+
+  @Test
+  @DisplayName("Should add reasons to the list in declaration order")
+  void shouldAddReasonsToList() {
+    List<String> reasons = new ArrayList<>();
+
+    PaymentDecision decision =
+        new DefaultDecisionStrategy()
+            .makeDecision(
+                PaymentDecisionRequestBuilder.newBuilder()
+                    .customerId("c_test_customer_123")
+                    .amount(new BigDecimal("150.00"))
+                    .currency("USD")
+                    .payeeId("p_test_payee_456")
+                    .generateIdempotencyKey()
+                    .build(),
+                BALANCE,
+                new RiskSignals(1, true, true, 20, "LOW"),
+                reasons);
+
+    assertEquals(PaymentDecision.REVIEW, decision);
+    assertEquals(
+        List.of(
+            "amount_above_daily_threshold",
+            "recent_disputes",
+            "device_change_detected",
+            "velocity_violation",
+            "high_transaction_frequency"),
+        reasons);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "amount >> 5",
+        "amount > lots",
+        "amount > amount",
+        "device-change > true",
+        "device-change = yes",
+        "risk-score = SEVERE",
+        "disputes > 0",
+        "reasons >= 1 or amount > 5"
+      })
+  @DisplayName("Should reject conditions that do not compile")
+  void shouldRejectInvalidConditions(String when) {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> singleRule(when, null, "review"));
+    assertTrue(e.getMessage().startsWith("Strategy 'broken' rule 1"), e.getMessage());
+  }
+
+  @Test
+  @DisplayName("Should reject unknown reasons and outcomes")
+  void shouldRejectUnknownReasonsAndOutcomes() {
+    assertThrows(IllegalArgumentException.class, () -> singleRule("device-change", "odd", null));
+    assertThrows(IllegalArgumentException.class, () -> singleRule("device-change", null, "deny"));
+    assertThrows(IllegalArgumentException.class, () -> singleRule("device-change", null, null));
+  }
+
+  @Test
+  @DisplayName("Should register configured strategies beside the built-in ones")
+  void shouldRegisterConfiguredStrategies() {
+    DecisionStrategyConfig config = new DecisionStrategyConfig();
+    config.setStrategies(
+        Map.of(
+            "cautious",
+            new StrategyDefinition(
+                "Cautious", List.of(new Rule("amount > 250", null, "review")), "allow")));
+
+    DecisionStrategyRegistry registry =
+        new DecisionStrategyRegistry(
+            List.of(new DefaultDecisionStrategy()), config, new SimpleMeterRegistry());
+
+    assertTrue(registry.isValidStrategy("cautious"));
+    assertEquals("Cautious", registry.getStrategy("cautious").getDescription());
+
+    config.setStrategies(Map.of("default", new StrategyDefinition(null, List.of(), null)));
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            new DecisionStrategyRegistry(
+                List.of(new DefaultDecisionStrategy()), config, new SimpleMeterRegistry()));
+  }
+
+  private PaymentDecision decide(RiskSignals signals) {
+    return RuleTableDecisionStrategy.decision(cautious.evaluate(BigDecimal.TEN, BALANCE, signals));
+  }
+
+  private static RuleTableDecisionStrategy singleRule(String when, String reason, String outcome) {
+    return new RuleTableDecisionStrategy(
+        "broken", new StrategyDefinition(null, List.of(new Rule(when, reason, outcome)), null));
+  }
+}
@@ -0,0 +1,152 @@
+package com.paynow.agentassist.strategy;
+
+import com.paynow.agentassist.config.DecisionStrategyConfig;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RiskSignals;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Shadow Strategy Evaluator Tests")
+class ShadowStrategyEvaluatorTest {
+
+  private static final PaymentDecisionRequest REQUEST =
+      new PaymentDecisionRequest(
+          "c_test_001", new BigDecimal("150.00"), "USD", "p_test_001", "key-0000001");
+  private static final BigDecimal BALANCE = new BigDecimal("10000.00");
+  private static final RiskSignals LOW_RISK = new RiskSignals(0, false, false, 1, "LOW");
+
+  private MeterRegistry meterRegistry;
+  private DecisionStrategyRegistry registry;
+  private ResourceManager resourceManager;
+  private ShadowStrategyEvaluator evaluator;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    DecisionStrategyConfig config = new DecisionStrategyConfig();
+    config.setStrategies(
+        Map.of(
+            "strict", new StrategyDefinition(null, List.of(), "block"),
+            "lenient", new StrategyDefinition(null, List.of(), "allow")));
+    registry =
+        new DecisionStrategyRegistry(List.of(new DefaultDecisionStrategy()), config, meterRegistry);
+    resourceManager = new ResourceManager();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (evaluator != null) {
+      evaluator.shutdown();
+    }
+    resourceManager.cleanup();
+  }
+
+  @Test
+  @DisplayName("Should count served and shadow decisions by strategy pair")
+  void shouldCountAgreementMatrix() {
+    evaluator = evaluator("strict, lenient");
+
+    evaluator.evaluate(sample("default", PaymentDecision.REVIEW));
+    evaluator.evaluate(sample("default", PaymentDecision.REVIEW));
+    evaluator.evaluate(sample("strict", PaymentDecision.BLOCK));
+
+    assertEquals(2.0, outcomes("default", "strict", "review", "block"));
+    assertEquals(2.0, outcomes("default", "lenient", "review", "allow"));
+    assertEquals(1.0, outcomes("strict", "lenient", "block", "allow"));
+    // A strategy is not compared with itself
+    assertNull(shadowCounter("strict", "strict", "block", "block"));
+  }
+
+  @Test
+  @DisplayName("Should leave the served strategy counters alone and skip unknown candidates")
+  void shouldNotCountShadowDecisionsAsServed() {
+    evaluator = evaluator("strict,missing");
+
+    evaluator.evaluate(sample("default", PaymentDecision.REVIEW));
+
+    assertEquals(1.0, outcomes("default", "strict", "review", "block"));
+    assertEquals(
+        0.0,
+        meterRegistry
+            .get("decision_strategy_decisions_total")
+            .tags("strategy", "strict")
+            .counter()
+            .count());
+    assertEquals(
+        1, meterRegistry.find("decision_strategy_shadow_decisions_total").counters().size());
+  }
+
+  @Test
+  @DisplayName("Should evaluate submitted decisions in the background")
+  void shouldEvaluateSubmittedDecisions() throws InterruptedException {
+    evaluator = evaluator("strict");
+    assertTrue(evaluator.isEnabled());
+
+    PaymentDecision served =
+        registry
+            .getStrategy("default")
+            .makeDecision(REQUEST, BALANCE, LOW_RISK, new ArrayList<>());
+    assertTrue(evaluator.submit(REQUEST, BALANCE, LOW_RISK, "default", served));
+
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    while (shadowCounter("default", "strict", served.getValue(), "block") == null
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1.0, outcomes("default", "strict", served.getValue(), "block"));
+  }
+
+  @Test
+  @DisplayName("Should not queue anything when no candidates are configured")
+  void shouldBeDisabledWithoutCandidates() {
+    evaluator = evaluator(" ");
+
+    assertFalse(evaluator.isEnabled());
+    assertFalse(evaluator.submit(REQUEST, BALANCE, LOW_RISK, "default", PaymentDecision.ALLOW));
+    assertEquals(0, evaluator.getQueueDepth());
+  }
+
+  private ShadowStrategyEvaluator evaluator(String candidates) {
+    ShadowStrategyEvaluator created =
+        new ShadowStrategyEvaluator(registry, resourceManager, candidates, 10);
+    created.bindTo(meterRegistry);
+    return created;
+  }
+
+  private static ShadowStrategyEvaluator.Sample sample(String strategy, PaymentDecision decision) {
+    return new ShadowStrategyEvaluator.Sample(REQUEST, BALANCE, LOW_RISK, strategy, decision);
+  }
+
+  private double outcomes(
+      String primary, String candidate, String primaryDecision, String candidateDecision) {
+    Counter counter = shadowCounter(primary, candidate, primaryDecision, candidateDecision);
+    assertNotNull(counter);
+    return counter.count();
+  }
+
+  private Counter shadowCounter(
+      String primary, String candidate, String primaryDecision, String candidateDecision) {
+    return meterRegistry
+        .find("decision_strategy_shadow_decisions_total")
+        .tags(
+            "primary", primary,
+            "candidate", candidate,
+            "primary_decision", primaryDecision,
+            "candidate_decision", candidateDecision)
+        .counter();
+  }
+}
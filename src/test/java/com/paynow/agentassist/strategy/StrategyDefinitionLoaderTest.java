@@ -0,0 +1,199 @@
+package com.paynow.agentassist.strategy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paynow.agentassist.config.DecisionStrategyConfig;
+import com.paynow.agentassist.domain.PaymentDecision;
+import com.paynow.agentassist.dto.PaymentDecisionRequest;
+import com.paynow.agentassist.dto.RiskSignals;
+import com.paynow.agentassist.util.ResourceManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Strategy Definition Loader Tests")
+class StrategyDefinitionLoaderTest {
+
+  private static final PaymentDecisionRequest REQUEST =
+      new PaymentDecisionRequest(
+          "c_test_001", new BigDecimal("150.00"), "USD", "p_test_001", "key-0000001");
+  private static final BigDecimal BALANCE = new BigDecimal("10000.00");
+  private static final RiskSignals LOW_RISK = new RiskSignals(0, false, false, 1, "LOW");
+
+  @TempDir Path dir;
+
+  private Path file;
+  private MeterRegistry meterRegistry;
+  private DecisionStrategyRegistry registry;
+  private ResourceManager resourceManager;
+  private StrategyDefinitionLoader loader;
+  private int edits;
+
+  @BeforeEach
+  void setUp() {
+    file = dir.resolve("strategies.json");
+    meterRegistry = new SimpleMeterRegistry();
+    registry =
+        new DecisionStrategyRegistry(
+            List.of(new DefaultDecisionStrategy(), new ConservativeDecisionStrategy()),
+            new DecisionStrategyConfig(),
+            meterRegistry);
+    resourceManager = new ResourceManager();
+    // Long interval so only explicit polls run during the test
+    loader =
+        new StrategyDefinitionLoader(
+            registry, new ObjectMapper(), resourceManager, file.toString(), 60_000);
+    loader.bindTo(meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    loader.shutdown();
+    resourceManager.cleanup();
+  }
+
+  @Test
+  @DisplayName("Should replace and add strategies from the file")
+  void shouldApplyDefinitions() throws IOException {
+    assertEquals(PaymentDecision.REVIEW, decide("default"));
+
+    write(
+        """
+        {"version": 1, "strategies": {
+          "default": {"description": "Lenient default", "rules": [
+            {"when": "amount > 500", "reason": "amount_above_daily_threshold",
+             "outcome": "review"}]},
+          "cautious": {"rules": [{"when": "amount > 100", "outcome": "block"}]}}}
+        """);
+
+    assertTrue(loader.poll());
+    assertEquals(1, registry.getDefinitionsVersion());
+    assertEquals(PaymentDecision.ALLOW, decide("default"));
+    assertEquals(PaymentDecision.BLOCK, decide("cautious"));
+    assertEquals("Lenient default", registry.getDefaultStrategy().getDescription());
+    assertTrue(registry.isValidStrategy("conservative"));
+  }
+
+  @Test
+  @DisplayName("Should keep the applied version when the file is invalid or not newer")
+  void shouldRejectInvalidOrStaleDefinitions() throws IOException {
+    write("{\"version\": 2, \"strategies\": {\"cautious\": {\"rules\": []}}}");
+    assertTrue(loader.poll());
+
+    write("{\"version\": 3, \"strategies\": {\"cautious\": {\"rules\": [{\"when\": \"x\"}]}}}");
+    assertThrows(IllegalArgumentException.class, loader::poll);
+
+    write("{\"version\": 2, \"strategies\": {}}");
+    assertThrows(IllegalArgumentException.class, loader::poll);
+
+    write("{\"version\": 4, \"strategis\": {}}");
+    assertThrows(IOException.class, loader::poll);
+
+    assertEquals(2, registry.getDefinitionsVersion());
+    assertTrue(registry.isValidStrategy("cautious"));
+    assertEquals(1.0, loads("applied"));
+    assertEquals(3.0, loads("rejected"));
+  }
+
+  @Test
+  @DisplayName("Should skip a poll when the file has not changed")
+  void shouldSkipUnchangedFile() throws IOException {
+    assertFalse(loader.poll());
+
+    write("{\"version\": 1, \"strategies\": {}}");
+    assertTrue(loader.poll());
+    assertFalse(loader.poll());
+  }
+
+  @Test
+  @DisplayName("Should count decisions per strategy and version")
+  void shouldCountDecisionsPerVersion() throws IOException {
+    decide("default");
+    assertEquals(1.0, decisions("default", "0"));
+
+    write("{\"version\": 5, \"strategies\": {\"default\": {\"rules\": []}}}");
+    assertTrue(loader.poll());
+    decide("default");
+    decide("unknown");
+
+    assertEquals(2.0, decisions("default", "5"));
+  }
+
+  @Test
+  @DisplayName("Should keep a replaced version's counter until the next update")
+  void shouldRetireReplacedCountersOneUpdateLate() throws IOException {
+    DecisionStrategy inFlight = registry.getStrategy("default");
+
+    write("{\"version\": 1, \"strategies\": {\"default\": {\"rules\": []}}}");
+    assertTrue(loader.poll());
+    inFlight.makeDecision(REQUEST, BALANCE, LOW_RISK, new ArrayList<>());
+    assertEquals(1.0, decisions("default", "0"));
+
+    write("{\"version\": 2, \"strategies\": {\"default\": {\"rules\": []}}}");
+    assertTrue(loader.poll());
+    assertNull(
+        meterRegistry
+            .find("decision_strategy_decisions_total")
+            .tags("strategy", "default", "version", "0")
+            .counter());
+    assertEquals(0.0, decisions("default", "1"));
+  }
+
+  @Test
+  @DisplayName("Should let a request finish on the strategy it looked up")
+  void shouldKeepSnapshotForInFlightRequest() throws IOException {
+    DecisionStrategy inFlight = registry.getStrategy("default");
+
+    write(
+        "{\"version\": 1, \"strategies\": "
+            + "{\"default\": {\"rules\": [], \"otherwise\": \"block\"}}}");
+    assertTrue(loader.poll());
+
+    assertEquals(
+        PaymentDecision.REVIEW,
+        inFlight.makeDecision(REQUEST, BALANCE, LOW_RISK, new ArrayList<>()));
+    assertEquals(PaymentDecision.BLOCK, decide("default"));
+  }
+
+  private PaymentDecision decide(String strategy) {
+    return registry
+        .getStrategy(strategy)
+        .makeDecision(REQUEST, BALANCE, LOW_RISK, new ArrayList<>());
+  }
+
+  private double loads(String result) {
+    return meterRegistry
+        .get("decision_strategy_definitions.loads")
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  private double decisions(String strategy, String version) {
+    return meterRegistry
+        .get("decision_strategy_decisions_total")
+        .tags("strategy", strategy, "version", version)
+        .counter()
+        .count();
+  }
+
+  // Bumps the modification time as well, so edits within the clock's resolution are still seen
+  private void write(String json) throws IOException {
+    Files.writeString(file, json);
+    Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(++edits)));
+  }
+}
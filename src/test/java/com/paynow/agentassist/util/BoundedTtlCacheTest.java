@@ -0,0 +1,72 @@
+package com.paynow.agentassist.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bounded TTL Cache Tests")
+class BoundedTtlCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  @DisplayName("Should return cached values until they expire")
+  void shouldReturnCachedValuesUntilTheyExpire() {
+    // Given
+    BoundedTtlCache<String, String> cache =
+        new BoundedTtlCache<>(10, 5, TimeUnit.SECONDS, clock::get);
+    cache.put("key", "value");
+
+    // When & Then
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+    assertEquals("value", cache.get("key"));
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertNull(cache.get("key"));
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.hitCount());
+    assertEquals(1, cache.missCount());
+  }
+
+  @Test
+  @DisplayName("Should evict entries beyond the maximum size")
+  void shouldEvictEntriesBeyondMaximumSize() {
+    // Given
+    BoundedTtlCache<Integer, Integer> cache =
+        new BoundedTtlCache<>(32, 1, TimeUnit.MINUTES, clock::get);
+
+    // When
+    for (int i = 0; i < 1_000; i++) {
+      cache.put(i, i);
+    }
+
+    // Then
+    assertTrue(cache.size() <= 32);
+    assertEquals(1_000 - cache.size(), cache.evictionCount());
+    assertEquals(999, cache.get(999));
+  }
+
+  @Test
+  @DisplayName("Should invalidate single keys and the whole cache")
+  void shouldInvalidateSingleKeysAndWholeCache() {
+    // Given
+    BoundedTtlCache<String, String> cache =
+        new BoundedTtlCache<>(10, 1, TimeUnit.MINUTES, clock::get);
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    // When
+    cache.invalidate("a");
+
+    // Then
+    assertNull(cache.get("a"));
+    assertEquals("2", cache.get("b"));
+
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,48 @@
+package com.paynow.agentassist.util;
+
+import com.paynow.agentassist.util.ResourceManager.ExecutionMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Resource Manager Tests")
+class ResourceManagerTest {
+
+  private ResourceManager resourceManager;
+
+  @AfterEach
+  void tearDown() {
+    resourceManager.cleanup();
+  }
+
+  @Test
+  @DisplayName("Should run tool calls and named executors on virtual threads in virtual mode")
+  void shouldCreateVirtualThreadExecutors() throws Exception {
+    resourceManager = new ResourceManager(ExecutionMode.from("virtual"));
+
+    assertEquals(ExecutionMode.VIRTUAL, resourceManager.getExecutionMode());
+    assertTrue(runsOnVirtualThread(resourceManager.getAgentToolExecutor()));
+    assertTrue(runsOnVirtualThread(resourceManager.getOrCreateExecutor("test-pool", 2)));
+    // Timers stay on platform threads, they only hand work over
+    assertFalse(runsOnVirtualThread(resourceManager.getRetryScheduler()));
+  }
+
+  @Test
+  @DisplayName("Should use platform thread pools by default")
+  void shouldCreatePlatformThreadExecutorsByDefault() throws Exception {
+    resourceManager = new ResourceManager(ExecutionMode.from(" "));
+
+    assertEquals(ExecutionMode.PLATFORM, resourceManager.getExecutionMode());
+    assertFalse(runsOnVirtualThread(resourceManager.getAgentToolExecutor()));
+    assertFalse(runsOnVirtualThread(resourceManager.getOrCreateExecutor("test-pool", 2)));
+  }
+
+  private static boolean runsOnVirtualThread(ExecutorService executor) throws Exception {
+    return executor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,87 @@
+package com.paynow.agentassist.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Striped Lock Table Tests")
+class StripedLockTableTest {
+
+  @Test
+  @DisplayName("Should round stripe count up to a power of two")
+  void shouldRoundStripeCountUpToPowerOfTwo() {
+    assertEquals(64, new StripedLockTable(64, false).stripeCount());
+    assertEquals(128, new StripedLockTable(100, false).stripeCount());
+    assertEquals(1, new StripedLockTable(1, false).stripeCount());
+    assertThrows(IllegalArgumentException.class, () -> new StripedLockTable(0, false));
+  }
+
+  @Test
+  @DisplayName("Should map the same resource to the same stripe with bounded memory")
+  void shouldMapSameResourceToSameStripe() {
+    // Given
+    StripedLockTable table = new StripedLockTable(16, false);
+
+    // When & Then
+    assertSame(table.stripeFor("balance:c_001"), table.stripeFor("balance:c_001"));
+    for (int i = 0; i < 10_000; i++) {
+      assertNotNull(table.stripeFor("balance:c_" + i));
+    }
+    assertEquals(16, table.stripeCount());
+  }
+
+  @Test
+  @DisplayName("Should honour the configured fairness policy")
+  void shouldHonourConfiguredFairnessPolicy() {
+    assertTrue(new StripedLockTable(4, true).stripeFor("x").getLock().isFair());
+    assertFalse(new StripedLockTable(4, false).stripeFor("x").getLock().isFair());
+  }
+
+  @Test
+  @DisplayName("Should record wait time and contention per stripe")
+  void shouldRecordWaitTimeAndContentionPerStripe() throws Exception {
+    // Given
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    StripedLockTable table = new StripedLockTable(1, false);
+    table.bindTo(meterRegistry);
+    StripedLockTable.Stripe stripe = table.stripeFor("resource");
+    CountDownLatch waiting = new CountDownLatch(1);
+
+    // When - a second thread blocks on the stripe held by this thread
+    stripe.lock();
+    Thread contender =
+        new Thread(
+            () -> {
+              waiting.countDown();
+              stripe.lock();
+              stripe.unlock();
+            });
+    contender.start();
+    waiting.await(5, TimeUnit.SECONDS);
+    while (!stripe.getLock().hasQueuedThreads()) {
+      Thread.onSpinWait();
+    }
+    Thread.sleep(20);
+    stripe.unlock();
+    contender.join(5_000);
+
+    // Then
+    FunctionTimer wait =
+        meterRegistry.find("resource_lock.wait").tag("stripe", "0").functionTimer();
+    FunctionCounter contended =
+        meterRegistry.find("resource_lock.contended").tag("stripe", "0").functionCounter();
+    assertNotNull(wait);
+    assertNotNull(contended);
+    assertEquals(2.0, wait.count());
+    assertTrue(wait.totalTime(TimeUnit.MILLISECONDS) >= 10);
+    assertEquals(1.0, contended.count());
+  }
+}
@@ -0,0 +1,59 @@
+package com.paynow.agentassist.util;
+
+import com.paynow.agentassist.constants.ApiConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Virtual Thread Pinning Monitor Tests")
+class VirtualThreadPinningMonitorTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Object monitor = new Object();
+
+  @Test
+  @DisplayName("Should count a pin under the application class holding the monitor")
+  void shouldCountForcedPin() throws InterruptedException {
+    try (VirtualThreadPinningMonitor ignored =
+        new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(1))) {
+      // Sleeping inside synchronized blocks the virtual thread without unmounting it
+      Thread pinned =
+          Thread.ofVirtual()
+              .start(
+                  () -> {
+                    synchronized (monitor) {
+                      try {
+                        Thread.sleep(50);
+                      } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                      }
+                    }
+                  });
+      pinned.join();
+
+      // JFR streams events in periodic chunks, so the pin shows up after a flush
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (pins("VirtualThreadPinningMonitorTest") == null && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+    }
+
+    Counter counter = pins("VirtualThreadPinningMonitorTest");
+    assertNotNull(counter);
+    assertTrue(counter.count() >= 1.0);
+  }
+
+  private Counter pins(String source) {
+    return meterRegistry
+        .find(ApiConstants.METRIC_VIRTUAL_THREAD_PINNED)
+        .tag("source", source)
+        .counter();
+  }
+}